@@ -0,0 +1,72 @@
+package com.sarvesh.orderservice.benchmark;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares a JMH JSON result file against the checked-in baseline.
+ *
+ * Usage: BaselineComparator <baseline.json> <result.json> [maxRegressionPercent]
+ *
+ * Prints one line per benchmark and exits with status 1 if any benchmark got slower
+ * (or lost throughput) by more than the allowed percentage (default 10%).
+ */
+public final class BaselineComparator {
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <baseline.json> <result.json> [maxRegressionPercent]");
+            System.exit(2);
+        }
+        double maxRegression = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+
+        boolean regressed = false;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf("NEW   %-70s %12.3f %s%n", entry.getKey(), after.value(), after.unit());
+                continue;
+            }
+
+            // For time-per-op modes lower is better; for throughput higher is better
+            double change = (after.value() - before.value()) / before.value() * 100.0;
+            double worse = after.higherIsBetter() ? -change : change;
+            String status = worse > maxRegression ? "SLOW" : "OK";
+            regressed |= worse > maxRegression;
+            System.out.printf("%-5s %-70s %12.3f -> %12.3f %s (%+.1f%%)%n",
+                    status, entry.getKey(), before.value(), after.value(), after.unit(), change);
+        }
+
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static Map<String, Score> read(File file) throws Exception {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(p -> params.put(p.getKey(), p.getValue().asText()));
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+
+            JsonNode metric = run.path("primaryMetric");
+            boolean throughput = "thrpt".equals(run.path("mode").asText());
+            scores.put(key.toString(), new Score(metric.path("score").asDouble(), metric.path("scoreUnit").asText(), throughput));
+        }
+        return scores;
+    }
+
+    private record Score(double value, String unit, boolean higherIsBetter) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.sarvesh.orderservice.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sarvesh.orderservice.controller.OrderController;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.service.OrderCache;
+import com.sarvesh.orderservice.service.OrderEventCodec;
+import com.sarvesh.orderservice.service.OrderService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Order creation against in-memory stand-ins for DynamoDB, S3 and SNS:
+ * the JSON path through OrderService, and the multipart path through the controller.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderCreateBenchmark {
+
+    private ExecutorService ioExecutor;
+    private StandIns.InMemoryOrderRepository repository;
+    private OrderService orderService;
+    private OrderController controller;
+    private String orderJson;
+
+    /**
+     * Invoice sizes for the multipart benchmark; kept separate so the JSON path isn't repeated per size.
+     */
+    @State(Scope.Benchmark)
+    public static class Invoice {
+
+        @Param({"1024", "1048576"})
+        public int bytes;
+
+        MockMultipartFile file;
+
+        @Setup
+        public void setUp() {
+            file = new MockMultipartFile("file", "invoice.pdf", "application/pdf", new byte[bytes]);
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        ioExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        repository = new StandIns.InMemoryOrderRepository();
+        StandIns.DiscardingS3Service s3Service = new StandIns.DiscardingS3Service(ioExecutor);
+        OrderCache orderCache = new OrderCache(10_000, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        // Idempotency keys aren't sent by these benchmarks
+        orderService = new OrderService(repository, s3Service, new StandIns.InMemoryInvoiceRefRepository(),
+                StandIns.outboxRepository(), new OrderEventCodec(objectMapper, "json"), orderCache, null,
+                StandIns.dependencyGuards(), ioExecutor);
+        controller = new OrderController(orderService, null, s3Service, null, null, objectMapper);
+
+        orderJson = "{\"customerName\":\"Benchmark Customer\",\"amount\":1299.5}";
+    }
+
+    @Setup(Level.Iteration)
+    public void clearRepository() {
+        repository.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ioExecutor.close();
+    }
+
+    @Benchmark
+    public Order createOrderWithoutInvoice() throws Exception {
+        Order order = new Order();
+        order.setCustomerName("Benchmark Customer");
+        order.setAmount(1299.50);
+        return orderService.createOrder(order, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> createOrderWithInvoice(Invoice invoice) {
+        return controller.createOrderWithInvoice(null, orderJson, invoice.file);
+    }
+}
@@ -0,0 +1,62 @@
+package com.sarvesh.orderservice.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sarvesh.orderservice.model.Order;
+
+/**
+ * Order JSON (de)serialization with the same mapper configuration the controller gets from Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Order order;
+    private String orderJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Mirrors Spring Boot's auto-configured ObjectMapper (ISO dates, lenient on unknown fields)
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        order = new Order();
+        order.setOrderId("3f1c2a7e-9d4b-4c1e-8a55-0b6f2d9e7c11");
+        order.setCustomerName("Benchmark Customer");
+        order.setAmount(1299.50);
+        order.setInvoiceUrl("blobs/sha256/9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+        order.setCreatedAt(new Date(1_700_000_000_000L));
+        orderJson = objectMapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public String serialize() throws Exception {
+        return objectMapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public Order deserialize() throws Exception {
+        return objectMapper.readValue(orderJson, Order.class);
+    }
+}
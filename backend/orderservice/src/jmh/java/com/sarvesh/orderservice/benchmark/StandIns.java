@@ -0,0 +1,180 @@
+package com.sarvesh.orderservice.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderPage;
+import com.sarvesh.orderservice.model.OutboxEvent;
+import com.sarvesh.orderservice.repository.InvoiceRefRepository;
+import com.sarvesh.orderservice.repository.OrderRepository;
+import com.sarvesh.orderservice.repository.OutboxRepository;
+import com.sarvesh.orderservice.service.DependencyGuards;
+import com.sarvesh.orderservice.service.S3Service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+/**
+ * In-memory replacements for the AWS-backed collaborators of OrderService,
+ * so benchmarks measure our own code rather than network round trips.
+ */
+final class StandIns {
+
+    private StandIns() {
+    }
+
+    /**
+     * OrderRepository backed by a ConcurrentHashMap.
+     * Only the single-order operations used by OrderService are supported.
+     */
+    static final class InMemoryOrderRepository implements OrderRepository {
+
+        private final Map<String, Order> orders = new ConcurrentHashMap<>();
+        private final Map<String, OutboxEvent> events = new ConcurrentHashMap<>();
+
+        @Override
+        public void saveWithEvents(List<Order> orders, List<OutboxEvent> events) {
+            orders.forEach(order -> this.orders.put(order.getOrderId(), order));
+            events.forEach(event -> this.events.put(event.getEventId(), event));
+        }
+
+        @Override
+        public void attachInvoice(String orderId, String invoiceUrl, OutboxEvent event) {
+            findById(orderId).ifPresent(order -> order.setInvoiceUrl(invoiceUrl));
+            events.put(event.getEventId(), event);
+        }
+
+        @Override
+        public Optional<Order> findById(String orderId) {
+            return Optional.ofNullable(orders.get(orderId));
+        }
+
+        @Override
+        public OrderPage scanPage(int limit, String pageToken) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderPage scanSegment(int segment, int totalSegments, int limit, String pageToken) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void scanAll(int pageSize, Consumer<List<Order>> pageConsumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderPage queryByCustomer(String customerName, Date from, Date to,
+                                         int limit, String pageToken, boolean ascending) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Optional<Order>> findByIdAsync(String orderId) {
+            return CompletableFuture.completedFuture(findById(orderId));
+        }
+
+        @Override
+        public CompletableFuture<OrderPage> queryByCustomerAsync(String customerName, Date from, Date to,
+                                                                 int limit, String pageToken, boolean ascending) {
+            throw new UnsupportedOperationException();
+        }
+
+        void clear() {
+            orders.clear();
+            events.clear();
+        }
+    }
+
+    /**
+     * S3Service that hashes the upload like the real one, then reads it to the end and discards it.
+     */
+    static final class DiscardingS3Service extends S3Service {
+
+        DiscardingS3Service(ExecutorService ioExecutor) {
+            super(null, ioExecutor, new SimpleMeterRegistry());
+        }
+
+        @Override
+        public String uploadFile(MultipartFile file) throws IOException {
+            String key = CONTENT_KEY_PREFIX + contentHash(file).hex();
+            uploadFile(file, key);
+            return key;
+        }
+
+        @Override
+        public void uploadFile(MultipartFile file, String key) throws IOException {
+            try (InputStream in = file.getInputStream()) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+    }
+
+    /**
+     * InvoiceRefRepository backed by a ConcurrentHashMap.
+     */
+    static final class InMemoryInvoiceRefRepository extends InvoiceRefRepository {
+
+        private final Map<String, Set<String>> refs = new ConcurrentHashMap<>();
+
+        InMemoryInvoiceRefRepository() {
+            super(unusedEnhancedClient(), "InvoiceRefs");
+        }
+
+        @Override
+        public void add(String invoiceKey, String orderId) {
+            refs.computeIfAbsent(invoiceKey, k -> ConcurrentHashMap.newKeySet()).add(orderId);
+        }
+
+        @Override
+        public List<String> orderIds(String invoiceKey) {
+            return List.copyOf(refs.getOrDefault(invoiceKey, Set.of()));
+        }
+    }
+
+    /**
+     * OutboxRepository for building events only; its client is never called, since
+     * {@link InMemoryOrderRepository} keeps the events itself.
+     */
+    static OutboxRepository outboxRepository() {
+        return new OutboxRepository(unusedEnhancedClient(), "OrderOutbox", 8);
+    }
+
+    /**
+     * Guards sized like the defaults in application.properties, so benchmarks include the
+     * hand-off to the bulkhead threads that production calls pay.
+     */
+    static DependencyGuards dependencyGuards() {
+        return new DependencyGuards(new SimpleMeterRegistry(),
+                32, 32, Duration.ofSeconds(60),
+                64, 128, Duration.ofSeconds(3),
+                8, 16, Duration.ofSeconds(5),
+                50, 20, 0.5, Duration.ofSeconds(10), 5);
+    }
+
+    private static DynamoDbEnhancedClient unusedEnhancedClient() {
+        DynamoDbClient unused = DynamoDbClient.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(AnonymousCredentialsProvider.create())
+                .build();
+        return DynamoDbEnhancedClient.builder().dynamoDbClient(unused).build();
+    }
+}
@@ -0,0 +1,200 @@
+package com.sarvesh.orderservice.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.sarvesh.orderservice.service.ClientRateLimiter;
+import com.sarvesh.orderservice.service.DependencyLimits;
+import com.sarvesh.orderservice.service.DependencyLimits.Dependency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control for /orders: decides up front whether a request gets to run, so that under
+ * a burst, excess requests are turned away in microseconds instead of queueing on threads
+ * blocked behind a throttled dependency.
+ *
+ * 1. Rate limit per client → 429 with Retry-After when the client's token bucket is empty
+ *    ({@link ClientRateLimiter}). See {@link #clientKey} for what counts as a client.
+ * 2. A slot per dependency the request uses (DynamoDB; also S3 for invoice uploads) → 503
+ *    with Retry-After when a dependency is at its adaptive limit ({@link DependencyLimits}).
+ *    Slots are held until the response is done, including async request processing.
+ *
+ * Metrics: orders.admission.rejected counter, tagged by reason and dependency.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private static final String API_KEY_HEADER = "X-Api-Key";
+    private static final String ORDERS_PATH = "/orders";
+
+    private final ClientRateLimiter rateLimiter;
+    private final DependencyLimits dependencyLimits;
+    private final Set<String> apiKeys;
+    private final boolean enabled;
+    private final long retryAfterSeconds;
+
+    private final Counter rateLimited;
+    private final Map<Dependency, Counter> dependencySaturated = new EnumMap<>(Dependency.class);
+
+    public AdmissionControlFilter(ClientRateLimiter rateLimiter,
+                                  DependencyLimits dependencyLimits,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${orders.admission.rate-limit.api-keys}") String apiKeys,
+                                  @Value("${orders.admission.enabled}") boolean enabled,
+                                  @Value("${orders.admission.retry-after}") Duration retryAfter) {
+        this.rateLimiter = rateLimiter;
+        this.dependencyLimits = dependencyLimits;
+        this.apiKeys = StringUtils.commaDelimitedListToSet(apiKeys).stream()
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.enabled = enabled;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+
+        this.rateLimited = Counter.builder("orders.admission.rejected")
+                .tag("reason", "rate-limit")
+                .tag("dependency", "none")
+                .register(meterRegistry);
+        for (Dependency dependency : Dependency.values()) {
+            dependencySaturated.put(dependency, Counter.builder("orders.admission.rejected")
+                    .tag("reason", "dependency-limit")
+                    .tag("dependency", dependency.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        if (!enabled) {
+            logger.info("Admission control disabled");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled || !(path.equals(ORDERS_PATH) || path.startsWith(ORDERS_PATH + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        long waitNanos = rateLimiter.tryAcquire(clientKey(request));
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, seconds(waitNanos), "Rate limit exceeded, retry later");
+            return;
+        }
+
+        Set<Dependency> dependencies = dependencies(request);
+        Dependency saturated = dependencyLimits.tryAcquire(dependencies);
+        if (saturated != null) {
+            dependencySaturated.get(saturated).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds,
+                    "Service busy (" + saturated.name().toLowerCase(Locale.ROOT) + " at capacity), retry later");
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                dependencyLimits.release(dependencies);
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // The controller returned a CompletableFuture; the work goes on after this thread leaves
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    /**
+     * Dependencies a request waits on. Reads and creates hit DynamoDB; invoice uploads also S3.
+     * Invoice downloads only presign a URL, which needs no call to S3.
+     */
+    private static Set<Dependency> dependencies(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        boolean write = !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod());
+        if (write && (path.endsWith("/upload") || path.contains("/invoice"))) {
+            return EnumSet.of(Dependency.DYNAMODB, Dependency.S3);
+        }
+        return EnumSet.of(Dependency.DYNAMODB);
+    }
+
+    /**
+     * Bucket a request is charged to: its X-Api-Key if that is one of the configured keys,
+     * otherwise its remote address. Taking any header value as-is would let a client skip its
+     * own limit by sending a fresh key per request, and fill the bucket map while doing so.
+     */
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private static long seconds(long nanos) {
+        // Round up, so clients don't come back before a token is there
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+    }
+
+    private record ReleasingListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for the next round of async processing
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
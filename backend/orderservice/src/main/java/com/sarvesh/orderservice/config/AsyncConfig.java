@@ -0,0 +1,23 @@
+package com.sarvesh.orderservice.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Executors for work that runs alongside request handling.
+ */
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Virtual-thread executor for blocking AWS calls that overlap with other work
+     * (e.g. uploading an invoice while the order is written to DynamoDB).
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService ioExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
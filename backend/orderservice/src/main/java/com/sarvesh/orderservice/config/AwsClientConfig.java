@@ -0,0 +1,99 @@
+package com.sarvesh.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+/**
+ * Declares the AWS SDK v2 clients used by the service, sync and async, all built by
+ * {@link AwsClientFactory} so they share the same connection pools and retry policy.
+ */
+@Configuration
+public class AwsClientConfig {
+
+    @Value("${aws.region}")
+    private String awsRegion;
+
+    @Value("${aws.s3.endpoint}")
+    private String s3Endpoint;
+
+    @Value("${aws.dynamodb.endpoint}")
+    private String dynamoDbEndpoint;
+
+    @Value("${aws.sns.endpoint}")
+    private String snsEndpoint;
+
+    @Value("${aws.sns.region}")
+    private String snsRegion;
+
+    @Value("${aws.sqs.endpoint}")
+    private String sqsEndpoint;
+
+    @Value("${aws.sqs.region}")
+    private String sqsRegion;
+
+    // Path-style access is REQUIRED for LocalStack
+    private static final S3Configuration S3_CONFIGURATION = S3Configuration.builder()
+            .pathStyleAccessEnabled(true)
+            .build();
+
+    @Bean
+    public S3Client s3Client(AwsClientFactory factory) {
+        return factory.sync(S3Client.builder(), s3Endpoint, awsRegion)
+                .serviceConfiguration(S3_CONFIGURATION)
+                .build();
+    }
+
+    @Bean
+    public S3AsyncClient s3AsyncClient(AwsClientFactory factory) {
+        return factory.async(S3AsyncClient.builder(), s3Endpoint, awsRegion)
+                .serviceConfiguration(S3_CONFIGURATION)
+                .build();
+    }
+
+    @Bean
+    public S3Presigner s3Presigner(AwsClientFactory factory) {
+        return factory.presigner(s3Endpoint, awsRegion, S3_CONFIGURATION);
+    }
+
+    @Bean
+    public DynamoDbClient dynamoDbClient(AwsClientFactory factory) {
+        return factory.sync(DynamoDbClient.builder(), dynamoDbEndpoint, awsRegion).build();
+    }
+
+    @Bean
+    public DynamoDbAsyncClient dynamoDbAsyncClient(AwsClientFactory factory) {
+        return factory.async(DynamoDbAsyncClient.builder(), dynamoDbEndpoint, awsRegion).build();
+    }
+
+    @Bean
+    public SnsClient snsClient(AwsClientFactory factory) {
+        return factory.sync(SnsClient.builder(), snsEndpoint, snsRegion).build();
+    }
+
+    @Bean
+    public SnsAsyncClient snsAsyncClient(AwsClientFactory factory) {
+        return factory.async(SnsAsyncClient.builder(), snsEndpoint, snsRegion).build();
+    }
+
+    @Bean
+    public SqsClient sqsClient(AwsClientFactory factory) {
+        return factory.sync(SqsClient.builder(), sqsEndpoint, sqsRegion).build();
+    }
+
+    @Bean
+    public SqsAsyncClient sqsAsyncClient(AwsClientFactory factory) {
+        return factory.async(SqsAsyncClient.builder(), sqsEndpoint, sqsRegion).build();
+    }
+}
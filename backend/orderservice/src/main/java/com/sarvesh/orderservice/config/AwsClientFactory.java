@@ -0,0 +1,135 @@
+package com.sarvesh.orderservice.config;
+
+import java.net.URI;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.awscore.client.builder.AwsAsyncClientBuilder;
+import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.awscore.client.builder.AwsSyncClientBuilder;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+/**
+ * Builds every AWS SDK v2 client in the service on the same tuned HTTP layer.
+ *
+ * All sync clients share one pooled Apache HTTP client and all async clients share one
+ * Netty client, so connections (and TLS sessions) are reused across services instead of
+ * each client keeping its own default-sized pool. Every client also gets the same adaptive
+ * retry policy and the {@link AwsMetricsInterceptor}.
+ */
+@Component
+public class AwsClientFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(AwsClientFactory.class);
+
+    private final SdkHttpClient httpClient;
+    private final SdkAsyncHttpClient asyncHttpClient;
+    private final ClientOverrideConfiguration overrideConfiguration;
+    private final AwsCredentialsProvider credentialsProvider;
+
+    public AwsClientFactory(AwsMetricsInterceptor metricsInterceptor,
+                            @Value("${aws.http.max-connections}") int maxConnections,
+                            @Value("${aws.http.connection-timeout}") Duration connectionTimeout,
+                            @Value("${aws.http.socket-timeout}") Duration socketTimeout,
+                            @Value("${aws.http.connection-acquisition-timeout}") Duration acquisitionTimeout,
+                            @Value("${aws.http.connection-max-idle-time}") Duration maxIdleTime,
+                            @Value("${aws.http.connection-time-to-live}") Duration timeToLive,
+                            @Value("${aws.retry.max-retries}") int maxRetries) {
+
+        this.httpClient = ApacheHttpClient.builder()
+                .maxConnections(maxConnections)
+                .connectionTimeout(connectionTimeout)
+                .socketTimeout(socketTimeout)
+                .connectionAcquisitionTimeout(acquisitionTimeout)
+                .connectionMaxIdleTime(maxIdleTime)
+                .connectionTimeToLive(timeToLive)
+                .tcpKeepAlive(true)
+                .useIdleConnectionReaper(true)
+                .build();
+
+        this.asyncHttpClient = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(maxConnections)
+                .connectionTimeout(connectionTimeout)
+                .readTimeout(socketTimeout)
+                .writeTimeout(socketTimeout)
+                .connectionAcquisitionTimeout(acquisitionTimeout)
+                .connectionMaxIdleTime(maxIdleTime)
+                .connectionTimeToLive(timeToLive)
+                .tcpKeepAlive(true)
+                .build();
+
+        // Adaptive mode adds client-side rate limiting on top of standard retries when AWS throttles us
+        this.overrideConfiguration = ClientOverrideConfiguration.builder()
+                .retryPolicy(RetryPolicy.builder(RetryMode.ADAPTIVE).numRetries(maxRetries).build())
+                .addExecutionInterceptor(metricsInterceptor)
+                .build();
+
+        // Dummy credentials for LocalStack
+        this.credentialsProvider = StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test"));
+
+        logger.info("AWS HTTP layer ready (maxConnections={}, connectionTimeout={}, socketTimeout={}, maxRetries={})",
+                maxConnections, connectionTimeout, socketTimeout, maxRetries);
+    }
+
+    /**
+     * Configures a sync client builder with the shared HTTP client, retries, metrics and credentials.
+     * Returns the builder so callers can add service-specific settings before building.
+     */
+    public <B extends AwsClientBuilder<B, C> & AwsSyncClientBuilder<B, C>, C> B sync(B builder, String endpoint, String region) {
+        return common(builder, endpoint, region).httpClient(httpClient);
+    }
+
+    /**
+     * Async counterpart of {@link #sync}, backed by the shared Netty client.
+     */
+    public <B extends AwsClientBuilder<B, C> & AwsAsyncClientBuilder<B, C>, C> B async(B builder, String endpoint, String region) {
+        return common(builder, endpoint, region).httpClient(asyncHttpClient);
+    }
+
+    /**
+     * S3 presigner with the same endpoint, region and credentials as the clients.
+     * Presigning is done locally, so it needs no HTTP client.
+     */
+    public S3Presigner presigner(String endpoint, String region, S3Configuration serviceConfiguration) {
+        return S3Presigner.builder()
+                .endpointOverride(URI.create(endpoint))
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider)
+                .serviceConfiguration(serviceConfiguration)
+                .build();
+    }
+
+    private <B extends AwsClientBuilder<B, C>, C> B common(B builder, String endpoint, String region) {
+        return builder
+                .endpointOverride(URI.create(endpoint))
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider)
+                .overrideConfiguration(overrideConfiguration);
+    }
+
+    /**
+     * Clients built with a caller-supplied HTTP client don't close it, so we do.
+     */
+    @PreDestroy
+    public void close() {
+        httpClient.close();
+        asyncHttpClient.close();
+    }
+}
@@ -0,0 +1,83 @@
+package com.sarvesh.orderservice.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.sarvesh.orderservice.service.DependencyLimits;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+/**
+ * Times every AWS SDK v2 call, end to end including SDK retries.
+ *
+ * Recorded as the "aws.client.calls" timer, tagged with service (e.g. S3, Sns), operation
+ * (e.g. PutObject), outcome (success/failure) and error (AWS error code or exception type).
+ * Register it on a client through its override configuration.
+ *
+ * Calls are also fed into {@link DependencyLimits}, so admission limits follow how
+ * DynamoDB and S3 are doing for the requests they serve.
+ */
+@Component
+public class AwsMetricsInterceptor implements ExecutionInterceptor {
+
+    public static final String METRIC_NAME = "aws.client.calls";
+
+    private static final ExecutionAttribute<Long> START_NANOS = new ExecutionAttribute<>("MetricsStartNanos");
+
+    private final MeterRegistry meterRegistry;
+    private final DependencyLimits dependencyLimits;
+
+    public AwsMetricsInterceptor(MeterRegistry meterRegistry, DependencyLimits dependencyLimits) {
+        this.meterRegistry = meterRegistry;
+        this.dependencyLimits = dependencyLimits;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        record(context.request(), executionAttributes, "success", null);
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        Throwable error = context.exception();
+        String errorName = error instanceof AwsServiceException serviceException && serviceException.awsErrorDetails() != null
+                ? serviceException.awsErrorDetails().errorCode()
+                : error.getClass().getSimpleName();
+        record(context.request(), executionAttributes, "failure", errorName != null ? errorName : "unknown");
+    }
+
+    /**
+     * @param error AWS error code or exception type, null on success
+     */
+    private void record(SdkRequest request, ExecutionAttributes attributes, String outcome, String error) {
+        Long start = attributes.getAttribute(START_NANOS);
+        if (start == null) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        String service = String.valueOf(attributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME));
+        Timer.builder(METRIC_NAME)
+                .tag("service", service)
+                .tag("operation", String.valueOf(attributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME)))
+                .tag("outcome", outcome)
+                .tag("error", error != null ? error : "none")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        dependencyLimits.onCall(request, elapsedNanos, error);
+    }
+}
@@ -0,0 +1,97 @@
+package com.sarvesh.orderservice.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+
+/**
+ * Creates the service's own on-demand tables on startup, for the initializers of tables
+ * that only need a key schema.
+ *
+ * Like {@link OrderTableInitializer}, failures are logged rather than thrown, so the service
+ * can still start; calls to the table fail until it exists.
+ */
+final class DynamoDbTables {
+
+    private static final Logger logger = LoggerFactory.getLogger(DynamoDbTables.class);
+
+    /**
+     * A key attribute: its name and type.
+     */
+    record Key(String name, ScalarAttributeType type) {
+    }
+
+    private DynamoDbTables() {
+    }
+
+    /**
+     * Creates the table with a partition key only, unless it exists.
+     *
+     * @return true if the table exists now
+     */
+    static boolean createTableIfMissing(DynamoDbClient dynamoDbClient, String tableName, Key hashKey) {
+        return createTableIfMissing(dynamoDbClient, tableName, hashKey, null);
+    }
+
+    /**
+     * Creates the table with a partition and a sort key, unless it exists. An existing table
+     * is left as it is.
+     *
+     * @param rangeKey Sort key, or null for a partition key only
+     * @return true if the table exists now
+     */
+    static boolean createTableIfMissing(DynamoDbClient dynamoDbClient, String tableName, Key hashKey, Key rangeKey) {
+        try {
+            if (!tableExists(dynamoDbClient, tableName)) {
+                createTable(dynamoDbClient, tableName, hashKey, rangeKey);
+            }
+            return true;
+        } catch (Exception e) {
+            logger.error("Failed to initialize DynamoDB table '{}': {}", tableName, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private static boolean tableExists(DynamoDbClient dynamoDbClient, String tableName) {
+        try {
+            dynamoDbClient.describeTable(r -> r.tableName(tableName));
+            return true;
+        } catch (ResourceNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static void createTable(DynamoDbClient dynamoDbClient, String tableName, Key hashKey, Key rangeKey) {
+        List<AttributeDefinition> attributes = new ArrayList<>();
+        List<KeySchemaElement> keySchema = new ArrayList<>();
+        addKey(hashKey, KeyType.HASH, attributes, keySchema);
+        if (rangeKey != null) {
+            addKey(rangeKey, KeyType.RANGE, attributes, keySchema);
+        }
+
+        logger.warn("Table '{}' not found. Creating it...", tableName);
+        dynamoDbClient.createTable(r -> r
+                .tableName(tableName)
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .attributeDefinitions(attributes)
+                .keySchema(keySchema));
+        dynamoDbClient.waiter().waitUntilTableExists(r -> r.tableName(tableName));
+        logger.info("Table '{}' created successfully.", tableName);
+    }
+
+    private static void addKey(Key key, KeyType keyType, List<AttributeDefinition> attributes,
+                               List<KeySchemaElement> keySchema) {
+        attributes.add(AttributeDefinition.builder().attributeName(key.name()).attributeType(key.type()).build());
+        keySchema.add(KeySchemaElement.builder().attributeName(key.name()).keyType(keyType).build());
+    }
+}
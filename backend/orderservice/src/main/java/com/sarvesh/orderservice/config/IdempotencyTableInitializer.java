@@ -0,0 +1,60 @@
+package com.sarvesh.orderservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+import software.amazon.awssdk.services.dynamodb.model.TimeToLiveStatus;
+
+/**
+ * Makes sure the idempotency-key table exists on startup, with TTL enabled on expiresAt
+ * so old keys are cleaned up by DynamoDB.
+ *
+ * See {@link DynamoDbTables}; failures are logged rather than thrown.
+ */
+@Component
+public class IdempotencyTableInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyTableInitializer.class);
+
+    private static final String TTL_ATTRIBUTE = "expiresAt";
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+
+    public IdempotencyTableInitializer(DynamoDbClient dynamoDbClient,
+                                       @Value("${orders.idempotency.table-name}") String tableName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!DynamoDbTables.createTableIfMissing(dynamoDbClient, tableName,
+                new DynamoDbTables.Key("idempotencyKey", ScalarAttributeType.S))) {
+            return;
+        }
+        try {
+            enableTtl();
+        } catch (Exception e) {
+            logger.error("Failed to enable TTL on DynamoDB table '{}': {}", tableName, e.getMessage(), e);
+        }
+    }
+
+    private void enableTtl() {
+        TimeToLiveStatus status = dynamoDbClient.describeTimeToLive(r -> r.tableName(tableName))
+                .timeToLiveDescription()
+                .timeToLiveStatus();
+        if (status == TimeToLiveStatus.ENABLED || status == TimeToLiveStatus.ENABLING) {
+            return;
+        }
+        dynamoDbClient.updateTimeToLive(r -> r
+                .tableName(tableName)
+                .timeToLiveSpecification(ttl -> ttl.attributeName(TTL_ATTRIBUTE).enabled(true)));
+        logger.info("TTL enabled on '{}.{}'", tableName, TTL_ATTRIBUTE);
+    }
+}
@@ -0,0 +1,34 @@
+package com.sarvesh.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+
+/**
+ * Makes sure the invoice reference table exists on startup (invoiceKey as partition key,
+ * orderId as sort key).
+ *
+ * See {@link DynamoDbTables}; failures are logged rather than thrown.
+ */
+@Component
+public class InvoiceRefTableInitializer {
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+
+    public InvoiceRefTableInitializer(DynamoDbClient dynamoDbClient,
+                                      @Value("${orders.invoice.refs.table-name}") String tableName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+    }
+
+    @PostConstruct
+    public void init() {
+        DynamoDbTables.createTableIfMissing(dynamoDbClient, tableName,
+                new DynamoDbTables.Key("invoiceKey", ScalarAttributeType.S),
+                new DynamoDbTables.Key("orderId", ScalarAttributeType.S));
+    }
+}
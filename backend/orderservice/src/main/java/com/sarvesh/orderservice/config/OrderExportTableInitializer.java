@@ -0,0 +1,34 @@
+package com.sarvesh.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+
+/**
+ * Makes sure the order export table exists on startup (exportId as partition key,
+ * segment as sort key).
+ *
+ * See {@link DynamoDbTables}; failures are logged rather than thrown.
+ */
+@Component
+public class OrderExportTableInitializer {
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+
+    public OrderExportTableInitializer(DynamoDbClient dynamoDbClient,
+                                       @Value("${orders.export.table-name}") String tableName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+    }
+
+    @PostConstruct
+    public void init() {
+        DynamoDbTables.createTableIfMissing(dynamoDbClient, tableName,
+                new DynamoDbTables.Key("exportId", ScalarAttributeType.S),
+                new DynamoDbTables.Key("segment", ScalarAttributeType.N));
+    }
+}
@@ -0,0 +1,34 @@
+package com.sarvesh.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+
+/**
+ * Makes sure the order stats table exists on startup (aggregateKey as partition key,
+ * instanceId as sort key).
+ *
+ * See {@link DynamoDbTables}; failures are logged rather than thrown.
+ */
+@Component
+public class OrderStatsTableInitializer {
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+
+    public OrderStatsTableInitializer(DynamoDbClient dynamoDbClient,
+                                      @Value("${orders.stats.table-name}") String tableName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+    }
+
+    @PostConstruct
+    public void init() {
+        DynamoDbTables.createTableIfMissing(dynamoDbClient, tableName,
+                new DynamoDbTables.Key("aggregateKey", ScalarAttributeType.S),
+                new DynamoDbTables.Key("instanceId", ScalarAttributeType.S));
+    }
+}
@@ -0,0 +1,130 @@
+package com.sarvesh.orderservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sarvesh.orderservice.repository.OrderTableSchema;
+
+import jakarta.annotation.PostConstruct;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+import software.amazon.awssdk.services.dynamodb.model.CreateGlobalSecondaryIndexAction;
+import software.amazon.awssdk.services.dynamodb.model.CreateTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndex;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndexUpdate;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.Projection;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughput;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.model.UpdateTableRequest;
+
+/**
+ * Makes sure the Orders table and its customerName/createdAt GSI exist on startup.
+ *
+ * Existing tables are left as they are, apart from adding the GSI when it is missing.
+ * Failures are logged rather than thrown so the service can still start (e.g. when
+ * DynamoDB is briefly unavailable); customer queries will fail until the index exists.
+ */
+@Component
+public class OrderTableInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderTableInitializer.class);
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+
+    public OrderTableInitializer(DynamoDbClient dynamoDbClient,
+                                 @Value("${aws.dynamodb.tableName}") String tableName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            TableDescription table = describeTable();
+            if (table == null) {
+                createTable();
+            } else if (!hasCustomerIndex(table)) {
+                createCustomerIndex(table);
+            } else {
+                logger.debug("Table '{}' already has index '{}'", tableName, OrderTableSchema.CUSTOMER_CREATED_AT_INDEX);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to initialize DynamoDB table '{}': {}", tableName, e.getMessage(), e);
+        }
+    }
+
+    private TableDescription describeTable() {
+        try {
+            return dynamoDbClient.describeTable(r -> r.tableName(tableName)).table();
+        } catch (ResourceNotFoundException e) {
+            return null;
+        }
+    }
+
+    private void createTable() {
+        logger.warn("Table '{}' not found. Creating it with index '{}'...", tableName, OrderTableSchema.CUSTOMER_CREATED_AT_INDEX);
+        dynamoDbClient.createTable(CreateTableRequest.builder()
+                .tableName(tableName)
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .attributeDefinitions(
+                        stringAttribute("orderId"),
+                        stringAttribute("customerName"),
+                        stringAttribute("createdAt"))
+                .keySchema(key("orderId", KeyType.HASH))
+                .globalSecondaryIndexes(GlobalSecondaryIndex.builder()
+                        .indexName(OrderTableSchema.CUSTOMER_CREATED_AT_INDEX)
+                        .keySchema(key("customerName", KeyType.HASH), key("createdAt", KeyType.RANGE))
+                        .projection(Projection.builder().projectionType(ProjectionType.ALL).build())
+                        .build())
+                .build());
+        logger.info("Table '{}' created successfully.", tableName);
+    }
+
+    private void createCustomerIndex(TableDescription table) {
+        logger.warn("Index '{}' missing on table '{}'. Creating it...", OrderTableSchema.CUSTOMER_CREATED_AT_INDEX, tableName);
+
+        CreateGlobalSecondaryIndexAction.Builder index = CreateGlobalSecondaryIndexAction.builder()
+                .indexName(OrderTableSchema.CUSTOMER_CREATED_AT_INDEX)
+                .keySchema(key("customerName", KeyType.HASH), key("createdAt", KeyType.RANGE))
+                .projection(Projection.builder().projectionType(ProjectionType.ALL).build());
+
+        // Tables without a billing mode summary are provisioned; the index must declare throughput too
+        boolean provisioned = table.billingModeSummary() == null
+                || table.billingModeSummary().billingMode() == BillingMode.PROVISIONED;
+        if (provisioned && table.provisionedThroughput() != null) {
+            index.provisionedThroughput(ProvisionedThroughput.builder()
+                    .readCapacityUnits(table.provisionedThroughput().readCapacityUnits())
+                    .writeCapacityUnits(table.provisionedThroughput().writeCapacityUnits())
+                    .build());
+        }
+
+        dynamoDbClient.updateTable(UpdateTableRequest.builder()
+                .tableName(tableName)
+                .attributeDefinitions(stringAttribute("customerName"), stringAttribute("createdAt"))
+                .globalSecondaryIndexUpdates(GlobalSecondaryIndexUpdate.builder().create(index.build()).build())
+                .build());
+        logger.info("Index '{}' is being created on table '{}'.", OrderTableSchema.CUSTOMER_CREATED_AT_INDEX, tableName);
+    }
+
+    private static boolean hasCustomerIndex(TableDescription table) {
+        return table.hasGlobalSecondaryIndexes() && table.globalSecondaryIndexes().stream()
+                .anyMatch(gsi -> OrderTableSchema.CUSTOMER_CREATED_AT_INDEX.equals(gsi.indexName()));
+    }
+
+    private static AttributeDefinition stringAttribute(String name) {
+        return AttributeDefinition.builder().attributeName(name).attributeType(ScalarAttributeType.S).build();
+    }
+
+    private static KeySchemaElement key(String name, KeyType type) {
+        return KeySchemaElement.builder().attributeName(name).keyType(type).build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.sarvesh.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+
+/**
+ * Makes sure the order outbox table exists on startup (shard as partition key,
+ * eventId as sort key).
+ *
+ * See {@link DynamoDbTables}; failures are logged rather than thrown.
+ */
+@Component
+public class OutboxTableInitializer {
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+
+    public OutboxTableInitializer(DynamoDbClient dynamoDbClient,
+                                  @Value("${orders.outbox.table-name}") String tableName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+    }
+
+    @PostConstruct
+    public void init() {
+        DynamoDbTables.createTableIfMissing(dynamoDbClient, tableName,
+                new DynamoDbTables.Key("shard", ScalarAttributeType.N),
+                new DynamoDbTables.Key("eventId", ScalarAttributeType.S));
+    }
+}
@@ -1,41 +0,0 @@
-package com.sarvesh.orderservice.config;
-
-import java.net.URI;
-
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.S3Configuration;
-
-@Configuration
-public class S3Config {
-
-    @Value("${aws.s3.endpoint}")
-    private String s3Endpoint;
-
-    @Value("${aws.region}")
-    private String awsRegion;
-
-    @Bean
-    public S3Client s3Client() {
-        return S3Client.builder()
-                .endpointOverride(URI.create(s3Endpoint)) // e.g., http://localhost:4566
-                .region(Region.of(awsRegion))             // e.g., ap-south-1
-                .credentialsProvider(
-                        StaticCredentialsProvider.create(
-                                AwsBasicCredentials.create("test", "test") // Dummy creds for LocalStack
-                        )
-                )
-                .serviceConfiguration(
-                        S3Configuration.builder()
-                                .pathStyleAccessEnabled(true) // REQUIRED for LocalStack
-                                .build()
-                )
-                .build();
-    }
-}
\ No newline at end of file
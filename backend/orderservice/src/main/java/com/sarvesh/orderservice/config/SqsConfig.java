@@ -1,38 +0,0 @@
-package com.sarvesh.orderservice.config;
-
-import java.net.URI;
-
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableScheduling;
-
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.sqs.SqsClient;
-
-/**
- * Configures the AWS SQS client for communicating with LocalStack.
- */
-@Configuration
-@EnableScheduling
-public class SqsConfig {
-
-    @Value("${aws.sqs.endpoint}")
-    private String sqsEndpoint;
-
-    @Value("${aws.sqs.region}")
-    private String region;
-
-    @Bean
-    public SqsClient sqsClient() {
-        return SqsClient.builder()
-                .endpointOverride(URI.create(sqsEndpoint))
-                .region(Region.of(region))
-                .credentialsProvider(
-                        StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test"))
-                )
-                .build();
-    }
-}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.sarvesh.orderservice.config;
+
+import java.util.concurrent.Executors;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects how Tomcat runs request handlers, via orders.web.execution-mode:
+ *
+ * - blocking (default): the bounded platform-thread pool (server.tomcat.threads.max).
+ *   Every request holds a thread while it waits on AWS, so concurrency is capped by the pool.
+ * - virtual: one virtual thread per request. Blocking AWS calls park the virtual thread
+ *   instead of an OS thread, so concurrency is bounded by the downstream limits instead.
+ *
+ * Endpoints that return a CompletableFuture (order lookups, customer queries) release the
+ * request thread in either mode while the async DynamoDB client works.
+ */
+@Configuration
+public class WebExecutionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebExecutionConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "orders.web.execution-mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadRequestExecutor() {
+        logger.info("Web tier running request handlers on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
@@ -1,18 +1,42 @@
 package com.sarvesh.orderservice.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarvesh.orderservice.model.BulkOrderResult;
+import com.sarvesh.orderservice.model.InvoiceUploadCompletion;
+import com.sarvesh.orderservice.model.InvoiceUploadRequest;
 import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderPage;
+import com.sarvesh.orderservice.repository.InvalidPageTokenException;
+import com.sarvesh.orderservice.service.DependencyUnavailableException;
+import com.sarvesh.orderservice.service.IdempotencyService;
+import com.sarvesh.orderservice.service.InvoiceDownloadService;
+import com.sarvesh.orderservice.service.InvoiceUploadService;
+import com.sarvesh.orderservice.service.OrderBulkService;
 import com.sarvesh.orderservice.service.OrderService;
 import com.sarvesh.orderservice.service.S3Service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/orders")
@@ -20,31 +44,50 @@ public class OrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     private final OrderService orderService;
+    private final OrderBulkService orderBulkService;
     private final S3Service s3Service;
+    private final InvoiceUploadService invoiceUploadService;
+    private final InvoiceDownloadService invoiceDownloadService;
     private final ObjectMapper objectMapper;
 
     @Autowired
-    public OrderController(OrderService orderService, S3Service s3Service) {
+    public OrderController(OrderService orderService, OrderBulkService orderBulkService,
+                           S3Service s3Service, InvoiceUploadService invoiceUploadService,
+                           InvoiceDownloadService invoiceDownloadService, ObjectMapper objectMapper) {
         this.orderService = orderService;
+        this.orderBulkService = orderBulkService;
         this.s3Service = s3Service;
-        this.objectMapper = new ObjectMapper();
+        this.invoiceUploadService = invoiceUploadService;
+        this.invoiceDownloadService = invoiceDownloadService;
+        // Use Spring's mapper so parsed/streamed orders match the regular JSON responses
+        this.objectMapper = objectMapper;
     }
 
     /**
      * ✅ Create a new order from raw JSON (no file upload)
      *
      * POST /orders
+     * Headers: Idempotency-Key (optional) — retries with the same key return the original order
      * Body: JSON Order object
      */
     @PostMapping
-    public ResponseEntity<?> createOrder(@RequestBody Order order) {
+    public ResponseEntity<?> createOrder(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody Order order) {
         logger.info("Received createOrder request: {}", order);
         try {
             // Pass null for file since this endpoint does not support file upload
-            Order savedOrder = orderService.createOrder(order, null);
-            logger.info("Order created successfully with ID: {}", savedOrder.getOrderId());
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedOrder);
+            return create(order, null, idempotencyKey);
+        } catch (DependencyUnavailableException e) {
+            return unavailable(e);
         } catch (Exception e) {
             logger.error("Failed to create order", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -56,12 +99,14 @@ public class OrderController {
      * ✅ Create an order with optional invoice file (multipart/form-data)
      *
      * POST /orders/upload
+     * Headers: Idempotency-Key (optional) — retries with the same key return the original order
      * Parts:
      * - order: JSON string
      * - file: Multipart file (optional)
      */
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> createOrderWithInvoice(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestPart("order") String orderJson,
             @RequestPart(value = "file", required = false) MultipartFile file) {
 
@@ -73,16 +118,16 @@ public class OrderController {
             logger.debug("Parsed order JSON successfully: {}", order);
 
             // Upload file and set invoice URL inside service layer
-            Order savedOrder = orderService.createOrder(order, file);
-            logger.info("Order with invoice created. ID: {}", savedOrder.getOrderId());
-
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedOrder);
+            return create(order, file, idempotencyKey);
 
         } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
             logger.error("Invalid order JSON received", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body("Invalid order JSON: " + e.getOriginalMessage());
 
+        } catch (DependencyUnavailableException e) {
+            return unavailable(e);
+
         } catch (Exception e) {
             logger.error("Failed to create order with invoice", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -91,45 +136,367 @@ public class OrderController {
     }
 
     /**
-     * ✅ Retrieve an order by its ID
+     * 503 for a dependency that is failing or overloaded, so clients back off and retry
+     * instead of waiting on it.
+     */
+    private static ResponseEntity<?> unavailable(DependencyUnavailableException e) {
+        logger.warn("Request refused: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body("Service temporarily unavailable (" + e.getDependency() + "), retry later");
+    }
+
+    /**
+     * Creates the order, going through the idempotency check when the client sent a key.
+     * Replays get the original 201 response plus an Idempotent-Replayed header.
+     */
+    private ResponseEntity<?> create(Order order, MultipartFile file, String idempotencyKey) throws IOException {
+        if (idempotencyKey == null) {
+            Order savedOrder = orderService.createOrder(order, file);
+            logger.info("Order created successfully with ID: {}", savedOrder.getOrderId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(savedOrder);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyService.MAX_KEY_LENGTH) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(IDEMPOTENCY_KEY_HEADER + " must be 1-" + IdempotencyService.MAX_KEY_LENGTH + " characters");
+        }
+
+        IdempotencyService.Reservation result = orderService.createOrder(order, file, idempotencyKey);
+        return switch (result.outcome()) {
+            case ACQUIRED -> {
+                logger.info("Order created successfully with ID: {}", result.orderId());
+                yield ResponseEntity.status(HttpStatus.CREATED).body(result.order());
+            }
+            case REPLAYED -> ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                    .body(result.order());
+            case IN_PROGRESS -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+            case KEY_REUSED -> ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(IDEMPOTENCY_KEY_HEADER + " was already used for a different order");
+        };
+    }
+
+    /**
+     * ✅ Get presigned URLs to upload an order's invoice straight to S3
      *
-     * GET /orders/{orderId}
+     * POST /orders/{orderId}/invoice/upload-url
+     * Body: { "fileName": "...", "contentType": "application/pdf", "size": 12345 }
+     * Response: key plus either a single PUT url, or an uploadId with one url per part
+     *
+     * Process:
+     * 1. Call this endpoint
+     * 2. PUT the file (or each part of it, with exactly the given length) to the returned url(s)
+     * 3. Call /invoice/complete with the key, uploadId and the ETag of every part
      */
-    @GetMapping("/{orderId}")
-    public ResponseEntity<Order> getOrderById(@PathVariable String orderId) {
-        logger.info("Fetching order with ID: {}", orderId);
+    @PostMapping("/{orderId}/invoice/upload-url")
+    public ResponseEntity<?> createInvoiceUploadUrl(@PathVariable String orderId,
+                                                    @RequestBody InvoiceUploadRequest request) {
+        logger.info("Issuing invoice upload URL for order {} ({} bytes)", orderId, request.size());
+        try {
+            return invoiceUploadService.start(orderId, request)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        } catch (Exception e) {
+            return invoiceUploadError(e);
+        }
+    }
+
+    /**
+     * ✅ Attach an invoice uploaded through presigned URLs to its order
+     *
+     * POST /orders/{orderId}/invoice/complete
+     * Body: { "key": "...", "uploadId": "..." (multipart only), "parts": [{ "partNumber": 1, "eTag": "..." }] }
+     * Response: the updated order; repeating the call returns the same order
+     */
+    @PostMapping("/{orderId}/invoice/complete")
+    public ResponseEntity<?> completeInvoiceUpload(@PathVariable String orderId,
+                                                   @RequestBody InvoiceUploadCompletion completion) {
+        logger.info("Completing invoice upload for order {}", orderId);
         try {
-            return orderService.getOrderById(orderId)
-                    .map(order -> {
-                        logger.debug("Order found: {}", order);
-                        return ResponseEntity.ok(order);
-                    })
-                    .orElseGet(() -> {
-                        logger.warn("Order ID {} not found", orderId);
+            return invoiceUploadService.complete(orderId, completion)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        } catch (Exception e) {
+            return invoiceUploadError(e);
+        }
+    }
+
+    /**
+     * ✅ Abandon a multipart invoice upload
+     *
+     * DELETE /orders/{orderId}/invoice/upload?key=...&uploadId=...
+     */
+    @DeleteMapping("/{orderId}/invoice/upload")
+    public ResponseEntity<?> abortInvoiceUpload(@PathVariable String orderId,
+                                                @RequestParam("key") String key,
+                                                @RequestParam("uploadId") String uploadId) {
+        logger.info("Aborting invoice upload {} for order {}", uploadId, orderId);
+        try {
+            invoiceUploadService.abort(orderId, key, uploadId);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            return invoiceUploadError(e);
+        }
+    }
+
+    /**
+     * ✅ Download an order's invoice
+     *
+     * GET /orders/{orderId}/invoice
+     * Response: 302 to a presigned S3 URL (the bytes never pass through this service), or 304
+     * when If-None-Match already names the invoice's ETag. Keys this service didn't issue for
+     * the order are never signed.
+     *
+     * The client follows the redirect with its Range / conditional headers and S3 answers them.
+     * The redirect itself may be reused while its Cache-Control max-age lasts.
+     */
+    @GetMapping("/{orderId}/invoice")
+    public CompletableFuture<ResponseEntity<?>> downloadInvoice(
+            @PathVariable String orderId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        logger.info("Fetching invoice of order {}", orderId);
+        return orderService.getOrderByIdAsync(orderId)
+                .<ResponseEntity<?>>thenApply(found -> {
+                    String key = found.map(Order::getInvoiceUrl).orElse(null);
+                    if (key == null) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+                    }
+                    if (!InvoiceDownloadService.isInvoiceKey(orderId, key)) {
+                        logger.warn("Order {} refers to invoice key {} that wasn't issued for it", orderId, key);
                         return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-                    });
+                    }
+                    String eTag = InvoiceDownloadService.eTag(key);
+                    if (eTag != null && matches(ifNoneMatch, eTag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+                    }
+                    InvoiceDownloadService.PresignedInvoice invoice = invoiceDownloadService.presign(orderId, key);
+                    ResponseEntity.BodyBuilder redirect = ResponseEntity.status(HttpStatus.FOUND)
+                            .location(URI.create(invoice.url()))
+                            .cacheControl(CacheControl
+                                    .maxAge(invoice.maxAgeSeconds(invoiceDownloadService.refreshMargin()), TimeUnit.SECONDS)
+                                    .cachePrivate());
+                    if (invoice.eTag() != null) {
+                        redirect.eTag(invoice.eTag());
+                    }
+                    return redirect.build();
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause instanceof DependencyUnavailableException unavailable) {
+                        return unavailable(unavailable);
+                    }
+                    logger.error("Error while fetching invoice", e);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // Weak comparison, as If-None-Match requires
+            if (tag.equals("*") || tag.equals(eTag) || tag.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ResponseEntity<?> invoiceUploadError(Exception e) {
+        if (e instanceof DependencyUnavailableException unavailable) {
+            return unavailable(unavailable);
+        }
+        if (e instanceof IllegalArgumentException) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+        if (e instanceof IllegalStateException) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+        logger.error("Invoice upload request failed", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Invoice upload failed: " + e.getMessage());
+    }
+
+    /**
+     * ✅ Create many orders in one request
+     *
+     * POST /orders/bulk
+     * Body: JSON array of orders (application/json) or one order per line (application/x-ndjson)
+     * Response: totals plus a per-item result (index, orderId, status, error)
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> createOrdersBulk(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+
+        logger.info("Received bulk order request ({})", contentType);
+
+        try {
+            boolean ndjson = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON);
+            BulkOrderResult result = ndjson
+                    ? orderBulkService.ingestNdjson(body)
+                    : orderBulkService.ingestJsonArray(body);
+            logger.info("Bulk request done: {} received, {} created, {} failed",
+                    result.getReceived(), result.getCreated(), result.getFailed());
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Bulk request interrupted");
+
         } catch (Exception e) {
-            logger.error("Error while retrieving order", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            logger.error("Bulk order request failed", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to create orders: " + e.getMessage());
         }
     }
 
     /**
-     * ✅ Retrieve all orders (⚠️ May be slow for large datasets)
+     * ✅ Retrieve an order by its ID
      *
-     * GET /orders
+     * GET /orders/{orderId}
+     * Served asynchronously: the request thread is released while DynamoDB is queried.
+     */
+    @GetMapping("/{orderId}")
+    public CompletableFuture<ResponseEntity<Order>> getOrderById(@PathVariable String orderId) {
+        logger.info("Fetching order with ID: {}", orderId);
+        return orderService.getOrderByIdAsync(orderId)
+                .thenApply(found -> found
+                        .map(order -> {
+                            logger.debug("Order found: {}", order);
+                            return ResponseEntity.ok(order);
+                        })
+                        .orElseGet(() -> {
+                            logger.warn("Order ID {} not found", orderId);
+                            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+                        }))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause instanceof DependencyUnavailableException unavailable) {
+                        logger.warn("Order {} not retrieved: {}", orderId, unavailable.getMessage());
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                                .build();
+                    }
+                    logger.error("Error while retrieving order", e);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    /**
+     * ✅ Retrieve orders one page at a time, optionally filtered by customer and creation time
+     *
+     * GET /orders?limit=50&nextToken=...
+     * GET /orders?customer=X&from=2024-01-01T00:00:00Z&to=2024-02-01T00:00:00Z&sort=desc
+     * Response: { "items": [...], "nextToken": "..." } — nextToken is null on the last page
+     *
+     * Customer lookups query the customerName/createdAt GSI asynchronously and come back sorted
+     * by createdAt; without a customer the table is scanned page by page in no particular order.
      */
     @GetMapping
-    public ResponseEntity<?> getAllOrders() {
-        logger.info("Fetching all orders");
+    public CompletableFuture<ResponseEntity<?>> getOrders(
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(value = "nextToken", required = false) String nextToken,
+            @RequestParam(value = "customer", required = false) String customer,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "sort", defaultValue = "asc") String sort) {
+
+        logger.info("Fetching orders page (limit={}, customer={}, hasToken={})", limit, customer, nextToken != null);
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        if (customer == null && (from != null || to != null)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("from/to filters require a customer"));
+        }
+        if (!"asc".equalsIgnoreCase(sort) && !"desc".equalsIgnoreCase(sort)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("sort must be 'asc' or 'desc'"));
+        }
+        Date fromDate;
+        Date toDate;
         try {
-            Iterable<Order> orders = orderService.getAllOrders();
-            return ResponseEntity.ok(orders);
+            fromDate = parseInstant(from);
+            toDate = parseInstant(to);
+        } catch (DateTimeParseException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("from/to must be ISO-8601 instants, e.g. 2024-01-31T00:00:00Z"));
+        }
+        if (fromDate != null && toDate != null && fromDate.after(toDate)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("from must not be after to"));
+        }
+
+        CompletableFuture<OrderPage> page;
+        try {
+            page = customer != null
+                    ? orderService.findOrdersByCustomerAsync(customer, fromDate, toDate,
+                            limit, nextToken, "asc".equalsIgnoreCase(sort))
+                    : CompletableFuture.completedFuture(orderService.listOrders(limit, nextToken));
         } catch (Exception e) {
-            logger.error("Error while fetching all orders", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Failed to retrieve orders");
+            return CompletableFuture.completedFuture(pageError(e));
         }
+        return page.<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(e -> pageError(e instanceof CompletionException ? e.getCause() : e));
+    }
+
+    private ResponseEntity<?> pageError(Throwable e) {
+        if (e instanceof DependencyUnavailableException unavailable) {
+            return unavailable(unavailable);
+        }
+        if (e instanceof InvalidPageTokenException) {
+            logger.warn("Rejected invalid page token");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid nextToken");
+        }
+        logger.error("Error while fetching orders page", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Failed to retrieve orders");
+    }
+
+    /**
+     * ✅ Stream every order as newline-delimited JSON
+     *
+     * GET /orders/stream?pageSize=500
+     * Each scan page is written and flushed as soon as it arrives, so memory stays flat.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamOrders(
+            @RequestParam(value = "pageSize", defaultValue = "" + MAX_PAGE_SIZE) int pageSize) {
+
+        logger.info("Streaming all orders (pageSize={})", pageSize);
+        int boundedPageSize = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+
+        StreamingResponseBody body = out -> {
+            try {
+                orderService.streamOrders(boundedPageSize, page -> {
+                    try {
+                        for (Order order : page) {
+                            out.write(objectMapper.writeValueAsBytes(order));
+                            out.write('\n');
+                        }
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                logger.warn("Order stream aborted: {}", e.getCause().getMessage());
+                throw e.getCause();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
@@ -150,4 +517,8 @@ public class OrderController {
                     .body("S3 test failed: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private static Date parseInstant(String value) {
+        return value != null ? Date.from(Instant.parse(value)) : null;
+    }
+}
@@ -0,0 +1,101 @@
+package com.sarvesh.orderservice.controller;
+
+import java.net.URI;
+
+import com.sarvesh.orderservice.model.OrderExport;
+import com.sarvesh.orderservice.service.OrderExportService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/orders/exports")
+public class OrderExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportController.class);
+
+    private final OrderExportService orderExportService;
+
+    public OrderExportController(OrderExportService orderExportService) {
+        this.orderExportService = orderExportService;
+    }
+
+    /**
+     * ✅ Export every order to S3
+     *
+     * POST /orders/exports?segments=8
+     *   (segments is optional; more segments scan the table in more parallel workers)
+     *
+     * Process:
+     * 1. Splits the orders table into scan segments, each exported by its own worker
+     * 2. Writes gzip'd NDJSON files under exports/{exportId}/ and a manifest.json when done
+     * 3. Returns 202 at once; poll the Location for progress
+     */
+    @PostMapping
+    public ResponseEntity<?> startExport(@RequestParam(value = "segments", required = false) Integer segments) {
+        logger.info("Starting order export (segments={})", segments);
+        try {
+            OrderExport export = segments != null ? orderExportService.start(segments) : orderExportService.start();
+            return ResponseEntity.accepted()
+                    .location(URI.create("/orders/exports/" + export.exportId()))
+                    .body(export);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+
+        } catch (Exception e) {
+            logger.error("Error while starting order export", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to start order export");
+        }
+    }
+
+    /**
+     * ✅ Progress of an export
+     *
+     * GET /orders/exports/{exportId}
+     */
+    @GetMapping("/{exportId}")
+    public ResponseEntity<?> getExport(@PathVariable String exportId) {
+        try {
+            return orderExportService.status(exportId)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Export not found: " + exportId));
+
+        } catch (Exception e) {
+            logger.error("Error while fetching order export {}", exportId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to retrieve order export");
+        }
+    }
+
+    /**
+     * ✅ Resume a failed or interrupted export
+     *
+     * POST /orders/exports/{exportId}/resume
+     *
+     * Unfinished segments continue after their last uploaded file.
+     */
+    @PostMapping("/{exportId}/resume")
+    public ResponseEntity<?> resumeExport(@PathVariable String exportId) {
+        logger.info("Resuming order export {}", exportId);
+        try {
+            return orderExportService.resume(exportId)
+                    .<ResponseEntity<?>>map(export -> ResponseEntity.accepted().body(export))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Export not found: " + exportId));
+
+        } catch (Exception e) {
+            logger.error("Error while resuming order export {}", exportId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to resume order export");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.sarvesh.orderservice.controller;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+import com.sarvesh.orderservice.service.OrderStatsService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/orders/stats")
+public class OrderStatsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatsController.class);
+
+    private static final Duration DEFAULT_RANGE = Duration.ofHours(24);
+
+    private final OrderStatsService orderStatsService;
+
+    public OrderStatsController(OrderStatsService orderStatsService) {
+        this.orderStatsService = orderStatsService;
+    }
+
+    /**
+     * ✅ Order count, total, average and amount percentiles
+     *
+     * GET /orders/stats?customer=Alice — every order of one customer
+     * GET /orders/stats?from=2024-01-01T00:00:00Z&to=2024-01-02T00:00:00Z — per time bucket plus a total
+     *   (from/to default to the last 24 hours)
+     *
+     * Served from live aggregates kept up to date by order events; never scans the orders table.
+     */
+    @GetMapping
+    public ResponseEntity<?> getStats(
+            @RequestParam(value = "customer", required = false) String customer,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to) {
+
+        logger.info("Fetching order stats (customer={}, from={}, to={})", customer, from, to);
+
+        if (customer != null && (from != null || to != null)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Customer stats cover all time; from/to can't be combined with customer");
+        }
+
+        try {
+            if (customer != null) {
+                return ResponseEntity.ok(orderStatsService.customerStats(customer));
+            }
+            Instant end = to != null ? Instant.parse(to) : Instant.now();
+            Instant start = from != null ? Instant.parse(from) : end.minus(DEFAULT_RANGE);
+            return ResponseEntity.ok(orderStatsService.rangeStats(start, end));
+
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("from/to must be ISO-8601 instants, e.g. 2024-01-31T00:00:00Z");
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+
+        } catch (Exception e) {
+            logger.error("Error while fetching order stats", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to retrieve order stats");
+        }
+    }
+}
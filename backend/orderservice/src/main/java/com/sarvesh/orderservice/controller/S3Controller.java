@@ -2,6 +2,7 @@ package com.sarvesh.orderservice.controller;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -10,6 +11,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.sarvesh.orderservice.service.DependencyGuard;
+import com.sarvesh.orderservice.service.DependencyGuards;
+import com.sarvesh.orderservice.service.DependencyUnavailableException;
 import com.sarvesh.orderservice.service.S3Service;
 
 @RestController
@@ -17,17 +21,23 @@ import com.sarvesh.orderservice.service.S3Service;
 public class S3Controller {
 
     private static final Logger logger = LoggerFactory.getLogger(S3Controller.class);
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     private final S3Service s3Service;
+    private final DependencyGuard s3;
 
-    public S3Controller(S3Service s3Service) {
+    public S3Controller(S3Service s3Service, DependencyGuards guards) {
         this.s3Service = s3Service;
+        this.s3 = guards.s3();
     }
 
     /**
      * Uploads a file to the configured S3 bucket.
      *
      * @param file Multipart file received from the client
-     * @return ResponseEntity with the status and uploaded file key
+     * @return ResponseEntity with the status and uploaded file key, or 503 with Retry-After
+     *         while S3 calls are being refused
      */
     @PostMapping("/upload")
     public ResponseEntity<String> uploadFile(@RequestParam("file") MultipartFile file) {
@@ -44,14 +54,21 @@ public class S3Controller {
         }
 
         try {
-            // Uploading to S3
-            String key = s3Service.uploadFile(file);
+            // Uploading to S3, bounded by the same guard as every other S3 call
+            String key = s3.call(() -> s3Service.uploadFile(file));
 
             logger.info("✅ File uploaded successfully. S3 Key: {}", key);
             return ResponseEntity
                     .status(HttpStatus.CREATED)
                     .body("✅ File uploaded successfully. S3 key: " + key);
 
+        } catch (DependencyUnavailableException e) {
+            logger.warn("⚠️ Upload refused: {}", e.getMessage());
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body("❌ Upload failed: service temporarily unavailable (" + e.getDependency() + "), retry later");
+
         } catch (Exception e) {
             logger.error("❌ Error occurred while uploading to S3", e);
             return ResponseEntity
@@ -0,0 +1,53 @@
+package com.sarvesh.orderservice.model;
+
+/**
+ * Result for a single order in a bulk ingestion, identified by its position in the request.
+ */
+public class BulkOrderItemResult {
+
+    public enum Status {
+        CREATED,
+        FAILED,
+        INVALID
+    }
+
+    private final int index;
+    private final String orderId;
+    private final Status status;
+    private final String error;
+
+    public BulkOrderItemResult(int index, String orderId, Status status, String error) {
+        this.index = index;
+        this.orderId = orderId;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BulkOrderItemResult created(int index, String orderId) {
+        return new BulkOrderItemResult(index, orderId, Status.CREATED, null);
+    }
+
+    public static BulkOrderItemResult failed(int index, String orderId, String error) {
+        return new BulkOrderItemResult(index, orderId, Status.FAILED, error);
+    }
+
+    public static BulkOrderItemResult invalid(int index, String error) {
+        return new BulkOrderItemResult(index, null, Status.INVALID, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,37 @@
+package com.sarvesh.orderservice.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk order ingestion: totals plus one entry per submitted order.
+ */
+public class BulkOrderResult {
+
+    private final int received;
+    private final int created;
+    private final int failed;
+    private final List<BulkOrderItemResult> results;
+
+    public BulkOrderResult(List<BulkOrderItemResult> results) {
+        this.results = results;
+        this.received = results.size();
+        this.created = (int) results.stream().filter(r -> r.getStatus() == BulkOrderItemResult.Status.CREATED).count();
+        this.failed = received - created;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<BulkOrderItemResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,127 @@
+package com.sarvesh.orderservice.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress of one segment of an order export, as stored in DynamoDB.
+ *
+ * Updated every time a file of the segment has been uploaded, so a resumed export continues
+ * with the next file from {@code pageToken} instead of starting the segment over.
+ */
+public class ExportSegment {
+
+    public enum Status {
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    private String exportId;        // Partition key
+    private Integer segment;        // Sort key, 0 to totalSegments - 1
+    private Integer totalSegments;
+    private Status status;
+    private String pageToken;       // Scan position after the last uploaded file, null at the start and the end
+    private Integer nextPart;       // Number of the next file of this segment
+    private Long rows;              // Orders in the uploaded files
+    private List<String> files = new ArrayList<>();  // S3 keys of the uploaded files
+    private String error;           // Why the segment failed, if it did
+    private Long createdAt;         // Epoch millis
+    private Long updatedAt;         // Epoch millis
+
+    public String getExportId() {
+        return exportId;
+    }
+
+    public void setExportId(String exportId) {
+        this.exportId = exportId;
+    }
+
+    public Integer getSegment() {
+        return segment;
+    }
+
+    public void setSegment(Integer segment) {
+        this.segment = segment;
+    }
+
+    public Integer getTotalSegments() {
+        return totalSegments;
+    }
+
+    public void setTotalSegments(Integer totalSegments) {
+        this.totalSegments = totalSegments;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getPageToken() {
+        return pageToken;
+    }
+
+    public void setPageToken(String pageToken) {
+        this.pageToken = pageToken;
+    }
+
+    /**
+     * Whether the last uploaded file reached the end of the scan. A null page token means the
+     * start of the scan before the first file and its end after one.
+     */
+    public boolean isScanComplete() {
+        return pageToken == null && nextPart != null && nextPart > 0;
+    }
+
+    public Integer getNextPart() {
+        return nextPart;
+    }
+
+    public void setNextPart(Integer nextPart) {
+        this.nextPart = nextPart;
+    }
+
+    public Long getRows() {
+        return rows;
+    }
+
+    public void setRows(Long rows) {
+        this.rows = rows;
+    }
+
+    public List<String> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<String> files) {
+        this.files = files != null ? files : new ArrayList<>();
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,86 @@
+package com.sarvesh.orderservice.model;
+
+/**
+ * Entry in the idempotency table: which order an Idempotency-Key belongs to and,
+ * once the order is created, the response to replay for retries with the same key.
+ */
+public class IdempotencyRecord {
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
+
+    private String idempotencyKey;
+    private String requestHash;     // SHA-256 of the request, to detect a key reused for a different order
+    private Status status;
+    private String orderId;
+    private String responseBody;    // JSON of the created order, set once COMPLETED
+    private Long lockedUntil;       // Epoch millis; an IN_PROGRESS record older than this may be taken over
+    private Long expiresAt;         // Epoch seconds; DynamoDB TTL attribute
+    private Long createdAt;         // Epoch millis of the first reservation, kept on takeover; the order's createdAt
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public Long getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(Long lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,38 @@
+package com.sarvesh.orderservice.model;
+
+/**
+ * Records that an order uses a stored invoice object.
+ *
+ * Content-addressed invoices are shared by every order with the same bytes, so an object
+ * may only be deleted once no reference to it is left.
+ */
+public class InvoiceRef {
+
+    private String invoiceKey;  // S3 key of the invoice object, partition key
+    private String orderId;     // Sort key
+    private Long createdAt;     // Epoch millis
+
+    public String getInvoiceKey() {
+        return invoiceKey;
+    }
+
+    public void setInvoiceKey(String invoiceKey) {
+        this.invoiceKey = invoiceKey;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,25 @@
+package com.sarvesh.orderservice.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Presigned URLs for uploading an invoice straight to S3.
+ *
+ * Small files get a single PUT {@code url}. Larger ones get an S3 multipart upload: the client
+ * PUTs bytes [(n-1) * partSize, n * partSize) to the URL of part n (in any order, in parallel),
+ * keeps each response's ETag header and sends them to the completion endpoint.
+ *
+ * @param key       S3 key the invoice is stored under
+ * @param uploadId  Multipart upload id, null for a single PUT
+ * @param url       Single PUT URL, null for a multipart upload
+ * @param partSize  Bytes per part (the last part may be smaller), 0 for a single PUT
+ * @param parts     Part URLs, empty for a single PUT
+ * @param expiresAt When the URLs stop working
+ */
+public record InvoiceUpload(String key, String uploadId, String url, long partSize,
+                            List<Part> parts, Instant expiresAt) {
+
+    public record Part(int partNumber, String url) {
+    }
+}
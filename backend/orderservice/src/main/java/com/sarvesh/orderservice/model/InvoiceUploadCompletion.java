@@ -0,0 +1,16 @@
+package com.sarvesh.orderservice.model;
+
+import java.util.List;
+
+/**
+ * Sent by the client once its direct upload to S3 has finished.
+ *
+ * @param key      Key from the {@link InvoiceUpload}
+ * @param uploadId Multipart upload id, null for a single PUT
+ * @param parts    ETags S3 returned for each part, empty for a single PUT
+ */
+public record InvoiceUploadCompletion(String key, String uploadId, List<Part> parts) {
+
+    public record Part(int partNumber, String eTag) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.sarvesh.orderservice.model;
+
+/**
+ * Client request for presigned invoice upload URLs.
+ *
+ * @param fileName    Original file name, kept as the last part of the S3 key
+ * @param contentType MIME type the client will send, may be null
+ * @param size        Exact size in bytes; the URLs are only valid for this length
+ */
+public record InvoiceUploadRequest(String fileName, String contentType, long size) {
+}
@@ -2,14 +2,10 @@ package com.sarvesh.orderservice.model;
 
 import java.util.Date;
 
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
-
 /**
  * Represents an order entry stored in the DynamoDB "Orders" table.
+ * The table mapping lives in {@code OrderTableSchema}.
  */
-@DynamoDBTable(tableName = "Orders")
 public class Order {
 
     private String orderId;
@@ -21,7 +17,6 @@ public class Order {
     /** 
      * Primary key for the order.
      */
-    @DynamoDBHashKey(attributeName = "orderId")
     public String getOrderId() {
         return orderId;
     }
@@ -33,7 +28,6 @@ public class Order {
     /** 
      * Customer name associated with the order.
      */
-    @DynamoDBAttribute(attributeName = "customerName")
     public String getCustomerName() {
         return customerName;
     }
@@ -45,7 +39,6 @@ public class Order {
     /** 
      * Amount paid for the order.
      */
-    @DynamoDBAttribute(attributeName = "amount")
     public Double getAmount() {
         return amount;
     }
@@ -57,7 +50,6 @@ public class Order {
     /**
      * URL or identifier pointing to the invoice stored in S3.
      */
-    @DynamoDBAttribute(attributeName = "invoiceUrl")
     public String getInvoiceUrl() {
         return invoiceUrl;
     }
@@ -69,7 +61,6 @@ public class Order {
     /** 
      * Timestamp when the order was created.
      */
-    @DynamoDBAttribute(attributeName = "createdAt")
     public Date getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,26 @@
+package com.sarvesh.orderservice.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Envelope of every order event published to SNS.
+ *
+ * Carries a snapshot of the order as of the event, so consumers don't have to read it back
+ * from DynamoDB. Fields are only ever added; a consumer ignores fields it doesn't know and
+ * checks {@code schemaVersion} before relying on a field that came later.
+ *
+ * @param schemaVersion Version of this envelope, {@link #SCHEMA_VERSION} for new events
+ * @param eventId       Unique per event; the same event may be delivered more than once
+ * @param eventType     e.g. {@link #ORDER_CREATED}
+ * @param occurredAt    Epoch millis when the event was recorded
+ * @param order         The order after the change
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OrderEvent(int schemaVersion, String eventId, String eventType, long occurredAt, Order order) {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    public static final String ORDER_CREATED = "OrderCreated";
+
+    public static final String INVOICE_ATTACHED = "InvoiceAttached";
+}
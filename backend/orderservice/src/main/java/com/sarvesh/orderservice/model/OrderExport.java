@@ -0,0 +1,19 @@
+package com.sarvesh.orderservice.model;
+
+import java.util.List;
+
+/**
+ * Progress of an order export.
+ *
+ * @param exportId      Id of the export
+ * @param status        RUNNING until every segment is DONE; FAILED if a segment failed and
+ *                      none is still running (resume it to continue)
+ * @param totalSegments Number of parallel scan segments
+ * @param segmentsDone  Segments fully exported
+ * @param rows          Orders exported so far
+ * @param files         S3 keys of the gzip'd NDJSON files uploaded so far
+ * @param manifest      S3 key of the manifest, set once the export is DONE
+ */
+public record OrderExport(String exportId, ExportSegment.Status status, int totalSegments, int segmentsDone,
+                          long rows, List<String> files, String manifest) {
+}
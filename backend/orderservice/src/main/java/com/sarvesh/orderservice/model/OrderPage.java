@@ -0,0 +1,26 @@
+package com.sarvesh.orderservice.model;
+
+import java.util.List;
+
+/**
+ * A single page of orders plus an opaque token for fetching the next page.
+ * {@code nextToken} is null when there are no more results.
+ */
+public class OrderPage {
+
+    private final List<Order> items;
+    private final String nextToken;
+
+    public OrderPage(List<Order> items, String nextToken) {
+        this.items = items;
+        this.nextToken = nextToken;
+    }
+
+    public List<Order> getItems() {
+        return items;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+}
@@ -0,0 +1,21 @@
+package com.sarvesh.orderservice.model;
+
+/**
+ * Aggregated order amounts for one customer or one time bucket.
+ *
+ * Percentiles come from a histogram with two significant digits, so they are accurate to
+ * about 1% of the amount. Every amount field is null while {@code count} is 0.
+ *
+ * @param name    Customer name, or the start of the time bucket (ISO-8601)
+ * @param count   Number of orders
+ * @param sum     Total amount
+ * @param average Mean amount
+ * @param min     Smallest amount
+ * @param max     Largest amount
+ * @param p50     Median amount
+ * @param p90     90th percentile amount
+ * @param p99     99th percentile amount
+ */
+public record OrderStats(String name, long count, double sum, Double average, Double min, Double max,
+                         Double p50, Double p90, Double p99) {
+}
@@ -0,0 +1,85 @@
+package com.sarvesh.orderservice.model;
+
+import software.amazon.awssdk.core.SdkBytes;
+
+/**
+ * One instance's running aggregate for one customer or time bucket, as stored in DynamoDB.
+ *
+ * Every instance consumes its own share of the order events, so each keeps its own row per
+ * aggregate; the full aggregate is the merge of all rows with the same key.
+ */
+public class OrderStatsCheckpoint {
+
+    private String aggregateKey;  // "customer#<name>" or "bucket#<ISO start>", partition key
+    private String instanceId;    // Sort key
+    private Long count;
+    private Double sum;
+    private Double min;
+    private Double max;
+    private SdkBytes histogram;   // Compressed HdrHistogram of amounts in cents
+    private Long updatedAt;       // Epoch millis
+
+    public String getAggregateKey() {
+        return aggregateKey;
+    }
+
+    public void setAggregateKey(String aggregateKey) {
+        this.aggregateKey = aggregateKey;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public void setInstanceId(String instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public Double getSum() {
+        return sum;
+    }
+
+    public void setSum(Double sum) {
+        this.sum = sum;
+    }
+
+    public Double getMin() {
+        return min;
+    }
+
+    public void setMin(Double min) {
+        this.min = min;
+    }
+
+    public Double getMax() {
+        return max;
+    }
+
+    public void setMax(Double max) {
+        this.max = max;
+    }
+
+    public SdkBytes getHistogram() {
+        return histogram;
+    }
+
+    public void setHistogram(SdkBytes histogram) {
+        this.histogram = histogram;
+    }
+
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,15 @@
+package com.sarvesh.orderservice.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Order stats for a time range, per bucket and in total.
+ *
+ * @param from    Start of the first bucket
+ * @param to      End of the last bucket (exclusive)
+ * @param total   All buckets together
+ * @param buckets One entry per bucket with orders, oldest first
+ */
+public record OrderStatsReport(Instant from, Instant to, OrderStats total, List<OrderStats> buckets) {
+}
@@ -0,0 +1,83 @@
+package com.sarvesh.orderservice.model;
+
+/**
+ * An order event waiting in the outbox table to be published to SNS.
+ *
+ * Events are spread over shards by order id, so all events of one order land in the same
+ * shard; within a shard they sort by eventId, which starts with the creation time.
+ */
+public class OutboxEvent {
+
+    private Integer shard;
+    private String eventId;     // "<epoch millis, zero padded>#<uuid or order id>", sort key within the shard
+    private String orderId;
+    private String eventType;
+    private String payload;     // Encoded OrderEvent, as published to SNS
+    private String contentType; // Encoding of the payload, see OrderEventCodec
+    private Integer schemaVersion;
+    private Long createdAt;     // Epoch millis
+
+    public Integer getShard() {
+        return shard;
+    }
+
+    public void setShard(Integer shard) {
+        this.shard = shard;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Integer getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    public void setSchemaVersion(Integer schemaVersion) {
+        this.schemaVersion = schemaVersion;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long createdAt) {
+        this.createdAt = createdAt;
+    }
+}
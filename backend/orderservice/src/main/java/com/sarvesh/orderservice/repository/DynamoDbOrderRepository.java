@@ -0,0 +1,188 @@
+package com.sarvesh.orderservice.repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderPage;
+import com.sarvesh.orderservice.model.OutboxEvent;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactUpdateItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * {@link OrderRepository} on the SDK v2 DynamoDB Enhanced Client.
+ *
+ * Items are mapped with the static {@link OrderTableSchema}. Blocking calls go through
+ * {@link DynamoDbTable}, the *Async variants through {@link DynamoDbAsyncTable}, which runs
+ * on the shared Netty HTTP client.
+ */
+@Repository
+public class DynamoDbOrderRepository implements OrderRepository {
+
+    private final DynamoDbEnhancedClient enhancedClient;
+    private final DynamoDbTable<Order> table;
+    private final DynamoDbAsyncTable<Order> asyncTable;
+    private final DynamoDbTable<OutboxEvent> outboxTable;
+
+    public DynamoDbOrderRepository(DynamoDbEnhancedClient enhancedClient,
+                                   DynamoDbEnhancedAsyncClient enhancedAsyncClient,
+                                   OutboxRepository outboxRepository,
+                                   @Value("${aws.dynamodb.tableName}") String tableName) {
+        this.enhancedClient = enhancedClient;
+        this.table = enhancedClient.table(tableName, OrderTableSchema.SCHEMA);
+        this.asyncTable = enhancedAsyncClient.table(tableName, OrderTableSchema.SCHEMA);
+        this.outboxTable = outboxRepository.table();
+    }
+
+    @Override
+    public void saveWithEvents(List<Order> orders, List<OutboxEvent> events) {
+        if (orders.size() + events.size() > MAX_TRANSACT_ITEMS) {
+            throw new IllegalArgumentException("At most " + MAX_TRANSACT_ITEMS + " items per transaction");
+        }
+        TransactWriteItemsEnhancedRequest.Builder request = TransactWriteItemsEnhancedRequest.builder();
+        orders.forEach(order -> request.addPutItem(table, order));
+        events.forEach(event -> request.addPutItem(outboxTable, event));
+        enhancedClient.transactWriteItems(request.build());
+    }
+
+    @Override
+    public void attachInvoice(String orderId, String invoiceUrl, OutboxEvent event) {
+        // Only the non-null attributes are written, so this is a partial update
+        Order update = new Order();
+        update.setOrderId(orderId);
+        update.setInvoiceUrl(invoiceUrl);
+
+        enhancedClient.transactWriteItems(TransactWriteItemsEnhancedRequest.builder()
+                .addUpdateItem(table, TransactUpdateItemEnhancedRequest.builder(Order.class)
+                        .item(update)
+                        .ignoreNulls(true)
+                        .conditionExpression(Expression.builder().expression("attribute_exists(orderId)").build())
+                        .build())
+                .addPutItem(outboxTable, event)
+                .build());
+    }
+
+    @Override
+    public Optional<Order> findById(String orderId) {
+        return Optional.ofNullable(table.getItem(key(orderId)));
+    }
+
+    @Override
+    public OrderPage scanPage(int limit, String pageToken) {
+        ScanEnhancedRequest request = ScanEnhancedRequest.builder()
+                .limit(limit)
+                .exclusiveStartKey(PageTokenCodec.decode(pageToken, OrderTableSchema.TABLE_KEY))
+                .build();
+        return toOrderPage(table.scan(request).iterator().next());
+    }
+
+    @Override
+    public OrderPage scanSegment(int segment, int totalSegments, int limit, String pageToken) {
+        ScanEnhancedRequest request = ScanEnhancedRequest.builder()
+                .segment(segment)
+                .totalSegments(totalSegments)
+                .limit(limit)
+                .exclusiveStartKey(PageTokenCodec.decode(pageToken, OrderTableSchema.TABLE_KEY))
+                .build();
+        return toOrderPage(table.scan(request).iterator().next());
+    }
+
+    @Override
+    public void scanAll(int pageSize, Consumer<List<Order>> pageConsumer) {
+        // Pages are fetched lazily as the iterator advances
+        for (Page<Order> page : table.scan(ScanEnhancedRequest.builder().limit(pageSize).build())) {
+            if (!page.items().isEmpty()) {
+                pageConsumer.accept(page.items());
+            }
+        }
+    }
+
+    @Override
+    public OrderPage queryByCustomer(String customerName, Date from, Date to,
+                                     int limit, String pageToken, boolean ascending) {
+        QueryEnhancedRequest request = customerQuery(customerName, from, to, limit, pageToken, ascending);
+        return toOrderPage(table.index(OrderTableSchema.CUSTOMER_CREATED_AT_INDEX).query(request).iterator().next());
+    }
+
+    @Override
+    public CompletableFuture<Optional<Order>> findByIdAsync(String orderId) {
+        return asyncTable.getItem(key(orderId)).thenApply(Optional::ofNullable);
+    }
+
+    @Override
+    public CompletableFuture<OrderPage> queryByCustomerAsync(String customerName, Date from, Date to,
+                                                             int limit, String pageToken, boolean ascending) {
+        QueryEnhancedRequest request = customerQuery(customerName, from, to, limit, pageToken, ascending);
+
+        // Only the first page is requested; the publisher stops after it
+        AtomicReference<Page<Order>> firstPage = new AtomicReference<>();
+        return asyncTable.index(OrderTableSchema.CUSTOMER_CREATED_AT_INDEX).query(request)
+                .limit(1)
+                .subscribe(firstPage::set)
+                .thenApply(ignored -> toOrderPage(firstPage.get()));
+    }
+
+    private static QueryEnhancedRequest customerQuery(String customerName, Date from, Date to,
+                                                      int limit, String pageToken, boolean ascending) {
+        Map<String, AttributeValue> startKey =
+                PageTokenCodec.decode(pageToken, OrderTableSchema.CUSTOMER_CREATED_AT_INDEX_KEY);
+        // DynamoDB rejects a start key outside the queried partition
+        if (startKey != null && !customerName.equals(startKey.get("customerName").s())) {
+            throw new InvalidPageTokenException("Page token belongs to another customer");
+        }
+        return QueryEnhancedRequest.builder()
+                .queryConditional(customerCondition(customerName, from, to))
+                .scanIndexForward(ascending)
+                .limit(limit)
+                .exclusiveStartKey(startKey)
+                .build();
+    }
+
+    private static QueryConditional customerCondition(String customerName, Date from, Date to) {
+        if (from != null && to != null) {
+            return QueryConditional.sortBetween(indexKey(customerName, from), indexKey(customerName, to));
+        }
+        if (from != null) {
+            return QueryConditional.sortGreaterThanOrEqualTo(indexKey(customerName, from));
+        }
+        if (to != null) {
+            return QueryConditional.sortLessThanOrEqualTo(indexKey(customerName, to));
+        }
+        return QueryConditional.keyEqualTo(Key.builder().partitionValue(customerName).build());
+    }
+
+    private static Key indexKey(String customerName, Date createdAt) {
+        return Key.builder()
+                .partitionValue(customerName)
+                .sortValue(OrderTableSchema.formatDate(createdAt))
+                .build();
+    }
+
+    private static Key key(String orderId) {
+        return Key.builder().partitionValue(orderId).build();
+    }
+
+    private static OrderPage toOrderPage(Page<Order> page) {
+        return new OrderPage(page.items(), PageTokenCodec.encode(page.lastEvaluatedKey()));
+    }
+}
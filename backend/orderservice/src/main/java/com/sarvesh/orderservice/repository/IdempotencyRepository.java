@@ -0,0 +1,130 @@
+package com.sarvesh.orderservice.repository;
+
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import com.sarvesh.orderservice.model.IdempotencyRecord;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+/**
+ * Idempotency keys in DynamoDB. Reservations are conditional puts, so exactly one request
+ * per key wins even across instances; expired items are removed by DynamoDB TTL on expiresAt.
+ */
+@Repository
+public class IdempotencyRepository {
+
+    public static final TableSchema<IdempotencyRecord> SCHEMA = StaticTableSchema.builder(IdempotencyRecord.class)
+            .newItemSupplier(IdempotencyRecord::new)
+            .addAttribute(String.class, a -> a.name("idempotencyKey")
+                    .getter(IdempotencyRecord::getIdempotencyKey)
+                    .setter(IdempotencyRecord::setIdempotencyKey)
+                    .tags(primaryPartitionKey()))
+            .addAttribute(String.class, a -> a.name("requestHash")
+                    .getter(IdempotencyRecord::getRequestHash)
+                    .setter(IdempotencyRecord::setRequestHash))
+            .addAttribute(String.class, a -> a.name("status")
+                    .getter(record -> record.getStatus() != null ? record.getStatus().name() : null)
+                    .setter((record, value) -> record.setStatus(value != null ? IdempotencyRecord.Status.valueOf(value) : null)))
+            .addAttribute(String.class, a -> a.name("orderId")
+                    .getter(IdempotencyRecord::getOrderId)
+                    .setter(IdempotencyRecord::setOrderId))
+            .addAttribute(String.class, a -> a.name("responseBody")
+                    .getter(IdempotencyRecord::getResponseBody)
+                    .setter(IdempotencyRecord::setResponseBody))
+            .addAttribute(Long.class, a -> a.name("lockedUntil")
+                    .getter(IdempotencyRecord::getLockedUntil)
+                    .setter(IdempotencyRecord::setLockedUntil))
+            .addAttribute(Long.class, a -> a.name("expiresAt")
+                    .getter(IdempotencyRecord::getExpiresAt)
+                    .setter(IdempotencyRecord::setExpiresAt))
+            .addAttribute(Long.class, a -> a.name("createdAt")
+                    .getter(IdempotencyRecord::getCreatedAt)
+                    .setter(IdempotencyRecord::setCreatedAt))
+            .build();
+
+    private final DynamoDbTable<IdempotencyRecord> table;
+
+    public IdempotencyRepository(DynamoDbEnhancedClient enhancedClient,
+                                 @Value("${orders.idempotency.table-name}") String tableName) {
+        this.table = enhancedClient.table(tableName, SCHEMA);
+    }
+
+    /**
+     * Stores the record unless the key is already taken by an item that hasn't expired.
+     * TTL deletion can lag by hours, so expired items are treated as free here.
+     *
+     * @return true if this call reserved the key
+     */
+    public boolean tryReserve(IdempotencyRecord record, long nowMillis) {
+        Expression condition = Expression.builder()
+                .expression("attribute_not_exists(idempotencyKey) OR expiresAt < :now")
+                .putExpressionValue(":now", AttributeValue.fromN(Long.toString(TimeUnit.MILLISECONDS.toSeconds(nowMillis))))
+                .build();
+        return conditionalPut(record, condition);
+    }
+
+    /**
+     * Replaces an abandoned IN_PROGRESS record, provided nobody else took it over since it was read.
+     *
+     * @param seenLockedUntil lockedUntil of the record as it was read
+     * @return true if this call now owns the key
+     */
+    public boolean tryTakeOver(IdempotencyRecord record, long seenLockedUntil) {
+        Expression condition = Expression.builder()
+                .expression("#status = :inProgress AND lockedUntil = :seen")
+                .putExpressionName("#status", "status")
+                .putExpressionValue(":inProgress", AttributeValue.fromS(IdempotencyRecord.Status.IN_PROGRESS.name()))
+                .putExpressionValue(":seen", AttributeValue.fromN(Long.toString(seenLockedUntil)))
+                .build();
+        return conditionalPut(record, condition);
+    }
+
+    /**
+     * Strongly consistent read, so a record reserved a moment ago is always seen.
+     */
+    public Optional<IdempotencyRecord> find(String idempotencyKey) {
+        return Optional.ofNullable(table.getItem(GetItemEnhancedRequest.builder()
+                .key(key(idempotencyKey))
+                .consistentRead(true)
+                .build()));
+    }
+
+    public void save(IdempotencyRecord record) {
+        table.putItem(record);
+    }
+
+    public void delete(String idempotencyKey) {
+        table.deleteItem(key(idempotencyKey));
+    }
+
+    private boolean conditionalPut(IdempotencyRecord record, Expression condition) {
+        try {
+            table.putItem(PutItemEnhancedRequest.builder(IdempotencyRecord.class)
+                    .item(record)
+                    .conditionExpression(condition)
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    private static Key key(String idempotencyKey) {
+        return Key.builder().partitionValue(idempotencyKey).build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.sarvesh.orderservice.repository;
+
+/**
+ * Thrown when a continuation token can't be decoded, i.e. it wasn't issued by
+ * {@link PageTokenCodec#encode} or was altered on the way, or when it was issued for
+ * a different listing than the one it is used on.
+ */
+public class InvalidPageTokenException extends IllegalArgumentException {
+
+    public InvalidPageTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidPageTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,71 @@
+package com.sarvesh.orderservice.repository;
+
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primarySortKey;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import com.sarvesh.orderservice.model.InvoiceRef;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+
+/**
+ * The invoice reference table: which orders use which stored invoice object.
+ *
+ * Keyed by invoice key (partition) and orderId (sort), so all users of one object come back
+ * from a single query and adding the same reference twice is harmless.
+ */
+@Repository
+public class InvoiceRefRepository {
+
+    public static final TableSchema<InvoiceRef> SCHEMA = StaticTableSchema.builder(InvoiceRef.class)
+            .newItemSupplier(InvoiceRef::new)
+            .addAttribute(String.class, a -> a.name("invoiceKey")
+                    .getter(InvoiceRef::getInvoiceKey)
+                    .setter(InvoiceRef::setInvoiceKey)
+                    .tags(primaryPartitionKey()))
+            .addAttribute(String.class, a -> a.name("orderId")
+                    .getter(InvoiceRef::getOrderId)
+                    .setter(InvoiceRef::setOrderId)
+                    .tags(primarySortKey()))
+            .addAttribute(Long.class, a -> a.name("createdAt")
+                    .getter(InvoiceRef::getCreatedAt)
+                    .setter(InvoiceRef::setCreatedAt))
+            .build();
+
+    private final DynamoDbTable<InvoiceRef> table;
+
+    public InvoiceRefRepository(DynamoDbEnhancedClient enhancedClient,
+                                @Value("${orders.invoice.refs.table-name}") String tableName) {
+        this.table = enhancedClient.table(tableName, SCHEMA);
+    }
+
+    /**
+     * Records that the order uses the invoice object. Idempotent.
+     */
+    public void add(String invoiceKey, String orderId) {
+        InvoiceRef ref = new InvoiceRef();
+        ref.setInvoiceKey(invoiceKey);
+        ref.setOrderId(orderId);
+        ref.setCreatedAt(System.currentTimeMillis());
+        table.putItem(ref);
+    }
+
+    /**
+     * Ids of the orders using the invoice object; empty when it can be deleted.
+     */
+    public List<String> orderIds(String invoiceKey) {
+        return table.query(QueryConditional.keyEqualTo(Key.builder().partitionValue(invoiceKey).build()))
+                .items().stream()
+                .map(InvoiceRef::getOrderId)
+                .toList();
+    }
+}
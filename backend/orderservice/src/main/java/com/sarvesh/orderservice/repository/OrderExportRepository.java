@@ -0,0 +1,91 @@
+package com.sarvesh.orderservice.repository;
+
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primarySortKey;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import com.sarvesh.orderservice.model.ExportSegment;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+
+/**
+ * The order export table: progress of each segment of each export.
+ *
+ * Keyed by exportId (partition) and segment (sort), so an export's progress is one query.
+ */
+@Repository
+public class OrderExportRepository {
+
+    public static final TableSchema<ExportSegment> SCHEMA = StaticTableSchema.builder(ExportSegment.class)
+            .newItemSupplier(ExportSegment::new)
+            .addAttribute(String.class, a -> a.name("exportId")
+                    .getter(ExportSegment::getExportId)
+                    .setter(ExportSegment::setExportId)
+                    .tags(primaryPartitionKey()))
+            .addAttribute(Integer.class, a -> a.name("segment")
+                    .getter(ExportSegment::getSegment)
+                    .setter(ExportSegment::setSegment)
+                    .tags(primarySortKey()))
+            .addAttribute(Integer.class, a -> a.name("totalSegments")
+                    .getter(ExportSegment::getTotalSegments)
+                    .setter(ExportSegment::setTotalSegments))
+            .addAttribute(String.class, a -> a.name("status")
+                    .getter(segment -> segment.getStatus() != null ? segment.getStatus().name() : null)
+                    .setter((segment, value) -> segment.setStatus(value != null ? ExportSegment.Status.valueOf(value) : null)))
+            .addAttribute(String.class, a -> a.name("pageToken")
+                    .getter(ExportSegment::getPageToken)
+                    .setter(ExportSegment::setPageToken))
+            .addAttribute(Integer.class, a -> a.name("nextPart")
+                    .getter(ExportSegment::getNextPart)
+                    .setter(ExportSegment::setNextPart))
+            .addAttribute(Long.class, a -> a.name("rows")
+                    .getter(ExportSegment::getRows)
+                    .setter(ExportSegment::setRows))
+            .addAttribute(EnhancedType.listOf(String.class), a -> a.name("files")
+                    .getter(ExportSegment::getFiles)
+                    .setter(ExportSegment::setFiles))
+            .addAttribute(String.class, a -> a.name("error")
+                    .getter(ExportSegment::getError)
+                    .setter(ExportSegment::setError))
+            .addAttribute(Long.class, a -> a.name("createdAt")
+                    .getter(ExportSegment::getCreatedAt)
+                    .setter(ExportSegment::setCreatedAt))
+            .addAttribute(Long.class, a -> a.name("updatedAt")
+                    .getter(ExportSegment::getUpdatedAt)
+                    .setter(ExportSegment::setUpdatedAt))
+            .build();
+
+    private final DynamoDbTable<ExportSegment> table;
+
+    public OrderExportRepository(DynamoDbEnhancedClient enhancedClient,
+                                 @Value("${orders.export.table-name}") String tableName) {
+        this.table = enhancedClient.table(tableName, SCHEMA);
+    }
+
+    public void save(ExportSegment segment) {
+        segment.setUpdatedAt(System.currentTimeMillis());
+        table.putItem(segment);
+    }
+
+    /**
+     * Every segment of the export, in segment order; empty if there is no such export.
+     */
+    public List<ExportSegment> findByExportId(String exportId) {
+        QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(exportId).build()))
+                .consistentRead(true)
+                .build();
+        return table.query(request).items().stream().toList();
+    }
+}
@@ -1,24 +1,99 @@
 package com.sarvesh.orderservice.repository;
 
-import org.socialsignin.spring.data.dynamodb.repository.EnableScan;
-import org.springframework.data.repository.CrudRepository;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderPage;
+import com.sarvesh.orderservice.model.OutboxEvent;
 
 /**
- * Repository interface for performing CRUD operations on Order entities stored in DynamoDB.
+ * Access to orders stored in the DynamoDB "Orders" table.
  *
  * Notes:
- * - @EnableScan is required for findAll(), but avoid it for large-scale datasets.
- * - For optimal performance, prefer key-based queries or use Global Secondary Indexes (GSIs).
+ * - Nothing here materializes the whole table: listings return one bounded page with a
+ *   continuation token, or hand each page to a callback that can discard it.
+ * - Per-customer lookups query the customerName/createdAt GSI instead of scanning.
+ * - The *Async variants don't block the calling thread; their futures complete on the
+ *   AWS SDK's threads.
  */
-@EnableScan
-public interface OrderRepository extends CrudRepository<Order, String> {
+public interface OrderRepository {
+
+    /** TransactWriteItems accepts at most 100 items per call. */
+    int MAX_TRANSACT_ITEMS = 100;
+
+    /** Each order goes into {@link #saveWithEvents} with one event, so a transaction fits 50 of them. */
+    int MAX_ORDERS_WITH_EVENTS = MAX_TRANSACT_ITEMS / 2;
+
+    /**
+     * Writes the orders and their outbox events in one TransactWriteItems call:
+     * either all of them are stored or none are.
+     *
+     * @throws software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException
+     *         if the transaction was rejected (e.g. throttled or conflicting)
+     */
+    void saveWithEvents(List<Order> orders, List<OutboxEvent> events);
 
     /**
-     * Example custom query based on customer name.
-     * Ensure 'customerName' is indexed in your DynamoDB table to use this efficiently.
+     * Sets the order's invoiceUrl and stores the event in the same transaction.
+     * Other attributes of the stored order are left untouched.
+     *
+     * @throws software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException
+     *         if the order doesn't exist (or the transaction was rejected)
      */
-    // List<Order> findByCustomerName(String customerName);
+    void attachInvoice(String orderId, String invoiceUrl, OutboxEvent event);
+
+    Optional<Order> findById(String orderId);
 
-}
\ No newline at end of file
+    /**
+     * Scans a single page of orders.
+     *
+     * @param limit     Maximum number of items to evaluate for this page
+     * @param pageToken Token returned with the previous page, or null to start from the beginning
+     */
+    OrderPage scanPage(int limit, String pageToken);
+
+    /**
+     * Scans a single page of one segment of a parallel scan. The segments together cover the
+     * table exactly once, so each can be read by its own worker.
+     *
+     * @param segment       Segment to read, 0 to totalSegments - 1
+     * @param totalSegments Number of segments the table is split into
+     * @param limit         Maximum number of items to evaluate for this page
+     * @param pageToken     Token returned with the previous page of this segment, or null to start it
+     */
+    OrderPage scanSegment(int segment, int totalSegments, int limit, String pageToken);
+
+    /**
+     * Scans the whole table page by page, handing each page to the consumer as soon
+     * as it arrives. Only one page is held in memory at a time.
+     */
+    void scanAll(int pageSize, Consumer<List<Order>> pageConsumer);
+
+    /**
+     * Queries one page of a customer's orders through the customer/createdAt GSI,
+     * optionally bounded by creation time. Results come back sorted by createdAt.
+     *
+     * Cost is proportional to the matching items, not the table size.
+     *
+     * @param customerName Customer whose orders to fetch
+     * @param from         Inclusive lower bound on createdAt, or null
+     * @param to           Inclusive upper bound on createdAt, or null
+     * @param limit        Maximum number of orders in the page
+     * @param pageToken    Token returned with the previous page, or null for the first page
+     * @param ascending    True for oldest first, false for newest first
+     */
+    OrderPage queryByCustomer(String customerName, Date from, Date to,
+                              int limit, String pageToken, boolean ascending);
+
+    CompletableFuture<Optional<Order>> findByIdAsync(String orderId);
+
+    /**
+     * Non-blocking {@link #queryByCustomer}.
+     */
+    CompletableFuture<OrderPage> queryByCustomerAsync(String customerName, Date from, Date to,
+                                                      int limit, String pageToken, boolean ascending);
+}
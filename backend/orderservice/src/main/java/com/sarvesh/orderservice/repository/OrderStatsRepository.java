@@ -0,0 +1,136 @@
+package com.sarvesh.orderservice.repository;
+
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primarySortKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import com.sarvesh.orderservice.model.OrderStatsCheckpoint;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+
+/**
+ * The order stats table: per-instance checkpoints of the running order aggregates.
+ *
+ * Keyed by aggregate (partition) and instance (sort), so all rows needed to answer for one
+ * customer or time bucket come back from a single query.
+ */
+@Repository
+public class OrderStatsRepository {
+
+    /** BatchWriteItem accepts at most 25 items per call. */
+    private static final int MAX_BATCH_SIZE = 25;
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    public static final TableSchema<OrderStatsCheckpoint> SCHEMA = StaticTableSchema.builder(OrderStatsCheckpoint.class)
+            .newItemSupplier(OrderStatsCheckpoint::new)
+            .addAttribute(String.class, a -> a.name("aggregateKey")
+                    .getter(OrderStatsCheckpoint::getAggregateKey)
+                    .setter(OrderStatsCheckpoint::setAggregateKey)
+                    .tags(primaryPartitionKey()))
+            .addAttribute(String.class, a -> a.name("instanceId")
+                    .getter(OrderStatsCheckpoint::getInstanceId)
+                    .setter(OrderStatsCheckpoint::setInstanceId)
+                    .tags(primarySortKey()))
+            .addAttribute(Long.class, a -> a.name("count")
+                    .getter(OrderStatsCheckpoint::getCount)
+                    .setter(OrderStatsCheckpoint::setCount))
+            .addAttribute(Double.class, a -> a.name("sum")
+                    .getter(OrderStatsCheckpoint::getSum)
+                    .setter(OrderStatsCheckpoint::setSum))
+            .addAttribute(Double.class, a -> a.name("min")
+                    .getter(OrderStatsCheckpoint::getMin)
+                    .setter(OrderStatsCheckpoint::setMin))
+            .addAttribute(Double.class, a -> a.name("max")
+                    .getter(OrderStatsCheckpoint::getMax)
+                    .setter(OrderStatsCheckpoint::setMax))
+            .addAttribute(SdkBytes.class, a -> a.name("histogram")
+                    .getter(OrderStatsCheckpoint::getHistogram)
+                    .setter(OrderStatsCheckpoint::setHistogram))
+            .addAttribute(Long.class, a -> a.name("updatedAt")
+                    .getter(OrderStatsCheckpoint::getUpdatedAt)
+                    .setter(OrderStatsCheckpoint::setUpdatedAt))
+            .build();
+
+    private final DynamoDbEnhancedClient enhancedClient;
+    private final DynamoDbTable<OrderStatsCheckpoint> table;
+    private final DynamoDbAsyncTable<OrderStatsCheckpoint> asyncTable;
+
+    public OrderStatsRepository(DynamoDbEnhancedClient enhancedClient,
+                                DynamoDbEnhancedAsyncClient enhancedAsyncClient,
+                                @Value("${orders.stats.table-name}") String tableName) {
+        this.enhancedClient = enhancedClient;
+        this.table = enhancedClient.table(tableName, SCHEMA);
+        this.asyncTable = enhancedAsyncClient.table(tableName, SCHEMA);
+    }
+
+    /**
+     * This instance's last checkpoint of an aggregate, if it has one.
+     */
+    public Optional<OrderStatsCheckpoint> find(String aggregateKey, String instanceId) {
+        return Optional.ofNullable(table.getItem(Key.builder()
+                .partitionValue(aggregateKey)
+                .sortValue(instanceId)
+                .build()));
+    }
+
+    /**
+     * Every instance's checkpoint of an aggregate.
+     */
+    public CompletableFuture<List<OrderStatsCheckpoint>> findAllAsync(String aggregateKey) {
+        List<OrderStatsCheckpoint> rows = new ArrayList<>();
+        return asyncTable.query(QueryConditional.keyEqualTo(Key.builder().partitionValue(aggregateKey).build()))
+                .items()
+                .subscribe(rows::add)
+                .thenApply(done -> rows);
+    }
+
+    /**
+     * Writes checkpoints in batches, retrying items DynamoDB leaves unprocessed.
+     *
+     * @return Checkpoints that could not be written
+     */
+    public List<OrderStatsCheckpoint> saveAll(List<OrderStatsCheckpoint> checkpoints) {
+        List<OrderStatsCheckpoint> failed = new ArrayList<>();
+        for (int from = 0; from < checkpoints.size(); from += MAX_BATCH_SIZE) {
+            failed.addAll(saveBatch(checkpoints.subList(from, Math.min(from + MAX_BATCH_SIZE, checkpoints.size()))));
+        }
+        return failed;
+    }
+
+    private List<OrderStatsCheckpoint> saveBatch(List<OrderStatsCheckpoint> batch) {
+        List<OrderStatsCheckpoint> pending = batch;
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            WriteBatch.Builder<OrderStatsCheckpoint> writes = WriteBatch.builder(OrderStatsCheckpoint.class)
+                    .mappedTableResource(table);
+            pending.forEach(writes::addPutItem);
+            BatchWriteResult result = enhancedClient.batchWriteItem(BatchWriteItemEnhancedRequest.builder()
+                    .writeBatches(writes.build())
+                    .build());
+
+            pending = result.unprocessedPutItemsForTable(table);
+            if (pending.isEmpty()) {
+                return List.of();
+            }
+        }
+        return pending;
+    }
+}
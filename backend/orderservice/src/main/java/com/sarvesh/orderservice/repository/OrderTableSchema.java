@@ -0,0 +1,109 @@
+package com.sarvesh.orderservice.repository;
+
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.secondaryPartitionKey;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.secondarySortKey;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Set;
+
+import com.sarvesh.orderservice.model.Order;
+
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Static mapping between {@link Order} and items in the Orders table.
+ *
+ * Built once from getter/setter method references, so the Enhanced Client does no
+ * reflection or bean introspection at runtime.
+ *
+ * Dates are stored as fixed-width ISO-8601 strings in UTC (the format the v1 DynamoDBMapper
+ * used), so existing items stay readable and createdAt sorts correctly in the customer index.
+ */
+public final class OrderTableSchema {
+
+    /** GSI keyed by customerName (partition) and createdAt (sort). */
+    public static final String CUSTOMER_CREATED_AT_INDEX = "customerName-createdAt-index";
+
+    /** Attributes of a LastEvaluatedKey from the table itself. */
+    static final Set<String> TABLE_KEY = Set.of("orderId");
+
+    /** Attributes of a LastEvaluatedKey from {@link #CUSTOMER_CREATED_AT_INDEX}: its key plus the table's. */
+    static final Set<String> CUSTOMER_CREATED_AT_INDEX_KEY = Set.of("customerName", "createdAt", "orderId");
+
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    public static final TableSchema<Order> SCHEMA = StaticTableSchema.builder(Order.class)
+            .newItemSupplier(Order::new)
+            .addAttribute(String.class, a -> a.name("orderId")
+                    .getter(Order::getOrderId)
+                    .setter(Order::setOrderId)
+                    .tags(primaryPartitionKey()))
+            .addAttribute(String.class, a -> a.name("customerName")
+                    .getter(Order::getCustomerName)
+                    .setter(Order::setCustomerName)
+                    .tags(secondaryPartitionKey(CUSTOMER_CREATED_AT_INDEX)))
+            .addAttribute(Double.class, a -> a.name("amount")
+                    .getter(Order::getAmount)
+                    .setter(Order::setAmount))
+            .addAttribute(String.class, a -> a.name("invoiceUrl")
+                    .getter(Order::getInvoiceUrl)
+                    .setter(Order::setInvoiceUrl))
+            .addAttribute(Date.class, a -> a.name("createdAt")
+                    .getter(Order::getCreatedAt)
+                    .setter(Order::setCreatedAt)
+                    .attributeConverter(new IsoDateConverter())
+                    .tags(secondarySortKey(CUSTOMER_CREATED_AT_INDEX)))
+            .build();
+
+    private OrderTableSchema() {
+    }
+
+    public static String formatDate(Date date) {
+        return DATE_FORMAT.format(date.toInstant());
+    }
+
+    public static Date parseDate(String value) {
+        try {
+            return Date.from(Instant.from(DATE_FORMAT.parse(value)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date value: " + value, e);
+        }
+    }
+
+    /**
+     * Stores {@link Date} as an ISO-8601 string attribute.
+     */
+    private static final class IsoDateConverter implements AttributeConverter<Date> {
+
+        @Override
+        public AttributeValue transformFrom(Date input) {
+            return AttributeValue.fromS(formatDate(input));
+        }
+
+        @Override
+        public Date transformTo(AttributeValue input) {
+            return parseDate(input.s());
+        }
+
+        @Override
+        public EnhancedType<Date> type() {
+            return EnhancedType.of(Date.class);
+        }
+
+        @Override
+        public AttributeValueType attributeValueType() {
+            return AttributeValueType.S;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.sarvesh.orderservice.repository;
+
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primarySortKey;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderEvent;
+import com.sarvesh.orderservice.model.OutboxEvent;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+
+/**
+ * The outbox table: order events written together with their orders, waiting to be relayed.
+ *
+ * Keyed by shard (partition) and eventId (sort), so each shard reads back in creation order
+ * and writes are spread over several partitions instead of one hot key.
+ */
+@Repository
+public class OutboxRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRepository.class);
+
+    private static final int MAX_DELETE_ATTEMPTS = 3;
+
+    public static final TableSchema<OutboxEvent> SCHEMA = StaticTableSchema.builder(OutboxEvent.class)
+            .newItemSupplier(OutboxEvent::new)
+            .addAttribute(Integer.class, a -> a.name("shard")
+                    .getter(OutboxEvent::getShard)
+                    .setter(OutboxEvent::setShard)
+                    .tags(primaryPartitionKey()))
+            .addAttribute(String.class, a -> a.name("eventId")
+                    .getter(OutboxEvent::getEventId)
+                    .setter(OutboxEvent::setEventId)
+                    .tags(primarySortKey()))
+            .addAttribute(String.class, a -> a.name("orderId")
+                    .getter(OutboxEvent::getOrderId)
+                    .setter(OutboxEvent::setOrderId))
+            .addAttribute(String.class, a -> a.name("eventType")
+                    .getter(OutboxEvent::getEventType)
+                    .setter(OutboxEvent::setEventType))
+            .addAttribute(String.class, a -> a.name("payload")
+                    .getter(OutboxEvent::getPayload)
+                    .setter(OutboxEvent::setPayload))
+            .addAttribute(String.class, a -> a.name("contentType")
+                    .getter(OutboxEvent::getContentType)
+                    .setter(OutboxEvent::setContentType))
+            .addAttribute(Integer.class, a -> a.name("schemaVersion")
+                    .getter(OutboxEvent::getSchemaVersion)
+                    .setter(OutboxEvent::setSchemaVersion))
+            .addAttribute(Long.class, a -> a.name("createdAt")
+                    .getter(OutboxEvent::getCreatedAt)
+                    .setter(OutboxEvent::setCreatedAt))
+            .build();
+
+    private final DynamoDbEnhancedClient enhancedClient;
+    private final DynamoDbTable<OutboxEvent> table;
+    private final int shards;
+
+    public OutboxRepository(DynamoDbEnhancedClient enhancedClient,
+                            @Value("${orders.outbox.table-name}") String tableName,
+                            @Value("${orders.outbox.shards}") int shards) {
+        this.enhancedClient = enhancedClient;
+        this.table = enhancedClient.table(tableName, SCHEMA);
+        this.shards = shards;
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    /**
+     * Builds an event for the order, without payload (see OrderEventCodec#encodeInto);
+     * it is stored by writing it in the same transaction as the order.
+     */
+    public OutboxEvent newEvent(String orderId, String eventType) {
+        long now = System.currentTimeMillis();
+        return event(orderId, eventType, eventId(now, UUID.randomUUID().toString()), now);
+    }
+
+    /**
+     * Builds the OrderCreated event of an order, like {@link #newEvent}. Its id is derived from
+     * the order id and the given server-side time, so an idempotent create that is redone
+     * (after a lease takeover, or when storing its response failed) overwrites the same outbox
+     * item instead of adding a second event that consumers couldn't tell apart from the first.
+     *
+     * The order's own createdAt can't be used: clients may set it, and a future or malformed
+     * time would sort the event after the order's later events.
+     *
+     * @param createdAtMillis When the create started, e.g. the idempotency reservation time;
+     *                        the same for every attempt at the same create
+     */
+    public OutboxEvent createdEvent(Order order, long createdAtMillis) {
+        return event(order.getOrderId(), OrderEvent.ORDER_CREATED, eventId(createdAtMillis, order.getOrderId()),
+                System.currentTimeMillis());
+    }
+
+    private OutboxEvent event(String orderId, String eventType, String eventId, long now) {
+        OutboxEvent event = new OutboxEvent();
+        event.setShard(Math.floorMod(orderId.hashCode(), shards));
+        event.setEventId(eventId);
+        event.setOrderId(orderId);
+        event.setEventType(eventType);
+        event.setCreatedAt(now);
+        return event;
+    }
+
+    private static String eventId(long timeMillis, String suffix) {
+        // Zero-padded so string order matches time order
+        return String.format("%013d#%s", timeMillis, suffix);
+    }
+
+    /**
+     * Oldest events in a shard, in creation order.
+     */
+    public List<OutboxEvent> head(int shard, int limit) {
+        QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(shard).build()))
+                .scanIndexForward(true)
+                .limit(limit)
+                .build();
+        return table.query(request).iterator().next().items();
+    }
+
+    /**
+     * Removes relayed events, retrying items DynamoDB leaves unprocessed.
+     * Events that can't be removed stay in the outbox and are published again later.
+     */
+    public void delete(List<OutboxEvent> events) {
+        List<OutboxEvent> pending = events;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            WriteBatch.Builder<OutboxEvent> batch = WriteBatch.builder(OutboxEvent.class).mappedTableResource(table);
+            pending.forEach(event -> batch.addDeleteItem(key(event)));
+            BatchWriteResult result = enhancedClient.batchWriteItem(BatchWriteItemEnhancedRequest.builder()
+                    .writeBatches(batch.build())
+                    .build());
+
+            List<Key> unprocessed = result.unprocessedDeleteItemsForTable(table);
+            if (unprocessed.isEmpty()) {
+                return;
+            }
+            if (attempt >= MAX_DELETE_ATTEMPTS) {
+                logger.warn("{} relayed outbox events not deleted; they will be published again", unprocessed.size());
+                return;
+            }
+            pending = pending.stream().filter(event -> unprocessed.contains(key(event))).toList();
+        }
+    }
+
+    DynamoDbTable<OutboxEvent> table() {
+        return table;
+    }
+
+    private static Key key(OutboxEvent event) {
+        return Key.builder().partitionValue(event.getShard()).sortValue(event.getEventId()).build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.sarvesh.orderservice.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Encodes DynamoDB LastEvaluatedKey maps as opaque, URL-safe continuation tokens
+ * and decodes them back into ExclusiveStartKey maps.
+ *
+ * Only string key attributes are supported, which covers every key on the Orders table.
+ * A token only decodes for the listing it came from: a scan token carries the table key,
+ * an index query token the index key as well, and DynamoDB rejects a start key of the
+ * wrong shape with a ValidationException.
+ */
+public final class PageTokenCodec {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> MAP_TYPE = new TypeReference<>() {};
+
+    private PageTokenCodec() {
+    }
+
+    public static String encode(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        Map<String, String> plain = new HashMap<>();
+        lastEvaluatedKey.forEach((name, value) -> plain.put(name, value.s()));
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(plain);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode page token", e);
+        }
+    }
+
+    /**
+     * @param keyAttributes Names of the key attributes of the table or index being read
+     * @throws InvalidPageTokenException if the token wasn't produced by {@link #encode}, or
+     *         holds a key other than one with exactly {@code keyAttributes}
+     */
+    public static Map<String, AttributeValue> decode(String token, Set<String> keyAttributes) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        Map<String, String> plain;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(token);
+            plain = MAPPER.readValue(new String(json, StandardCharsets.UTF_8), MAP_TYPE);
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            throw new InvalidPageTokenException("Invalid page token", e);
+        }
+        if (plain == null || !plain.keySet().equals(keyAttributes)
+                || plain.values().stream().anyMatch(value -> value == null || value.isEmpty())) {
+            throw new InvalidPageTokenException("Page token doesn't belong to this listing");
+        }
+        Map<String, AttributeValue> key = new HashMap<>();
+        plain.forEach((name, value) -> key.put(name, AttributeValue.fromS(value)));
+        return key;
+    }
+}
@@ -0,0 +1,98 @@
+package com.sarvesh.orderservice.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit of one dependency that adapts to how the dependency is doing (AIMD).
+ *
+ * A call sample that comes back throttled, timed out or slower than the latency target cuts
+ * the limit by the backoff ratio, at most once per window: after a cut, the next limit's worth
+ * of samples (counted at the old limit) can't cut again. Those are mostly calls that were
+ * already in flight when the dependency slowed down, so a burst of them reports one overload,
+ * not one each. Every healthy sample while the limit is at least half used adds 1/limit, so it
+ * grows by about one per limit's worth of calls. The limit, the in-flight count and the window
+ * are atomics; acquiring is a compare-and-set loop, never a lock.
+ */
+public final class AdaptiveLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+
+    private final AtomicLong limitBits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong samples = new AtomicLong();
+    /** Number of the first sample allowed to cut the limit again. */
+    private final AtomicLong nextDecrease = new AtomicLong();
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos, double backoffRatio) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.backoffRatio = backoffRatio;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    }
+
+    /**
+     * Takes a slot if fewer calls than the limit are in flight. Pair with {@link #release}.
+     */
+    public boolean tryAcquire() {
+        int limit = limit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Adjusts the limit after a call to the dependency.
+     *
+     * @param overloaded Whether the dependency throttled or timed out the call
+     */
+    public void onSample(long latencyNanos, boolean overloaded) {
+        long sample = samples.incrementAndGet();
+        if (overloaded || latencyNanos > latencyTargetNanos) {
+            long allowedFrom = nextDecrease.get();
+            // Only one of the samples racing for a window wins it and cuts the limit
+            if (sample >= allowedFrom
+                    && nextDecrease.compareAndSet(allowedFrom, sample + (long) Math.ceil(limitValue()))) {
+                limitBits.updateAndGet(bits -> Double.doubleToLongBits(
+                        Math.max(minLimit, Double.longBitsToDouble(bits) * backoffRatio)));
+            }
+        } else if (inFlight.get() * 2 >= limit()) {
+            limitBits.updateAndGet(bits -> {
+                double limit = Double.longBitsToDouble(bits);
+                return Double.doubleToLongBits(Math.min(maxLimit, limit + 1 / limit));
+            });
+        }
+    }
+
+    public int limit() {
+        return (int) limitValue();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private double limitValue() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+}
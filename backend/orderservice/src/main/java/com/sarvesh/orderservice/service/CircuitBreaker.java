@@ -0,0 +1,179 @@
+package com.sarvesh.orderservice.service;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Circuit breaker over the outcomes of the last {@code windowSize} calls to one dependency.
+ *
+ * - CLOSED: calls go through. Once at least {@code minimumCalls} are in the window and the
+ *   share of failures reaches {@code failureRateThreshold}, the breaker opens.
+ * - OPEN: calls are refused at once for {@code openDuration}, then the breaker half-opens.
+ * - HALF_OPEN: {@code halfOpenCalls} trial calls go through; if they all succeed the breaker
+ *   closes with an empty window, the first failure opens it again.
+ *
+ * Thread-safe; every method locks the breaker for a few field updates only.
+ *
+ * Metrics: resilience.circuit.state gauge (0 closed, 1 open, 2 half-open) and
+ * resilience.circuit.transitions counter (tagged by the state entered), both tagged by dependency.
+ */
+public final class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    // Ring buffer of recent outcomes (true = failed)
+    private final boolean[] window;
+    private int next;
+    private int calls;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    private final Counter toClosed;
+    private final Counter toOpen;
+    private final Counter toHalfOpen;
+
+    public CircuitBreaker(String name, MeterRegistry meterRegistry, int windowSize, int minimumCalls,
+                          double failureRateThreshold, Duration openDuration, int halfOpenCalls) {
+        this(name, meterRegistry, windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, MeterRegistry meterRegistry, int windowSize, int minimumCalls,
+                   double failureRateThreshold, Duration openDuration, int halfOpenCalls, LongSupplier clock) {
+        if (minimumCalls < 1 || minimumCalls > windowSize || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Circuit breaker needs 1 <= minimum-calls <= window and at least 1 half-open call");
+        }
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+
+        Gauge.builder("resilience.circuit.state", this, breaker -> breaker.state().ordinal())
+                .tag("dependency", name)
+                .register(meterRegistry);
+        this.toClosed = transitions(meterRegistry, name, State.CLOSED);
+        this.toOpen = transitions(meterRegistry, name, State.OPEN);
+        this.toHalfOpen = transitions(meterRegistry, name, State.HALF_OPEN);
+    }
+
+    private static Counter transitions(MeterRegistry meterRegistry, String name, State to) {
+        return Counter.builder("resilience.circuit.transitions")
+                .tag("dependency", name)
+                .tag("state", to.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a call may go through now. Every permitted call must be followed by
+     * {@link #onSuccess}, {@link #onFailure} or {@link #onIgnored}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++trialsSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && calls >= minimumCalls && failures >= failureRateThreshold * calls) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * Gives back a permit whose call never reached the dependency (e.g. it was refused by the
+     * bulkhead), so it counts neither way.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && trialsStarted > trialsSucceeded) {
+            trialsStarted--;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (calls == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void transitionTo(State newState) {
+        logger.warn("Circuit breaker {}: {} -> {}", name, state, newState);
+        state = newState;
+        switch (newState) {
+            case OPEN -> {
+                openedAt = clock.getAsLong();
+                toOpen.increment();
+            }
+            case HALF_OPEN -> {
+                trialsStarted = 0;
+                trialsSucceeded = 0;
+                toHalfOpen.increment();
+            }
+            case CLOSED -> {
+                calls = 0;
+                failures = 0;
+                next = 0;
+                toClosed.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.sarvesh.orderservice.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Token bucket per client (API key or IP): {@code rate} requests per second on average,
+ * with bursts of up to {@code burst} requests.
+ *
+ * Each bucket is a single AtomicLong holding the time at which it would be full again (the
+ * generic cell rate algorithm, which admits exactly what a token bucket admits). Taking a
+ * token is one compare-and-set, so clients never contend on a lock. Idle buckets are evicted;
+ * a client that comes back starts with a full bucket, as it would have anyway.
+ */
+@Service
+public class ClientRateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final Cache<String, AtomicLong> buckets;
+
+    public ClientRateLimiter(@Value("${orders.admission.rate-limit.requests-per-second}") double rate,
+                             @Value("${orders.admission.rate-limit.burst}") int burst,
+                             @Value("${orders.admission.rate-limit.max-clients}") long maxClients) {
+        this(rate, burst, maxClients, System::nanoTime);
+    }
+
+    ClientRateLimiter(double rate, int burst, long maxClients, LongSupplier clock) {
+        if (rate <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit needs a positive rate and a burst of at least 1");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        this.burstNanos = intervalNanos * (burst - 1);
+        this.clock = clock;
+        // A bucket idle for longer than it takes to refill is full; forgetting it changes nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(burstNanos + intervalNanos))
+                .build();
+    }
+
+    /**
+     * Takes a token from the client's bucket.
+     *
+     * @return 0 if the request is admitted, otherwise nanoseconds until the next token
+     */
+    public long tryAcquire(String client) {
+        AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(clock.getAsLong()));
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long admitFrom = current - burstNanos;
+            if (now < admitFrom) {
+                return admitFrom - now;
+            }
+            if (fullAt.compareAndSet(current, Math.max(current, now) + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
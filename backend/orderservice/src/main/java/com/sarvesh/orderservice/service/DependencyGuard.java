@@ -0,0 +1,249 @@
+package com.sarvesh.orderservice.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+/**
+ * Isolates the calls to one dependency: a circuit breaker in front of a bulkhead.
+ *
+ * - Calls are refused at once while the {@link CircuitBreaker} is open.
+ * - Blocking calls run on the dependency's own executor, a fixed number of threads with a
+ *   bounded queue; when both are full the call is refused instead of taking a request thread.
+ * - Callers wait at most {@code timeout}; the call is then interrupted and counts as failed.
+ *
+ * Only failures that say something about the dependency's health trip the breaker: I/O and
+ * SDK client errors (timeouts, connection failures), 5xx responses and throttling. Request
+ * errors such as a failed condition check or a missing key are passed on but don't count.
+ *
+ * Refused calls throw {@link DependencyUnavailableException}.
+ *
+ * Metrics: resilience.calls.rejected counter, tagged by dependency and reason
+ * (circuit-open, bulkhead-full, timeout).
+ */
+public final class DependencyGuard {
+
+    /** Blocking call that may fail with an IOException, e.g. reading the upload. */
+    @FunctionalInterface
+    public interface IoCall<T> {
+        T call() throws IOException;
+    }
+
+    private final String name;
+    private final CircuitBreaker breaker;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    private final Counter circuitOpen;
+    private final Counter bulkheadFull;
+    private final Counter timedOut;
+
+    public DependencyGuard(String name, CircuitBreaker breaker, int threads, int queueCapacity, Duration timeout,
+                           MeterRegistry meterRegistry) {
+        this.name = name;
+        this.breaker = breaker;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name(name + "-bulkhead-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.circuitOpen = rejected(meterRegistry, "circuit-open");
+        this.bulkheadFull = rejected(meterRegistry, "bulkhead-full");
+        this.timedOut = rejected(meterRegistry, "timeout");
+    }
+
+    private Counter rejected(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("resilience.calls.rejected")
+                .tag("dependency", name)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a blocking call on the bulkhead and waits for it, at most the timeout.
+     *
+     * @throws DependencyUnavailableException If the call was refused or timed out
+     * @throws IOException                    If the call itself failed with one
+     */
+    public <T> T call(IoCall<T> call) throws IOException {
+        if (!breaker.tryAcquire()) {
+            circuitOpen.increment();
+            throw new DependencyUnavailableException(name, "circuit open", null);
+        }
+
+        // Whoever finishes first reports the outcome: the call, or the caller giving up on it
+        AtomicBoolean reported = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    T result = call.call();
+                    report(reported, null);
+                    return result;
+                } catch (Throwable e) {
+                    report(reported, e);
+                    throw e;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Never ran: the dependency is busy, not failing, so the breaker doesn't count it
+            breaker.onIgnored();
+            bulkheadFull.increment();
+            throw new DependencyUnavailableException(name, "bulkhead full", e);
+        }
+
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            report(reported, e);
+            future.cancel(true);
+            timedOut.increment();
+            throw new DependencyUnavailableException(name, "timed out after " + timeout, e);
+        } catch (InterruptedException e) {
+            if (reported.compareAndSet(false, true)) {
+                breaker.onIgnored();
+            }
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new DependencyUnavailableException(name, "interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * {@link #call} for calls that don't throw IOException.
+     */
+    public <T> T get(Supplier<T> call) {
+        try {
+            return call(call::get);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Guards a long-running blocking call whose duration is set by the caller, such as an
+     * upload fed from a stream while it is being produced. It runs on the calling thread and
+     * only the breaker applies; the bulkhead and the timeout are sized for single requests.
+     */
+    public <T> T callInline(IoCall<T> call) throws IOException {
+        if (!breaker.tryAcquire()) {
+            circuitOpen.increment();
+            throw new DependencyUnavailableException(name, "circuit open", null);
+        }
+        try {
+            T result = call.call();
+            breaker.onSuccess();
+            return result;
+        } catch (IOException | RuntimeException | Error e) {
+            onError(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Guards a non-blocking call: no bulkhead (it holds no thread while waiting), but the
+     * breaker and the timeout apply. Refusals complete the future exceptionally.
+     */
+    public <T> CompletableFuture<T> async(Supplier<CompletableFuture<T>> call) {
+        if (!breaker.tryAcquire()) {
+            circuitOpen.increment();
+            return CompletableFuture.failedFuture(new DependencyUnavailableException(name, "circuit open", null));
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            onError(e);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS).whenComplete((value, error) -> {
+            if (error == null) {
+                breaker.onSuccess();
+                result.complete(value);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            onError(cause);
+            if (cause instanceof TimeoutException) {
+                timedOut.increment();
+                result.completeExceptionally(new DependencyUnavailableException(name, "timed out after " + timeout, cause));
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+        return result;
+    }
+
+    public CircuitBreaker.State state() {
+        return breaker.state();
+    }
+
+    int queued() {
+        return executor.getQueue().size();
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void report(AtomicBoolean reported, Throwable error) {
+        if (!reported.compareAndSet(false, true)) {
+            return;
+        }
+        if (error == null) {
+            breaker.onSuccess();
+        } else {
+            onError(error);
+        }
+    }
+
+    private void onError(Throwable error) {
+        if (isDependencyFailure(error)) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    static boolean isDependencyFailure(Throwable error) {
+        if (error instanceof SdkServiceException service) {
+            return service.statusCode() >= 500 || service.isThrottlingException();
+        }
+        return error instanceof IOException
+                || error instanceof SdkClientException
+                || error instanceof TimeoutException
+                || error instanceof InterruptedException;
+    }
+}
@@ -0,0 +1,69 @@
+package com.sarvesh.orderservice.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * One {@link DependencyGuard} per AWS dependency, so that a slow or failing S3, SNS or
+ * DynamoDB only uses up its own threads and fails fast on its own, without taking the
+ * request threads (and with them the other dependencies) down too.
+ *
+ * Breaker settings are shared; bulkhead sizes and timeouts are per dependency.
+ */
+@Service
+public class DependencyGuards {
+
+    private final DependencyGuard s3;
+    private final DependencyGuard dynamoDb;
+    private final DependencyGuard sns;
+
+    public DependencyGuards(MeterRegistry meterRegistry,
+                            @Value("${orders.resilience.s3.threads}") int s3Threads,
+                            @Value("${orders.resilience.s3.queue}") int s3Queue,
+                            @Value("${orders.resilience.s3.timeout}") Duration s3Timeout,
+                            @Value("${orders.resilience.dynamodb.threads}") int dynamoDbThreads,
+                            @Value("${orders.resilience.dynamodb.queue}") int dynamoDbQueue,
+                            @Value("${orders.resilience.dynamodb.timeout}") Duration dynamoDbTimeout,
+                            @Value("${orders.resilience.sns.threads}") int snsThreads,
+                            @Value("${orders.resilience.sns.queue}") int snsQueue,
+                            @Value("${orders.resilience.sns.timeout}") Duration snsTimeout,
+                            @Value("${orders.resilience.breaker.window}") int window,
+                            @Value("${orders.resilience.breaker.minimum-calls}") int minimumCalls,
+                            @Value("${orders.resilience.breaker.failure-rate}") double failureRate,
+                            @Value("${orders.resilience.breaker.open-duration}") Duration openDuration,
+                            @Value("${orders.resilience.breaker.half-open-calls}") int halfOpenCalls) {
+        this.s3 = new DependencyGuard("s3",
+                new CircuitBreaker("s3", meterRegistry, window, minimumCalls, failureRate, openDuration, halfOpenCalls),
+                s3Threads, s3Queue, s3Timeout, meterRegistry);
+        this.dynamoDb = new DependencyGuard("dynamodb",
+                new CircuitBreaker("dynamodb", meterRegistry, window, minimumCalls, failureRate, openDuration, halfOpenCalls),
+                dynamoDbThreads, dynamoDbQueue, dynamoDbTimeout, meterRegistry);
+        this.sns = new DependencyGuard("sns",
+                new CircuitBreaker("sns", meterRegistry, window, minimumCalls, failureRate, openDuration, halfOpenCalls),
+                snsThreads, snsQueue, snsTimeout, meterRegistry);
+    }
+
+    public DependencyGuard s3() {
+        return s3;
+    }
+
+    public DependencyGuard dynamoDb() {
+        return dynamoDb;
+    }
+
+    public DependencyGuard sns() {
+        return sns;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        s3.shutdown();
+        dynamoDb.shutdown();
+        sns.shutdown();
+    }
+}
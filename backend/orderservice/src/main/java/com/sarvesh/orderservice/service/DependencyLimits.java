@@ -0,0 +1,149 @@
+package com.sarvesh.orderservice.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+/**
+ * Adaptive concurrency limits for the dependencies requests wait on: DynamoDB and S3.
+ *
+ * Requests take a slot per dependency they use before they run (see the admission control
+ * filter), so when a dependency slows down or throttles, its limit shrinks and requests that
+ * need it are turned away at once instead of piling up on blocked threads. The limits learn
+ * from the AWS SDK calls that serve those requests, fed in by the metrics interceptor:
+ * single-item reads and writes and queries on the order, idempotency and invoice-ref tables,
+ * and invoice uploads other than their parts. Background work (export scans and files, outbox
+ * relay queries, stats checkpoints, bulk transactions, multipart parts) has latencies of its
+ * own and is left out, so it can't cut the limits of the requests it doesn't slow down.
+ *
+ * SNS is only called by the outbox relay, off the request path, so it has no limit here.
+ *
+ * Metrics: orders.admission.limit and orders.admission.in-flight gauges, tagged by dependency.
+ */
+@Service
+public class DependencyLimits {
+
+    public enum Dependency { DYNAMODB, S3 }
+
+    /** AWS error codes (and SDK exception names) that mean the dependency is overloaded. */
+    private static final Set<String> OVERLOAD_ERRORS = Set.of(
+            "ThrottlingException", "Throttling", "ThrottledException", "RequestThrottled",
+            "RequestLimitExceeded", "ProvisionedThroughputExceededException", "TooManyRequestsException",
+            "SlowDown", "ServiceUnavailable", "ApiCallTimeoutException", "ApiCallAttemptTimeoutException");
+
+    /** One order written together with its event; bigger transactions are bulk writes. */
+    private static final int MAX_REQUEST_TRANSACT_ITEMS = 2;
+
+    private final Map<Dependency, AdaptiveLimit> limits = new EnumMap<>(Dependency.class);
+    private final Set<String> requestTables;
+    private final String exportPrefix;
+
+    public DependencyLimits(MeterRegistry meterRegistry,
+                            @Value("${aws.dynamodb.tableName}") String ordersTable,
+                            @Value("${orders.idempotency.table-name}") String idempotencyTable,
+                            @Value("${orders.invoice.refs.table-name}") String invoiceRefsTable,
+                            @Value("${orders.export.prefix}") String exportPrefix,
+                            @Value("${orders.admission.dynamodb.initial-limit}") int dynamoDbInitial,
+                            @Value("${orders.admission.dynamodb.max-limit}") int dynamoDbMax,
+                            @Value("${orders.admission.dynamodb.latency-target}") Duration dynamoDbTarget,
+                            @Value("${orders.admission.s3.initial-limit}") int s3Initial,
+                            @Value("${orders.admission.s3.max-limit}") int s3Max,
+                            @Value("${orders.admission.s3.latency-target}") Duration s3Target,
+                            @Value("${orders.admission.min-limit}") int minLimit,
+                            @Value("${orders.admission.backoff-ratio}") double backoffRatio) {
+        this.requestTables = Set.of(ordersTable, idempotencyTable, invoiceRefsTable);
+        this.exportPrefix = exportPrefix;
+        limits.put(Dependency.DYNAMODB, new AdaptiveLimit(dynamoDbInitial, minLimit, dynamoDbMax, dynamoDbTarget.toNanos(), backoffRatio));
+        limits.put(Dependency.S3, new AdaptiveLimit(s3Initial, minLimit, s3Max, s3Target.toNanos(), backoffRatio));
+
+        limits.forEach((dependency, limit) -> {
+            String tag = dependency.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("orders.admission.limit", limit, AdaptiveLimit::limit).tag("dependency", tag).register(meterRegistry);
+            Gauge.builder("orders.admission.in-flight", limit, AdaptiveLimit::inFlight).tag("dependency", tag).register(meterRegistry);
+        });
+    }
+
+    /**
+     * Takes a slot of every given dependency, or none of them.
+     *
+     * @return null if all slots were taken, otherwise the first dependency that is at its limit
+     */
+    public Dependency tryAcquire(Collection<Dependency> dependencies) {
+        List<Dependency> acquired = new ArrayList<>(dependencies.size());
+        for (Dependency dependency : dependencies) {
+            if (!limits.get(dependency).tryAcquire()) {
+                release(acquired);
+                return dependency;
+            }
+            acquired.add(dependency);
+        }
+        return null;
+    }
+
+    public void release(Collection<Dependency> dependencies) {
+        dependencies.forEach(dependency -> limits.get(dependency).release());
+    }
+
+    /**
+     * Feeds one AWS SDK call into the limit of its dependency, if it is a call made to serve a
+     * request; other calls are ignored.
+     *
+     * @param request   The SDK request of the call
+     * @param errorCode AWS error code or exception name of a failed call, null on success
+     */
+    public void onCall(SdkRequest request, long latencyNanos, String errorCode) {
+        Dependency dependency = requestPathDependency(request);
+        if (dependency != null) {
+            limits.get(dependency).onSample(latencyNanos, errorCode != null && OVERLOAD_ERRORS.contains(errorCode));
+        }
+    }
+
+    private Dependency requestPathDependency(SdkRequest request) {
+        boolean dynamoDb = switch (request) {
+            case GetItemRequest r -> requestTables.contains(r.tableName());
+            case PutItemRequest r -> requestTables.contains(r.tableName());
+            case UpdateItemRequest r -> requestTables.contains(r.tableName());
+            case DeleteItemRequest r -> requestTables.contains(r.tableName());
+            case QueryRequest r -> requestTables.contains(r.tableName());
+            case TransactWriteItemsRequest r -> r.transactItems().size() <= MAX_REQUEST_TRANSACT_ITEMS;
+            default -> false;
+        };
+        if (dynamoDb) {
+            return Dependency.DYNAMODB;
+        }
+        boolean s3 = switch (request) {
+            case HeadObjectRequest r -> !r.key().startsWith(exportPrefix);
+            case PutObjectRequest r -> !r.key().startsWith(exportPrefix);
+            case CreateMultipartUploadRequest r -> !r.key().startsWith(exportPrefix);
+            case CompleteMultipartUploadRequest r -> !r.key().startsWith(exportPrefix);
+            default -> false;
+        };
+        return s3 ? Dependency.S3 : null;
+    }
+
+    AdaptiveLimit limit(Dependency dependency) {
+        return limits.get(dependency);
+    }
+}
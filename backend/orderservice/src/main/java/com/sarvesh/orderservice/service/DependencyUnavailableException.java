@@ -0,0 +1,25 @@
+package com.sarvesh.orderservice.service;
+
+/**
+ * Thrown instead of calling a dependency that is failing (circuit open), overloaded
+ * (bulkhead full), or that did not answer within its timeout.
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+    private final String dependency;
+    private final String reason;
+
+    public DependencyUnavailableException(String dependency, String reason, Throwable cause) {
+        super(dependency + " unavailable: " + reason, cause);
+        this.dependency = dependency;
+        this.reason = reason;
+    }
+
+    public String getDependency() {
+        return dependency;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
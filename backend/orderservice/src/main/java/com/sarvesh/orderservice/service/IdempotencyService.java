@@ -0,0 +1,239 @@
+package com.sarvesh.orderservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sarvesh.orderservice.model.IdempotencyRecord;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.repository.IdempotencyRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Tracks Idempotency-Key headers so a retried create returns the original order
+ * instead of creating a duplicate.
+ *
+ * How it works:
+ * - A bounded in-memory table of recent keys answers most retries (which tend to arrive
+ *   on the same instance within seconds) without touching DynamoDB.
+ * - Otherwise the key is reserved with a conditional put in DynamoDB. Exactly one request
+ *   wins; it gets a fresh order id and creates the order.
+ * - When the order is created, the response is stored with the key and replayed for every
+ *   later request with the same key. On failure the key is released so the client can retry.
+ * - A reservation whose owner died is taken over after the lease expires, keeping the same
+ *   order id and creation time, so a half-finished create is redone rather than duplicated
+ *   (and writes the same OrderCreated event again, see OutboxRepository#createdEvent).
+ * - Keys expire after the configured TTL (DynamoDB TTL removes them).
+ *
+ * DynamoDB calls go through the DynamoDB {@link DependencyGuard}.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    /** Upper bound on accepted key length, to keep items and cache entries small. */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    public enum Outcome {
+        /** The caller owns the key and should create the order with {@link Reservation#orderId()}. */
+        ACQUIRED,
+        /** The order was already created; {@link Reservation#order()} is the original response. */
+        REPLAYED,
+        /** Another request with this key is still being processed. */
+        IN_PROGRESS,
+        /** The key was used before for a different request. */
+        KEY_REUSED
+    }
+
+    /**
+     * Result of {@link #reserve}. {@code createdAt} is set for ACQUIRED: the creation time to
+     * give the order, the same for every attempt under the key. {@code order} is set for
+     * REPLAYED; callers that go on to create the order return it with the ACQUIRED
+     * reservation via {@link #withOrder}.
+     */
+    public record Reservation(Outcome outcome, String orderId, Date createdAt, Order order) {
+
+        public Reservation withOrder(Order created) {
+            return new Reservation(outcome, orderId, createdAt, created);
+        }
+    }
+
+    private final IdempotencyRepository repository;
+    private final DependencyGuard dynamoDb;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, IdempotencyRecord> recentKeys;
+    private final long ttlSeconds;
+    private final long leaseMillis;
+
+    public IdempotencyService(IdempotencyRepository repository,
+                              DependencyGuards guards,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${orders.idempotency.ttl}") Duration ttl,
+                              @Value("${orders.idempotency.lease}") Duration lease,
+                              @Value("${orders.idempotency.cache.max-size}") long cacheMaxSize,
+                              @Value("${orders.idempotency.cache.ttl}") Duration cacheTtl) {
+        this.repository = repository;
+        this.dynamoDb = guards.dynamoDb();
+        this.objectMapper = objectMapper;
+        this.ttlSeconds = ttl.toSeconds();
+        this.leaseMillis = lease.toMillis();
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, recentKeys, "idempotency-keys");
+    }
+
+    /**
+     * Claims the key for this request, or reports what already happened under it.
+     *
+     * @param idempotencyKey Key from the Idempotency-Key header
+     * @param requestHash    Fingerprint of the request, see {@link #fingerprint}
+     */
+    public Reservation reserve(String idempotencyKey, String requestHash) {
+        IdempotencyRecord recent = recentKeys.getIfPresent(idempotencyKey);
+        if (recent != null) {
+            return existing(recent, requestHash);
+        }
+
+        long now = System.currentTimeMillis();
+        IdempotencyRecord record = newRecord(idempotencyKey, requestHash, UUID.randomUUID().toString(), now, now);
+        if (dynamoDb.get(() -> repository.tryReserve(record, now))) {
+            recentKeys.put(idempotencyKey, record);
+            return new Reservation(Outcome.ACQUIRED, record.getOrderId(), new Date(now), null);
+        }
+
+        Optional<IdempotencyRecord> stored = dynamoDb.get(() -> repository.find(idempotencyKey));
+        if (stored.isEmpty()) {
+            // Released between our put and read; the client may simply retry
+            return new Reservation(Outcome.IN_PROGRESS, null, null, null);
+        }
+        IdempotencyRecord current = stored.get();
+
+        if (current.getStatus() == IdempotencyRecord.Status.IN_PROGRESS
+                && current.getLockedUntil() != null && current.getLockedUntil() < now
+                && requestHash.equals(current.getRequestHash())) {
+            // Previous owner gave up or died: redo the create under the same order id and time
+            long createdAt = current.getCreatedAt() != null ? current.getCreatedAt() : now;
+            IdempotencyRecord takeover = newRecord(idempotencyKey, requestHash, current.getOrderId(), createdAt, now);
+            if (dynamoDb.get(() -> repository.tryTakeOver(takeover, current.getLockedUntil()))) {
+                logger.warn("Took over abandoned idempotency key {} for order {}", idempotencyKey, current.getOrderId());
+                recentKeys.put(idempotencyKey, takeover);
+                return new Reservation(Outcome.ACQUIRED, takeover.getOrderId(), new Date(createdAt), null);
+            }
+            return new Reservation(Outcome.IN_PROGRESS, null, null, null);
+        }
+
+        if (current.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+            recentKeys.put(idempotencyKey, current);
+        }
+        return existing(current, requestHash);
+    }
+
+    /**
+     * Stores the created order as the response for the key.
+     */
+    public void complete(String idempotencyKey, String requestHash, Order order) {
+        long now = System.currentTimeMillis();
+        IdempotencyRecord record = newRecord(idempotencyKey, requestHash, order.getOrderId(),
+                order.getCreatedAt() != null ? order.getCreatedAt().getTime() : now, now);
+        record.setStatus(IdempotencyRecord.Status.COMPLETED);
+        record.setLockedUntil(null);
+        try {
+            record.setResponseBody(objectMapper.writeValueAsString(order));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize order " + order.getOrderId(), e);
+        }
+
+        recentKeys.put(idempotencyKey, record);
+        try {
+            dynamoDb.get(() -> {
+                repository.save(record);
+                return null;
+            });
+        } catch (Exception e) {
+            // The order exists; retries on other instances will take over after the lease and rewrite it
+            logger.error("Failed to store response for idempotency key {}", idempotencyKey, e);
+        }
+    }
+
+    /**
+     * Frees the key after a failed create, so a retry can try again.
+     */
+    public void release(String idempotencyKey) {
+        recentKeys.invalidate(idempotencyKey);
+        try {
+            dynamoDb.get(() -> {
+                repository.delete(idempotencyKey);
+                return null;
+            });
+        } catch (Exception e) {
+            logger.error("Failed to release idempotency key {}; it frees up when its lease expires", idempotencyKey, e);
+        }
+    }
+
+    /**
+     * SHA-256 over the fields that define an order request, so a key reused for a different
+     * order can be told apart from a genuine retry.
+     */
+    public static String fingerprint(Order order, String invoiceName, long invoiceSize) {
+        String canonical = order.getCustomerName() + '\n' + order.getAmount() + '\n'
+                + (order.getCreatedAt() != null ? order.getCreatedAt().getTime() : "") + '\n'
+                + invoiceName + '\n' + invoiceSize;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Reservation existing(IdempotencyRecord record, String requestHash) {
+        if (!requestHash.equals(record.getRequestHash())) {
+            return new Reservation(Outcome.KEY_REUSED, record.getOrderId(), null, null);
+        }
+        if (record.getStatus() != IdempotencyRecord.Status.COMPLETED) {
+            return new Reservation(Outcome.IN_PROGRESS, record.getOrderId(), null, null);
+        }
+        try {
+            Order order = objectMapper.readValue(record.getResponseBody(), Order.class);
+            return new Reservation(Outcome.REPLAYED, order.getOrderId(), null, order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for idempotency key is unreadable", e);
+        }
+    }
+
+    private IdempotencyRecord newRecord(String idempotencyKey, String requestHash, String orderId, long createdAt,
+                                        long nowMillis) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey(idempotencyKey);
+        record.setRequestHash(requestHash);
+        record.setStatus(IdempotencyRecord.Status.IN_PROGRESS);
+        record.setOrderId(orderId);
+        record.setCreatedAt(createdAt);
+        record.setLockedUntil(nowMillis + leaseMillis);
+        record.setExpiresAt(TimeUnit.MILLISECONDS.toSeconds(nowMillis) + ttlSeconds);
+        return record;
+    }
+}
@@ -0,0 +1,135 @@
+package com.sarvesh.orderservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+/**
+ * Hands out presigned GET URLs for invoices, so downloads go straight from S3 to the client.
+ *
+ * - Signed URLs are cached per S3 key and reused until {@code refresh-margin} before they
+ *   expire, so a redirect always leaves the client at least that long to follow it.
+ * - Only keys this service issues are signed: content keys (blobs/sha256/{hash}, see
+ *   {@link S3Service#uploadFile}) and the order's own presigned-upload keys
+ *   (invoices/{orderId}/..., see {@link InvoiceUploadService}). Anything else in the bucket,
+ *   such as exports or another order's uploads, is refused.
+ * - A content key names its bytes and S3 checks them against it on upload, so such an object
+ *   never changes, even though several orders may share it: its ETag is derived from the key
+ *   without asking S3, and S3's response may be cached as immutable.
+ * - An upload key can still be overwritten through its presigned PUT URL until that expires,
+ *   so it gets no ETag of ours and S3's response must be revalidated.
+ * - Range and conditional requests are answered by S3 itself, on the presigned URL.
+ * - Cache counts are published as "cache.*" metrics tagged cache=invoice-urls.
+ */
+@Service
+public class InvoiceDownloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceDownloadService.class);
+
+    /**
+     * A signed invoice URL.
+     *
+     * @param url       Presigned GET URL
+     * @param expiresAt When S3 stops accepting the URL
+     * @param eTag      Quoted entity tag of the invoice, or null if its content may still change
+     */
+    public record PresignedInvoice(String url, Instant expiresAt, String eTag) {
+
+        /**
+         * Seconds a client may reuse this URL while keeping the refresh margin.
+         */
+        public long maxAgeSeconds(Duration refreshMargin) {
+            return Math.max(0, Duration.between(Instant.now(), expiresAt.minus(refreshMargin)).toSeconds());
+        }
+    }
+
+    private final S3Presigner presigner;
+    private final String bucketName;
+    private final Duration urlTtl;
+    private final Duration refreshMargin;
+    private final Cache<String, PresignedInvoice> cache;
+
+    public InvoiceDownloadService(S3Presigner presigner,
+                                  @Value("${aws.s3.bucket}") String bucketName,
+                                  @Value("${orders.invoice.download.url-ttl}") Duration urlTtl,
+                                  @Value("${orders.invoice.download.refresh-margin}") Duration refreshMargin,
+                                  @Value("${orders.invoice.download.cache.max-size}") long maxSize,
+                                  MeterRegistry meterRegistry) {
+        if (refreshMargin.isNegative() || refreshMargin.compareTo(urlTtl) >= 0) {
+            throw new IllegalArgumentException("orders.invoice.download.refresh-margin must be between 0 and the url-ttl");
+        }
+        this.presigner = presigner;
+        this.bucketName = bucketName;
+        this.urlTtl = urlTtl;
+        this.refreshMargin = refreshMargin;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(urlTtl.minus(refreshMargin))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "invoice-urls");
+    }
+
+    /**
+     * Returns a presigned URL for the order's invoice stored under the key, signing a new one
+     * only when the cached URL is missing or close to expiry.
+     *
+     * @throws IllegalArgumentException if the key isn't one this service issued for the order
+     */
+    public PresignedInvoice presign(String orderId, String key) {
+        if (!isInvoiceKey(orderId, key)) {
+            throw new IllegalArgumentException("Not an invoice key of order " + orderId + ": " + key);
+        }
+        return cache.get(key, this::sign);
+    }
+
+    /**
+     * Whether the key is one this service stores the order's invoices under.
+     */
+    public static boolean isInvoiceKey(String orderId, String key) {
+        return key != null && (S3Service.isContentKey(key) || InvoiceUploadService.isUploadKey(orderId, key));
+    }
+
+    /**
+     * Entity tag of the invoice stored under the key, or null if the key doesn't pin its content.
+     */
+    public static String eTag(String key) {
+        if (!S3Service.isContentKey(key)) {
+            return null;
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public Duration refreshMargin() {
+        return refreshMargin;
+    }
+
+    private PresignedInvoice sign(String key) {
+        Instant expiresAt = Instant.now().plus(urlTtl);
+        // Content never changes under a content key, so S3's response may be cached for the URL's lifetime
+        String cacheControl = S3Service.isContentKey(key)
+                ? "private, max-age=" + urlTtl.toSeconds() + ", immutable"
+                : "private, no-cache";
+        String url = presigner.presignGetObject(p -> p
+                .signatureDuration(urlTtl)
+                .getObjectRequest(r -> r.bucket(bucketName).key(key)
+                        .responseCacheControl(cacheControl)))
+                .url().toString();
+        logger.debug("Signed invoice URL for {} valid until {}", key, expiresAt);
+        return new PresignedInvoice(url, expiresAt, eTag(key));
+    }
+}
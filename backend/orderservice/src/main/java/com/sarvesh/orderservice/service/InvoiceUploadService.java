@@ -0,0 +1,276 @@
+package com.sarvesh.orderservice.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.sarvesh.orderservice.model.InvoiceUpload;
+import com.sarvesh.orderservice.model.InvoiceUploadCompletion;
+import com.sarvesh.orderservice.model.InvoiceUploadRequest;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderEvent;
+import com.sarvesh.orderservice.model.OutboxEvent;
+import com.sarvesh.orderservice.repository.InvoiceRefRepository;
+import com.sarvesh.orderservice.repository.OrderRepository;
+import com.sarvesh.orderservice.repository.OutboxRepository;
+
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+/**
+ * Lets clients upload invoices straight to S3 with presigned URLs, so invoice bytes never
+ * pass through this service.
+ *
+ * Flow:
+ * 1. {@link #start}: the client says how big the file is and gets presigned PUT URLs: one
+ *    URL for files up to the multipart threshold, otherwise one URL per multipart part.
+ *    Every URL is signed for an exact content length, so S3 rejects anything else.
+ * 2. The client PUTs the bytes to S3 (parts in parallel if it likes).
+ * 3. {@link #complete}: the multipart upload is completed, the object is checked with a HEAD,
+ *    and its key is set as the order's invoiceUrl together with an InvoiceAttached event.
+ *
+ * Keys look like invoices/{orderId}/{uuid}_{fileName}, so a completion can only attach
+ * objects uploaded for that order. Browser uploads need a CORS rule on the bucket allowing
+ * PUT and exposing the ETag header; abandoned multipart uploads should be cleaned up by an
+ * AbortIncompleteMultipartUpload lifecycle rule.
+ *
+ * S3 and DynamoDB calls go through their {@link DependencyGuards}; presigning is local and
+ * isn't guarded.
+ */
+@Service
+public class InvoiceUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceUploadService.class);
+
+    /** S3 allows at most 10,000 parts per multipart upload. */
+    private static final int MAX_PARTS = 10_000;
+
+    /** Last segment of an upload key: {uuid}_{fileName} as built by {@link #start}. */
+    private static final Pattern UPLOAD_NAME = Pattern.compile("[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}_[A-Za-z0-9._-]+");
+
+    private final S3Client s3Client;
+    private final S3Presigner presigner;
+    private final OrderRepository orderRepository;
+    private final InvoiceRefRepository invoiceRefRepository;
+    private final OutboxRepository outboxRepository;
+    private final OrderEventCodec eventCodec;
+    private final OrderCache orderCache;
+    private final DependencyGuard s3;
+    private final DependencyGuard dynamoDb;
+    private final String bucketName;
+    private final long multipartThreshold;
+    private final long minPartSize;
+    private final long maxSize;
+    private final Duration urlTtl;
+
+    public InvoiceUploadService(S3Client s3Client,
+                                S3Presigner presigner,
+                                OrderRepository orderRepository,
+                                InvoiceRefRepository invoiceRefRepository,
+                                OutboxRepository outboxRepository,
+                                OrderEventCodec eventCodec,
+                                OrderCache orderCache,
+                                DependencyGuards guards,
+                                @Value("${aws.s3.bucket}") String bucketName,
+                                @Value("${aws.s3.multipart.threshold}") DataSize multipartThreshold,
+                                @Value("${aws.s3.multipart.part-size}") DataSize partSize,
+                                @Value("${orders.invoice.max-size}") DataSize maxSize,
+                                @Value("${orders.invoice.presign-ttl}") Duration urlTtl) {
+        this.s3Client = s3Client;
+        this.presigner = presigner;
+        this.orderRepository = orderRepository;
+        this.invoiceRefRepository = invoiceRefRepository;
+        this.outboxRepository = outboxRepository;
+        this.eventCodec = eventCodec;
+        this.orderCache = orderCache;
+        this.s3 = guards.s3();
+        this.dynamoDb = guards.dynamoDb();
+        this.bucketName = bucketName;
+        this.multipartThreshold = multipartThreshold.toBytes();
+        this.minPartSize = partSize.toBytes();
+        this.maxSize = maxSize.toBytes();
+        this.urlTtl = urlTtl;
+    }
+
+    /**
+     * Issues presigned upload URLs for an invoice of the given size.
+     *
+     * @return The URLs, or empty if the order doesn't exist
+     * @throws IllegalArgumentException if the file name or size is invalid
+     */
+    public Optional<InvoiceUpload> start(String orderId, InvoiceUploadRequest request) {
+        if (request.fileName() == null || request.fileName().isBlank()) {
+            throw new IllegalArgumentException("fileName is required");
+        }
+        if (request.size() <= 0 || request.size() > maxSize) {
+            throw new IllegalArgumentException("size must be between 1 and " + maxSize + " bytes");
+        }
+        if (dynamoDb.get(() -> orderRepository.findById(orderId)).isEmpty()) {
+            return Optional.empty();
+        }
+
+        String key = keyPrefix(orderId) + UUID.randomUUID() + "_" + safeFileName(request.fileName());
+        Instant expiresAt = Instant.now().plus(urlTtl);
+
+        if (request.size() <= multipartThreshold) {
+            String url = presigner.presignPutObject(p -> p
+                    .signatureDuration(urlTtl)
+                    .putObjectRequest(r -> r.bucket(bucketName).key(key)
+                            .contentType(request.contentType())
+                            .contentLength(request.size())))
+                    .url().toString();
+            logger.info("Issued single PUT upload URL for order {} ({} bytes)", orderId, request.size());
+            return Optional.of(new InvoiceUpload(key, null, url, 0, List.of(), expiresAt));
+        }
+
+        // Grow parts beyond the configured size if the file would otherwise need too many
+        long partSize = Math.max(minPartSize, ceilDiv(request.size(), MAX_PARTS));
+        int partCount = (int) ceilDiv(request.size(), partSize);
+        String uploadId = s3.get(() -> s3Client.createMultipartUpload(r -> r.bucket(bucketName).key(key)
+                .contentType(request.contentType()))).uploadId();
+
+        List<InvoiceUpload.Part> parts = new ArrayList<>(partCount);
+        for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+            int currentPart = partNumber;
+            long length = Math.min(partSize, request.size() - (currentPart - 1) * partSize);
+            String url = presigner.presignUploadPart(p -> p
+                    .signatureDuration(urlTtl)
+                    .uploadPartRequest(r -> r.bucket(bucketName).key(key).uploadId(uploadId)
+                            .partNumber(currentPart)
+                            .contentLength(length)))
+                    .url().toString();
+            parts.add(new InvoiceUpload.Part(currentPart, url));
+        }
+        logger.info("Issued multipart upload {} for order {} ({} bytes, {} parts)", uploadId, orderId, request.size(), partCount);
+        return Optional.of(new InvoiceUpload(key, uploadId, null, partSize, parts, expiresAt));
+    }
+
+    /**
+     * Finishes an upload and attaches the object to the order as its invoice.
+     * Calling it again for an attached invoice just returns the order.
+     *
+     * @return The updated order, or empty if the order doesn't exist
+     * @throws IllegalArgumentException if the key doesn't belong to the order or the object is too large
+     * @throws IllegalStateException    if the object isn't in S3 (upload not finished)
+     */
+    public Optional<Order> complete(String orderId, InvoiceUploadCompletion completion) {
+        if (!isUploadKey(orderId, completion.key())) {
+            throw new IllegalArgumentException("key does not belong to order " + orderId);
+        }
+        Optional<Order> found = dynamoDb.get(() -> orderRepository.findById(orderId));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Order order = found.get();
+        if (completion.key().equals(order.getInvoiceUrl())) {
+            return Optional.of(order);
+        }
+
+        if (completion.uploadId() != null) {
+            completeMultipart(completion);
+        }
+
+        HeadObjectResponse head;
+        try {
+            head = s3.get(() -> s3Client.headObject(r -> r.bucket(bucketName).key(completion.key())));
+        } catch (NoSuchKeyException e) {
+            throw new IllegalStateException("Invoice has not been uploaded to " + completion.key());
+        }
+        if (head.contentLength() > maxSize) {
+            s3.get(() -> s3Client.deleteObject(r -> r.bucket(bucketName).key(completion.key())));
+            throw new IllegalArgumentException("Invoice is larger than " + maxSize + " bytes");
+        }
+
+        dynamoDb.get(() -> {
+            invoiceRefRepository.add(completion.key(), orderId);
+            return null;
+        });
+        order.setInvoiceUrl(completion.key());
+        OutboxEvent event = outboxRepository.newEvent(orderId, OrderEvent.INVOICE_ATTACHED);
+        eventCodec.encodeInto(event, order);
+        dynamoDb.get(() -> {
+            orderRepository.attachInvoice(orderId, completion.key(), event);
+            return null;
+        });
+        orderCache.put(order);
+
+        logger.info("Attached invoice {} ({} bytes) to order {}", completion.key(), head.contentLength(), orderId);
+        return Optional.of(order);
+    }
+
+    /**
+     * Gives up on a multipart upload and frees the parts stored so far.
+     *
+     * @throws IllegalArgumentException if the key doesn't belong to the order
+     */
+    public void abort(String orderId, String key, String uploadId) {
+        if (!isUploadKey(orderId, key)) {
+            throw new IllegalArgumentException("key does not belong to order " + orderId);
+        }
+        try {
+            s3.get(() -> s3Client.abortMultipartUpload(r -> r.bucket(bucketName).key(key).uploadId(uploadId)));
+            logger.info("Aborted multipart upload {} for order {}", uploadId, orderId);
+        } catch (NoSuchUploadException e) {
+            logger.debug("Multipart upload {} already gone", uploadId);
+        }
+    }
+
+    private void completeMultipart(InvoiceUploadCompletion completion) {
+        if (completion.parts() == null || completion.parts().isEmpty()) {
+            throw new IllegalArgumentException("parts are required to complete a multipart upload");
+        }
+        // S3 wants the parts in ascending order
+        List<CompletedPart> parts = completion.parts().stream()
+                .sorted(Comparator.comparingInt(InvoiceUploadCompletion.Part::partNumber))
+                .map(part -> CompletedPart.builder().partNumber(part.partNumber()).eTag(part.eTag()).build())
+                .toList();
+        try {
+            s3.get(() -> s3Client.completeMultipartUpload(r -> r.bucket(bucketName).key(completion.key())
+                    .uploadId(completion.uploadId())
+                    .multipartUpload(m -> m.parts(parts))));
+        } catch (NoSuchUploadException e) {
+            // Already completed by an earlier call whose response got lost; the HEAD below decides
+            logger.debug("Multipart upload {} no longer exists", completion.uploadId());
+        }
+    }
+
+    /**
+     * Whether the key has the shape {@link #start} issues for the order: its prefix, then one
+     * path segment made of the upload's UUID and the sanitized file name.
+     */
+    static boolean isUploadKey(String orderId, String key) {
+        if (key == null || !key.startsWith(keyPrefix(orderId))) {
+            return false;
+        }
+        return UPLOAD_NAME.matcher(key.substring(keyPrefix(orderId).length())).matches();
+    }
+
+    private static String keyPrefix(String orderId) {
+        return "invoices/" + orderId + "/";
+    }
+
+    private static String safeFileName(String fileName) {
+        // Keep the name readable but free of path separators and control characters
+        String base = fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1);
+        return base.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return (x + y - 1) / y;
+    }
+}
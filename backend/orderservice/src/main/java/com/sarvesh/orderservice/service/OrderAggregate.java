@@ -0,0 +1,147 @@
+package com.sarvesh.orderservice.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+import org.HdrHistogram.Histogram;
+
+import com.sarvesh.orderservice.model.OrderStats;
+import com.sarvesh.orderservice.model.OrderStatsCheckpoint;
+
+import software.amazon.awssdk.core.SdkBytes;
+
+/**
+ * Running count, sum, min, max and amount histogram of a set of orders.
+ *
+ * Amounts go into an auto-resizing HdrHistogram in cents with two significant digits, which
+ * keeps an aggregate at a few KB however many orders it covers. Histograms add up exactly,
+ * so aggregates of different instances (or time buckets) can be merged into one.
+ *
+ * Thread-safe; every method locks the aggregate.
+ */
+final class OrderAggregate {
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final Histogram cents = new Histogram(SIGNIFICANT_DIGITS);
+    private boolean dirty;
+    private boolean retired;
+
+    /**
+     * @return false if the aggregate was retired; record into the live one instead
+     */
+    synchronized boolean record(double amount) {
+        if (retired) {
+            return false;
+        }
+        count++;
+        sum += amount;
+        min = Math.min(min, amount);
+        max = Math.max(max, amount);
+        // The histogram only takes non-negative values; refunds count as zero for percentiles
+        cents.recordValue(Math.max(0, Math.round(amount * 100)));
+        dirty = true;
+        return true;
+    }
+
+    void add(OrderAggregate other) {
+        // Copy before locking this one, so two aggregates merging into each other can't deadlock
+        OrderAggregate snapshot = other.copy();
+        synchronized (this) {
+            count += snapshot.count;
+            sum += snapshot.sum;
+            min = Math.min(min, snapshot.min);
+            max = Math.max(max, snapshot.max);
+            cents.add(snapshot.cents);
+        }
+    }
+
+    synchronized OrderAggregate copy() {
+        OrderAggregate copy = new OrderAggregate();
+        copy.count = count;
+        copy.sum = sum;
+        copy.min = min;
+        copy.max = max;
+        copy.cents.add(cents);
+        return copy;
+    }
+
+    synchronized long count() {
+        return count;
+    }
+
+    /**
+     * Checkpoint of the current state if anything was recorded since the last one.
+     * The aggregate counts as clean afterwards; call {@link #markDirty} if writing it fails.
+     */
+    synchronized OrderStatsCheckpoint takeCheckpoint(String aggregateKey, String instanceId) {
+        if (!dirty) {
+            return null;
+        }
+        dirty = false;
+
+        OrderStatsCheckpoint checkpoint = new OrderStatsCheckpoint();
+        checkpoint.setAggregateKey(aggregateKey);
+        checkpoint.setInstanceId(instanceId);
+        checkpoint.setCount(count);
+        checkpoint.setSum(sum);
+        checkpoint.setMin(count > 0 ? min : null);
+        checkpoint.setMax(count > 0 ? max : null);
+        ByteBuffer buffer = ByteBuffer.allocate(cents.getNeededByteBufferCapacity());
+        int length = cents.encodeIntoCompressedByteBuffer(buffer);
+        checkpoint.setHistogram(SdkBytes.fromByteArray(Arrays.copyOf(buffer.array(), length)));
+        checkpoint.setUpdatedAt(System.currentTimeMillis());
+        return checkpoint;
+    }
+
+    synchronized void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Stops the aggregate taking records if nothing was recorded since its last checkpoint,
+     * so it can be dropped from memory without losing anything.
+     *
+     * @return true if the aggregate is retired
+     */
+    synchronized boolean retireIfClean() {
+        if (!dirty) {
+            retired = true;
+        }
+        return retired;
+    }
+
+    static OrderAggregate fromCheckpoint(OrderStatsCheckpoint checkpoint) {
+        OrderAggregate aggregate = new OrderAggregate();
+        aggregate.count = checkpoint.getCount() != null ? checkpoint.getCount() : 0;
+        aggregate.sum = checkpoint.getSum() != null ? checkpoint.getSum() : 0;
+        aggregate.min = checkpoint.getMin() != null ? checkpoint.getMin() : Double.POSITIVE_INFINITY;
+        aggregate.max = checkpoint.getMax() != null ? checkpoint.getMax() : Double.NEGATIVE_INFINITY;
+        if (checkpoint.getHistogram() != null) {
+            try {
+                aggregate.cents.add(Histogram.decodeFromCompressedByteBuffer(
+                        checkpoint.getHistogram().asByteBuffer(), 0));
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupt histogram in stats checkpoint " + checkpoint.getAggregateKey(), e);
+            }
+        }
+        return aggregate;
+    }
+
+    synchronized OrderStats toStats(String name) {
+        if (count == 0) {
+            return new OrderStats(name, 0, 0, null, null, null, null, null, null);
+        }
+        return new OrderStats(name, count, sum, sum / count, min, max,
+                percentile(50), percentile(90), percentile(99));
+    }
+
+    private double percentile(double percentile) {
+        return cents.getValueAtPercentile(percentile) / 100.0;
+    }
+}
@@ -0,0 +1,247 @@
+package com.sarvesh.orderservice.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarvesh.orderservice.model.BulkOrderItemResult;
+import com.sarvesh.orderservice.model.BulkOrderResult;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OutboxEvent;
+import com.sarvesh.orderservice.repository.OrderRepository;
+import com.sarvesh.orderservice.repository.OutboxRepository;
+
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+/**
+ * Ingests large numbers of orders in one request.
+ *
+ * The request body is parsed incrementally (one order at a time), orders are grouped into
+ * chunks of 50, and several chunks are written concurrently. Only the chunks currently in
+ * flight are held in memory, not the whole request.
+ *
+ * Each chunk is written with its OrderCreated outbox events in one TransactWriteItems call
+ * (100 items, the most one transaction takes), so every stored order has its event;
+ * {@link OutboxRelay} publishes them.
+ * Writes go through the DynamoDB {@link DependencyGuard}; a refused write fails its chunk.
+ */
+@Service
+public class OrderBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderBulkService.class);
+
+    private static final long RETRY_BASE_MILLIS = 50;
+
+    private final OrderRepository orderRepository;
+    private final OutboxRepository outboxRepository;
+    private final DependencyGuard dynamoDb;
+    private final OrderEventCodec eventCodec;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService ioExecutor;
+    private final int maxInFlightBatches;
+    private final int maxAttempts;
+
+    public OrderBulkService(OrderRepository orderRepository,
+                            OutboxRepository outboxRepository,
+                            DependencyGuards guards,
+                            OrderEventCodec eventCodec,
+                            ObjectMapper objectMapper,
+                            @Qualifier("ioExecutor") ExecutorService ioExecutor,
+                            @Value("${orders.bulk.max-in-flight-batches}") int maxInFlightBatches,
+                            @Value("${orders.bulk.max-attempts}") int maxAttempts) {
+        this.orderRepository = orderRepository;
+        this.outboxRepository = outboxRepository;
+        this.dynamoDb = guards.dynamoDb();
+        this.eventCodec = eventCodec;
+        this.objectMapper = objectMapper;
+        this.ioExecutor = ioExecutor;
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Ingests a JSON array of orders. Elements that can't be mapped to an order are reported
+     * as INVALID; malformed JSON stops parsing, but everything before it is still written.
+     *
+     * @throws IllegalArgumentException if the body is not a JSON array
+     */
+    public BulkOrderResult ingestJsonArray(InputStream body) throws IOException, InterruptedException {
+        Ingestion ingestion = new Ingestion();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of orders");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                JsonNode node = objectMapper.readTree(parser);
+                ingestion.accept(node);
+            }
+        } catch (JsonProcessingException e) {
+            logger.warn("Bulk JSON body is malformed after {} orders: {}", ingestion.nextIndex, e.getOriginalMessage());
+            ingestion.invalid("Malformed JSON, remaining input ignored: " + e.getOriginalMessage());
+        }
+        return ingestion.finish();
+    }
+
+    /**
+     * Ingests newline-delimited JSON, one order per line. Each bad line is reported as
+     * INVALID without affecting the others.
+     */
+    public BulkOrderResult ingestNdjson(InputStream body) throws IOException, InterruptedException {
+        Ingestion ingestion = new Ingestion();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                ingestion.accept(objectMapper.readTree(line));
+            } catch (JsonProcessingException e) {
+                ingestion.invalid("Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return ingestion.finish();
+    }
+
+    /**
+     * Writes one chunk and records a result per order. Never throws: a failed transaction
+     * marks every order in the chunk as FAILED (none of them were stored).
+     */
+    private void writeChunk(List<IndexedOrder> chunk, ConcurrentLinkedQueue<BulkOrderItemResult> results) {
+        List<Order> orders = chunk.stream().map(IndexedOrder::order).toList();
+        List<OutboxEvent> events = new ArrayList<>(orders.size());
+        try {
+            for (Order order : orders) {
+                OutboxEvent event = outboxRepository.createdEvent(order, System.currentTimeMillis());
+                eventCodec.encodeInto(event, order);
+                events.add(event);
+            }
+            saveWithRetries(orders, events);
+            for (IndexedOrder item : chunk) {
+                results.add(BulkOrderItemResult.created(item.index(), item.order().getOrderId()));
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            logger.error("Bulk batch of {} orders failed", chunk.size(), e);
+            for (IndexedOrder item : chunk) {
+                results.add(BulkOrderItemResult.failed(item.index(), item.order().getOrderId(), e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Retries cancelled transactions (throttling, conflicts) with exponential backoff and jitter.
+     * The transaction is all-or-nothing, so the whole chunk is resent each time.
+     */
+    private void saveWithRetries(List<Order> orders, List<OutboxEvent> events) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                dynamoDb.get(() -> {
+                    orderRepository.saveWithEvents(orders, events);
+                    return null;
+                });
+                return;
+            } catch (TransactionCanceledException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                long backoff = RETRY_BASE_MILLIS << (attempt - 1);
+                Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff));
+            }
+        }
+    }
+
+    /**
+     * State of a single bulk request: the chunk being filled, batches in flight and results so far.
+     */
+    private final class Ingestion {
+
+        private final ConcurrentLinkedQueue<BulkOrderItemResult> results = new ConcurrentLinkedQueue<>();
+        private final List<CompletableFuture<Void>> batches = new ArrayList<>();
+        private final Semaphore inFlight = new Semaphore(maxInFlightBatches);
+        private List<IndexedOrder> chunk = new ArrayList<>(OrderRepository.MAX_ORDERS_WITH_EVENTS);
+        private int nextIndex;
+
+        void accept(JsonNode node) throws InterruptedException {
+            Order order;
+            try {
+                order = objectMapper.treeToValue(node, Order.class);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                invalid("Invalid order: " + e.getMessage());
+                return;
+            }
+            if (order == null) {
+                invalid("Order must be a JSON object");
+                return;
+            }
+
+            // Same id, invoice and timestamp rules as the single-order path
+            order.setOrderId(UUID.randomUUID().toString());
+            order.setInvoiceUrl(null);
+            if (order.getCreatedAt() == null) {
+                order.setCreatedAt(new Date());
+            }
+
+            chunk.add(new IndexedOrder(nextIndex++, order));
+            if (chunk.size() == OrderRepository.MAX_ORDERS_WITH_EVENTS) {
+                submitChunk();
+            }
+        }
+
+        void invalid(String error) {
+            results.add(BulkOrderItemResult.invalid(nextIndex++, error));
+        }
+
+        private void submitChunk() throws InterruptedException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<IndexedOrder> toWrite = chunk;
+            chunk = new ArrayList<>(OrderRepository.MAX_ORDERS_WITH_EVENTS);
+
+            // Blocks parsing while too many batches are in flight
+            inFlight.acquire();
+            batches.add(CompletableFuture
+                    .runAsync(() -> writeChunk(toWrite, results), ioExecutor)
+                    .whenComplete((ignored, error) -> inFlight.release()));
+        }
+
+        BulkOrderResult finish() throws InterruptedException {
+            submitChunk();
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+
+            List<BulkOrderItemResult> sorted = new ArrayList<>(results);
+            sorted.sort(Comparator.comparingInt(BulkOrderItemResult::getIndex));
+            return new BulkOrderResult(sorted);
+        }
+    }
+
+    private record IndexedOrder(int index, Order order) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.sarvesh.orderservice.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sarvesh.orderservice.model.Order;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded, in-process read-through cache for order lookups.
+ *
+ * - Entries are evicted by size (LRU-ish, Caffeine's W-TinyLFU) and by TTL.
+ * - Misses are cached too (as empty Optionals) with a shorter TTL, so repeated
+ *   lookups of unknown ids don't hit DynamoDB every time.
+ * - Concurrent misses for the same id are coalesced: one caller loads, the rest wait
+ *   (or, on the async path, share the same future).
+ * - Hit/miss/eviction counts are published as "cache.*" metrics tagged cache=orders.
+ */
+@Component
+public class OrderCache {
+
+    private final AsyncCache<String, Optional<Order>> asyncCache;
+    private final Cache<String, Optional<Order>> cache;
+
+    public OrderCache(@Value("${orders.cache.max-size}") long maxSize,
+                      @Value("${orders.cache.ttl}") Duration ttl,
+                      @Value("${orders.cache.negative-ttl}") Duration negativeTtl,
+                      MeterRegistry meterRegistry) {
+        this.asyncCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new OrderExpiry(ttl, negativeTtl))
+                .recordStats()
+                .buildAsync();
+        // Blocking view over the same entries
+        this.cache = asyncCache.synchronous();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, asyncCache, "orders");
+    }
+
+    /**
+     * Returns the cached lookup for the id, or runs the loader once (even under
+     * concurrent requests) and caches whatever it returns, including an empty result.
+     */
+    public Optional<Order> get(String orderId, Function<String, Optional<Order>> loader) {
+        return cache.get(orderId, loader);
+    }
+
+    /**
+     * Non-blocking {@link #get}: a miss starts the loader's future and every concurrent caller
+     * for the same id gets that future. Failed loads are not cached.
+     */
+    public CompletableFuture<Optional<Order>> getAsync(String orderId,
+                                                       Function<String, CompletableFuture<Optional<Order>>> loader) {
+        return asyncCache.get(orderId, (id, executor) -> loader.apply(id));
+    }
+
+    /**
+     * Caches a freshly written order, replacing any previous (possibly negative) entry.
+     */
+    public void put(Order order) {
+        cache.put(order.getOrderId(), Optional.of(order));
+    }
+
+    public void invalidate(String orderId) {
+        cache.invalidate(orderId);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Found orders live for the regular TTL, misses for the (shorter) negative TTL.
+     * Reads don't extend an entry's lifetime.
+     */
+    private static final class OrderExpiry implements Expiry<String, Optional<Order>> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private OrderExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Optional<Order> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<Order> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<Order> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.sarvesh.orderservice.service;
+
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.sarvesh.orderservice.model.OrderEvent;
+
+/**
+ * Drops the local cache entry of an order when an OrderCreated or InvoiceAttached event for
+ * it arrives, so a lookup cached before the change (a miss, or the order without its
+ * invoice) isn't served until it expires. The next read loads the current order.
+ *
+ * The event's snapshot isn't cached itself: SQS doesn't keep events in order, and the order
+ * carries no version, so a late OrderCreated could replace a newer entry.
+ */
+@Component
+public class OrderCacheEventHandler implements OrderEventHandler {
+
+    private final OrderCache orderCache;
+
+    public OrderCacheEventHandler(OrderCache orderCache) {
+        this.orderCache = orderCache;
+    }
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(OrderEvent.ORDER_CREATED, OrderEvent.INVOICE_ATTACHED);
+    }
+
+    @Override
+    public void handle(OrderEvent event) {
+        orderCache.invalidate(event.order().getOrderId());
+    }
+}
@@ -0,0 +1,122 @@
+package com.sarvesh.orderservice.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderEvent;
+import com.sarvesh.orderservice.model.OutboxEvent;
+
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+/**
+ * Encodes {@link OrderEvent}s for SNS and decodes them again on the consuming side.
+ *
+ * Two encodings, chosen with orders.events.format:
+ * - json: the envelope as JSON text (default, readable in the console and by any subscriber).
+ * - cbor: the envelope as CBOR, base64 encoded because SNS message bodies are text.
+ *   Smaller to store in the outbox and cheaper to parse; worth it mainly for larger orders.
+ *
+ * The encoding travels in the contentType message attribute, next to eventType and
+ * schemaVersion, which subscription filter policies can match on. Consumers accept both
+ * encodings, so switching the format doesn't need a coordinated deploy.
+ */
+@Component
+public class OrderEventCodec {
+
+    public static final String JSON = "application/json";
+    public static final String CBOR = "application/cbor";
+
+    public static final String ATTRIBUTE_EVENT_ID = "eventId";
+    public static final String ATTRIBUTE_EVENT_TYPE = "eventType";
+    public static final String ATTRIBUTE_CONTENT_TYPE = "contentType";
+    public static final String ATTRIBUTE_SCHEMA_VERSION = "schemaVersion";
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final boolean useCbor;
+
+    public OrderEventCodec(ObjectMapper objectMapper,
+                           @Value("${orders.events.format}") String format) {
+        this.jsonMapper = objectMapper;
+        this.cborMapper = CBORMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        this.useCbor = switch (format) {
+            case "json" -> false;
+            case "cbor" -> true;
+            default -> throw new IllegalArgumentException("orders.events.format must be json or cbor, was " + format);
+        };
+    }
+
+    /**
+     * Fills in the payload of an outbox event with an envelope around the order.
+     */
+    public void encodeInto(OutboxEvent outboxEvent, Order order) {
+        OrderEvent event = new OrderEvent(OrderEvent.SCHEMA_VERSION, outboxEvent.getEventId(),
+                outboxEvent.getEventType(), outboxEvent.getCreatedAt(), order);
+        try {
+            if (useCbor) {
+                outboxEvent.setPayload(Base64.getEncoder().encodeToString(cborMapper.writeValueAsBytes(event)));
+                outboxEvent.setContentType(CBOR);
+            } else {
+                outboxEvent.setPayload(jsonMapper.writeValueAsString(event));
+                outboxEvent.setContentType(JSON);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode event for order " + order.getOrderId(), e);
+        }
+        outboxEvent.setSchemaVersion(OrderEvent.SCHEMA_VERSION);
+    }
+
+    /**
+     * Decodes a message body published by {@link #encodeInto}.
+     *
+     * @param contentType Value of the contentType attribute; null is treated as JSON
+     */
+    public OrderEvent decode(String body, String contentType) throws IOException {
+        if (contentType == null || JSON.equals(contentType)) {
+            return jsonMapper.readValue(body, OrderEvent.class);
+        }
+        if (CBOR.equals(contentType)) {
+            return cborMapper.readValue(Base64.getDecoder().decode(body), OrderEvent.class);
+        }
+        throw new IOException("Unsupported event content type: " + contentType);
+    }
+
+    /**
+     * Decodes an order event received from SQS, with or without raw message delivery on the
+     * SNS subscription. Without it, the body is an SNS notification wrapping the event and
+     * the attributes are inside the notification instead of on the SQS message.
+     */
+    public OrderEvent decode(Message message) throws IOException {
+        String body = message.body();
+        String contentType = stringAttribute(message.messageAttributes(), ATTRIBUTE_CONTENT_TYPE);
+
+        if (contentType == null && body.startsWith("{")) {
+            JsonNode node = jsonMapper.readTree(body);
+            if (!"Notification".equals(node.path("Type").asText()) || !node.has("Message")) {
+                // Raw delivery of a JSON event; already parsed, so don't parse the text again
+                return jsonMapper.treeToValue(node, OrderEvent.class);
+            }
+            JsonNode wrappedContentType = node.path("MessageAttributes").path(ATTRIBUTE_CONTENT_TYPE).path("Value");
+            return decode(node.get("Message").asText(), wrappedContentType.isTextual() ? wrappedContentType.asText() : null);
+        }
+        return decode(body, contentType);
+    }
+
+    private static String stringAttribute(Map<String, MessageAttributeValue> attributes, String name) {
+        MessageAttributeValue value = attributes.get(name);
+        return value != null ? value.stringValue() : null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.sarvesh.orderservice.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sarvesh.orderservice.model.OrderEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Routes order events to the {@link OrderEventHandler}s registered for their type.
+ *
+ * Events are spread over a fixed number of partitions by order id. Each partition runs its
+ * events one at a time, in submission order, on its own virtual thread; different partitions
+ * run in parallel. So two events of one order never run concurrently or out of order, while
+ * unrelated orders don't wait for each other.
+ *
+ * Metrics: orders.events.handler timer per handler, event type and outcome (count = throughput).
+ */
+class OrderEventDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventDispatcher.class);
+
+    private final Map<String, List<OrderEventHandler>> handlersByType = new HashMap<>();
+    private final ExecutorService[] partitions;
+    private final MeterRegistry meterRegistry;
+
+    OrderEventDispatcher(List<OrderEventHandler> handlers, int partitionCount, MeterRegistry meterRegistry) {
+        for (OrderEventHandler handler : handlers) {
+            handler.eventTypes().forEach(type -> handlersByType.computeIfAbsent(type, t -> new ArrayList<>()).add(handler));
+        }
+        this.partitions = new ExecutorService[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("order-events-" + i).factory());
+        }
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Queues the event on its order's partition.
+     *
+     * @return Completes when every handler for the event type has run, or exceptionally with
+     *         the first handler failure (later handlers are skipped)
+     */
+    CompletableFuture<Void> dispatch(OrderEvent event) {
+        List<OrderEventHandler> handlers = handlersByType.getOrDefault(event.eventType(), List.of());
+        if (handlers.isEmpty()) {
+            logger.debug("No handler for {} event {}", event.eventType(), event.eventId());
+            return CompletableFuture.completedFuture(null);
+        }
+        int partition = Math.floorMod(event.order().getOrderId().hashCode(), partitions.length);
+        return CompletableFuture.runAsync(() -> handleAll(event, handlers), partitions[partition]);
+    }
+
+    private void handleAll(OrderEvent event, List<OrderEventHandler> handlers) {
+        for (OrderEventHandler handler : handlers) {
+            long start = System.nanoTime();
+            try {
+                handler.handle(event);
+                timer(handler, event, "success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } catch (Exception e) {
+                timer(handler, event, "failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw new CompletionException(e);
+            }
+        }
+    }
+
+    private Timer timer(OrderEventHandler handler, OrderEvent event, String outcome) {
+        return Timer.builder("orders.events.handler")
+                .tag("handler", handlerName(handler))
+                .tag("eventType", event.eventType())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String handlerName(OrderEventHandler handler) {
+        String simpleName = handler.getClass().getSimpleName();
+        // Anonymous and lambda classes have no (useful) simple name
+        return simpleName.isEmpty() ? handler.getClass().getName() : simpleName;
+    }
+
+    /**
+     * Stops taking events and waits for the queued ones to finish.
+     *
+     * @return false if some were still running when the timeout passed
+     */
+    boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        for (ExecutorService partition : partitions) {
+            partition.shutdown();
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ExecutorService partition : partitions) {
+            if (!partition.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
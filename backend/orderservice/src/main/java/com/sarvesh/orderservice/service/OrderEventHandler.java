@@ -0,0 +1,26 @@
+package com.sarvesh.orderservice.service;
+
+import java.util.Set;
+
+import com.sarvesh.orderservice.model.OrderEvent;
+
+/**
+ * Reacts to order events received from the order queue.
+ *
+ * Every Spring bean implementing this interface is registered with the SQS consumer and gets
+ * the events whose type it lists. Events of the same order are handled one after another in
+ * the order they were received; events of different orders run in parallel.
+ *
+ * Delivery is at-least-once, so handlers must be idempotent (dedupe on
+ * {@link OrderEvent#eventId()} where repeating the work matters). Throwing makes the message
+ * come back after the visibility timeout; after too many attempts it goes to the dead-letter queue.
+ */
+public interface OrderEventHandler {
+
+    /**
+     * Event types this handler processes, e.g. {@link OrderEvent#ORDER_CREATED}.
+     */
+    Set<String> eventTypes();
+
+    void handle(OrderEvent event) throws Exception;
+}
@@ -0,0 +1,392 @@
+package com.sarvesh.orderservice.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarvesh.orderservice.model.ExportSegment;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderExport;
+import com.sarvesh.orderservice.model.OrderPage;
+import com.sarvesh.orderservice.repository.OrderExportRepository;
+import com.sarvesh.orderservice.repository.OrderRepository;
+
+/**
+ * Exports every order to S3 as gzip'd NDJSON, reading the table with a parallel scan.
+ *
+ * How it works:
+ * - The table is split into N scan segments and every segment is exported by its own worker,
+ *   so export time shrinks with the number of segments.
+ * - A worker streams scan pages through gzip straight into a multipart upload
+ *   (exports/{id}/segment-SSS/part-NNNNN.ndjson.gz); a new file starts after rows-per-file
+ *   orders. Memory per worker is one page plus the upload's part buffers, whatever the table size.
+ * - Progress is saved after every uploaded file: the scan position, file list and row count.
+ *   Resuming an export restarts its unfinished segments from their last uploaded file; file
+ *   names are deterministic, so a file that was cut off is simply written again. A segment
+ *   whose scan already reached the end is only marked done, never scanned again.
+ * - Once every segment is done, exports/{id}/manifest.json lists all files and row counts.
+ *
+ * DynamoDB and S3 calls go through their {@link DependencyGuards}. An export file's upload
+ * lasts as long as its part of the scan, so it only goes through the S3 breaker, see
+ * {@link DependencyGuard#callInline}.
+ */
+@Service
+public class OrderExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportService.class);
+
+    private static final String CONTENT_TYPE = "application/x-ndjson";
+    private static final int PIPE_BUFFER_BYTES = 64 * 1024;
+
+    private final OrderRepository orderRepository;
+    private final OrderExportRepository exportRepository;
+    private final S3Service s3Service;
+    private final DependencyGuard s3;
+    private final DependencyGuard dynamoDb;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService ioExecutor;
+    private final int defaultSegments;
+    private final int maxSegments;
+    private final int pageSize;
+    private final long rowsPerFile;
+    private final String prefix;
+
+    // "exportId#segment" of segments being exported by this instance
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+
+    public OrderExportService(OrderRepository orderRepository,
+                              OrderExportRepository exportRepository,
+                              S3Service s3Service,
+                              DependencyGuards guards,
+                              ObjectMapper objectMapper,
+                              @Qualifier("ioExecutor") ExecutorService ioExecutor,
+                              @Value("${orders.export.default-segments}") int defaultSegments,
+                              @Value("${orders.export.max-segments}") int maxSegments,
+                              @Value("${orders.export.page-size}") int pageSize,
+                              @Value("${orders.export.rows-per-file}") long rowsPerFile,
+                              @Value("${orders.export.prefix}") String prefix) {
+        this.orderRepository = orderRepository;
+        this.exportRepository = exportRepository;
+        this.s3Service = s3Service;
+        this.s3 = guards.s3();
+        this.dynamoDb = guards.dynamoDb();
+        this.objectMapper = objectMapper;
+        this.ioExecutor = ioExecutor;
+        this.defaultSegments = defaultSegments;
+        this.maxSegments = maxSegments;
+        this.pageSize = pageSize;
+        this.rowsPerFile = rowsPerFile;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Starts exporting every order in the background with the default number of segments.
+     */
+    public OrderExport start() {
+        return start(defaultSegments);
+    }
+
+    /**
+     * Starts exporting every order in the background, {@code segments} scan segments in parallel.
+     *
+     * @throws IllegalArgumentException if segments is not between 1 and max-segments
+     */
+    public OrderExport start(int segments) {
+        if (segments < 1 || segments > maxSegments) {
+            throw new IllegalArgumentException("segments must be between 1 and " + maxSegments);
+        }
+
+        String exportId = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        List<ExportSegment> created = new ArrayList<>(segments);
+        for (int i = 0; i < segments; i++) {
+            ExportSegment segment = new ExportSegment();
+            segment.setExportId(exportId);
+            segment.setSegment(i);
+            segment.setTotalSegments(segments);
+            segment.setStatus(ExportSegment.Status.RUNNING);
+            segment.setNextPart(0);
+            segment.setRows(0L);
+            segment.setCreatedAt(now);
+            save(segment);
+            created.add(segment);
+        }
+
+        logger.info("Starting order export {} with {} segments", exportId, segments);
+        created.forEach(this::launch);
+        return summarize(exportId, created);
+    }
+
+    /**
+     * Current progress of an export.
+     */
+    public Optional<OrderExport> status(String exportId) {
+        List<ExportSegment> segments = findSegments(exportId);
+        return segments.isEmpty() ? Optional.empty() : Optional.of(summarize(exportId, segments));
+    }
+
+    /**
+     * Restarts every unfinished segment of an export that isn't already running here, from
+     * its last uploaded file, or rewrites the manifest of a finished one. Use it after a
+     * failure or a restart of the service.
+     */
+    public Optional<OrderExport> resume(String exportId) {
+        List<ExportSegment> segments = findSegments(exportId);
+        if (segments.isEmpty()) {
+            return Optional.empty();
+        }
+        boolean unfinished = false;
+        for (ExportSegment segment : segments) {
+            if (segment.getStatus() != ExportSegment.Status.DONE) {
+                segment.setStatus(ExportSegment.Status.RUNNING);
+                segment.setError(null);
+                launch(segment);
+                unfinished = true;
+            }
+        }
+        if (!unfinished) {
+            // Every file is there; only the manifest may be missing
+            CompletableFuture.runAsync(() -> writeManifestIfComplete(exportId), ioExecutor);
+        }
+        logger.info("Resuming order export {}", exportId);
+        return Optional.of(summarize(exportId, segments));
+    }
+
+    private void launch(ExportSegment segment) {
+        String id = segment.getExportId() + "#" + segment.getSegment();
+        if (!active.add(id)) {
+            logger.debug("Export segment {} already running", id);
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                exportSegment(segment);
+                segment.setStatus(ExportSegment.Status.DONE);
+                logger.info("Export {} segment {} done: {} orders in {} files", segment.getExportId(), segment.getSegment(),
+                        segment.getRows(), segment.getFiles().size());
+            } catch (Exception e) {
+                logger.error("Export {} segment {} failed", segment.getExportId(), segment.getSegment(), e);
+                segment.setStatus(ExportSegment.Status.FAILED);
+                segment.setError(e.getMessage());
+            } finally {
+                // Before the final status is saved, so a resume that sees it can relaunch the segment
+                active.remove(id);
+            }
+
+            try {
+                save(segment);
+            } catch (RuntimeException e) {
+                logger.error("Could not save final status of export {} segment {}", segment.getExportId(), segment.getSegment(), e);
+                return;
+            }
+            if (segment.getStatus() == ExportSegment.Status.DONE) {
+                writeManifestIfComplete(segment.getExportId());
+            }
+        }, ioExecutor);
+    }
+
+    /**
+     * Exports one segment from its saved position to the end, saving progress after every file.
+     */
+    private void exportSegment(ExportSegment segment) throws IOException {
+        if (segment.isScanComplete()) {
+            // Every file is uploaded and saved; only marking the segment DONE failed last time
+            return;
+        }
+        String pageToken = segment.getPageToken();
+        do {
+            String key = fileKey(segment);
+            long rows = 0;
+            try (FileWriter file = new FileWriter(key)) {
+                try {
+                    do {
+                        String from = pageToken;
+                        OrderPage page = dynamoDb.get(() -> orderRepository.scanSegment(segment.getSegment(),
+                                segment.getTotalSegments(), pageSize, from));
+                        for (Order order : page.getItems()) {
+                            file.write(order);
+                        }
+                        rows += page.getItems().size();
+                        pageToken = page.getNextToken();
+                    } while (pageToken != null && rows < rowsPerFile);
+                } catch (IOException | RuntimeException e) {
+                    file.abort();
+                    throw e;
+                }
+            }
+
+            segment.getFiles().add(key);
+            segment.setPageToken(pageToken);
+            segment.setNextPart(segment.getNextPart() + 1);
+            segment.setRows(segment.getRows() + rows);
+            save(segment);
+            logger.debug("Export {} segment {}: uploaded {} ({} orders)", segment.getExportId(), segment.getSegment(), key, rows);
+        } while (pageToken != null);
+    }
+
+    private void writeManifestIfComplete(String exportId) {
+        List<ExportSegment> segments = findSegments(exportId);
+        if (segments.isEmpty() || segments.stream().anyMatch(s -> s.getStatus() != ExportSegment.Status.DONE)) {
+            return;
+        }
+        // Every segment finishing at the same time may get here; they all write the same manifest
+        OrderExport export = summarize(exportId, segments);
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("exportId", exportId);
+        manifest.put("format", "ndjson+gzip");
+        manifest.put("totalSegments", export.totalSegments());
+        manifest.put("rows", export.rows());
+        manifest.put("segments", segments.stream().map(s -> Map.of(
+                "segment", s.getSegment(),
+                "rows", s.getRows(),
+                "files", s.getFiles())).toList());
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(manifest);
+            s3.call(() -> {
+                s3Service.uploadStream(manifestKey(exportId), "application/json", new ByteArrayInputStream(body), body.length);
+                return null;
+            });
+            logger.info("Order export {} complete: {} orders in {} files", exportId, export.rows(), export.files().size());
+        } catch (IOException e) {
+            logger.error("Could not write manifest of export {}; resume the export to retry", exportId, e);
+        }
+    }
+
+    private List<ExportSegment> findSegments(String exportId) {
+        return dynamoDb.get(() -> exportRepository.findByExportId(exportId));
+    }
+
+    private void save(ExportSegment segment) {
+        dynamoDb.get(() -> {
+            exportRepository.save(segment);
+            return null;
+        });
+    }
+
+    private OrderExport summarize(String exportId, List<ExportSegment> segments) {
+        int done = 0;
+        boolean failed = false;
+        boolean running = false;
+        long rows = 0;
+        List<String> files = new ArrayList<>();
+        for (ExportSegment segment : segments) {
+            switch (segment.getStatus()) {
+                case DONE -> done++;
+                case FAILED -> failed = true;
+                case RUNNING -> running = true;
+            }
+            rows += segment.getRows();
+            files.addAll(segment.getFiles());
+        }
+        ExportSegment.Status status = done == segments.size() ? ExportSegment.Status.DONE
+                : failed && !running ? ExportSegment.Status.FAILED
+                : ExportSegment.Status.RUNNING;
+        String manifest = status == ExportSegment.Status.DONE ? manifestKey(exportId) : null;
+        return new OrderExport(exportId, status, segments.get(0).getTotalSegments(), done, rows, files, manifest);
+    }
+
+    private String fileKey(ExportSegment segment) {
+        return String.format("%s%s/segment-%03d/part-%05d.ndjson.gz",
+                prefix, segment.getExportId(), segment.getSegment(), segment.getNextPart());
+    }
+
+    private String manifestKey(String exportId) {
+        return prefix + exportId + "/manifest.json";
+    }
+
+    /**
+     * One export file: orders written here are gzip'd and piped into a multipart upload that
+     * runs alongside. Closing waits for the upload to finish, unless the file was aborted.
+     */
+    private final class FileWriter implements Closeable {
+
+        private final PipedInputStream uploadSide;
+        private final OutputStream out;
+        private final CompletableFuture<Void> upload;
+        private volatile boolean aborted;
+
+        FileWriter(String key) throws IOException {
+            this.uploadSide = new PipedInputStream(PIPE_BUFFER_BYTES);
+            PipedOutputStream writeSide = new PipedOutputStream(uploadSide);
+            this.upload = CompletableFuture.runAsync(() -> {
+                try {
+                    s3.callInline(() -> {
+                        try (PipedInputStream in = uploadSide) {
+                            s3Service.uploadStream(key, CONTENT_TYPE, in, -1);
+                        } catch (IOException e) {
+                            // Cut off by abort(): the scan failed, not S3
+                            if (!aborted) {
+                                throw e;
+                            }
+                        }
+                        return null;
+                    });
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, ioExecutor);
+            this.out = new GZIPOutputStream(writeSide, PIPE_BUFFER_BYTES);
+        }
+
+        void write(Order order) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(order));
+            out.write('\n');
+        }
+
+        /**
+         * Makes the upload fail (and abort the multipart upload) instead of completing with a
+         * truncated file.
+         */
+        void abort() {
+            aborted = true;
+            try {
+                uploadSide.close();
+            } catch (IOException ignored) {
+                // Closing a pipe doesn't fail
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                out.close();
+            } catch (IOException e) {
+                if (!aborted) {
+                    throw e;
+                }
+            }
+            try {
+                upload.join();
+            } catch (CompletionException e) {
+                if (aborted) {
+                    return;
+                }
+                Throwable cause = e.getCause() instanceof UncheckedIOException io ? io.getCause() : e.getCause();
+                throw new IOException("Upload of export file failed", cause);
+            }
+        }
+    }
+}
@@ -1,86 +1,299 @@
 package com.sarvesh.orderservice.service;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderPage;
+import com.sarvesh.orderservice.model.OutboxEvent;
+import com.sarvesh.orderservice.repository.InvoiceRefRepository;
 import com.sarvesh.orderservice.repository.OrderRepository;
+import com.sarvesh.orderservice.repository.OutboxRepository;
 
 /**
  * Service class responsible for handling business logic related to Orders.
- * This includes optional invoice upload to S3 and sending SNS notifications.
+ * This includes optional invoice upload to S3 and recording order events in the outbox,
+ * from where {@link OutboxRelay} publishes them to SNS.
+ * Calls to S3 and DynamoDB go through their {@link DependencyGuards}.
  */
 @Service
 public class OrderService {
 
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+
     private final OrderRepository orderRepository;
     private final S3Service s3Service;
-    private final SnsService snsService;
+    private final InvoiceRefRepository invoiceRefRepository;
+    private final OutboxRepository outboxRepository;
+    private final OrderEventCodec eventCodec;
+    private final OrderCache orderCache;
+    private final IdempotencyService idempotencyService;
+    private final DependencyGuards guards;
+    private final ExecutorService ioExecutor;
 
     /**
      * Constructor-based dependency injection for repository and AWS-related services.
      */
-    public OrderService(OrderRepository orderRepository, S3Service s3Service, SnsService snsService) {
+    public OrderService(OrderRepository orderRepository, S3Service s3Service, InvoiceRefRepository invoiceRefRepository,
+                        OutboxRepository outboxRepository, OrderEventCodec eventCodec, OrderCache orderCache,
+                        IdempotencyService idempotencyService, DependencyGuards guards,
+                        @Qualifier("ioExecutor") ExecutorService ioExecutor) {
         this.orderRepository = orderRepository;
         this.s3Service = s3Service;
-        this.snsService = snsService;
+        this.invoiceRefRepository = invoiceRefRepository;
+        this.outboxRepository = outboxRepository;
+        this.eventCodec = eventCodec;
+        this.orderCache = orderCache;
+        this.idempotencyService = idempotencyService;
+        this.guards = guards;
+        this.ioExecutor = ioExecutor;
     }
 
     /**
      * Creates a new order with optional invoice upload.
      * 
      * Process:
-     * 1. Generate UUID for the order.
-     * 2. If file is provided, upload it to S3 and save the file URL.
-     * 3. Save the order in DynamoDB.
-     * 4. Publish an SNS event indicating the new order.
+     * 1. Generate UUID for the order, drop any invoiceUrl the client sent and stamp its creation time.
+     * 2. If file is provided, upload it to S3 first, so no order ever points at a missing invoice.
+     *    Invoices are stored by content hash, so a retry or the same invoice on another order
+     *    reuses the stored object instead of uploading it again.
+     *    If S3 is unavailable (circuit open, bulkhead full or timed out), the order is still
+     *    accepted, without an invoice; it can be attached later through the upload API.
+     * 3. Save the order and its OrderCreated event (carrying the order itself) in one DynamoDB transaction.
+     *    The event is published to SNS later by {@link OutboxRelay}; it can't be lost once
+     *    the order exists, and SNS being slow or down doesn't affect the request.
+     * 4. Cache the order (new orders are the hottest reads).
      *
      * @param order The order details from client
      * @param file Optional invoice file
      * @return The saved Order object
      * @throws IOException If S3 upload fails
+     * @throws DependencyUnavailableException If DynamoDB is unavailable
      */
     public Order createOrder(Order order, MultipartFile file) throws IOException {
-        // Step 1: Assign unique order ID
-        String generatedOrderId = UUID.randomUUID().toString();
-        order.setOrderId(generatedOrderId);
-
-        // Step 2: Upload file to S3 if present
-        if (file != null && !file.isEmpty()) {
-            String invoiceUrl = s3Service.uploadFile(file);
-            order.setInvoiceUrl(invoiceUrl);
+        return create(order, uploadInvoice(file), UUID.randomUUID().toString(), System.currentTimeMillis());
+    }
+
+    /**
+     * Creates an order at most once per Idempotency-Key.
+     *
+     * The first request with a key creates the order as in {@link #createOrder(Order, MultipartFile)};
+     * retries with the same key and the same content get the original order back without
+     * writing to DynamoDB or publishing to SNS again.
+     *
+     * The invoice upload runs while the key is being reserved, so the request pays for the
+     * slower of the two instead of both. Invoices are stored by content hash, so when the
+     * request turns out to be a replay the upload only finds the object the original stored.
+     *
+     * @param order          The order details from client
+     * @param file           Optional invoice file
+     * @param idempotencyKey Client-chosen key identifying this create request
+     * @return What happened: created, replayed, still in progress elsewhere, or key reused
+     * @throws IOException If S3 upload fails (the key is released so the client can retry)
+     */
+    public IdempotencyService.Reservation createOrder(Order order, MultipartFile file, String idempotencyKey) throws IOException {
+        boolean hasFile = file != null && !file.isEmpty();
+        String requestHash = IdempotencyService.fingerprint(order,
+                hasFile ? file.getOriginalFilename() : null, hasFile ? file.getSize() : 0);
+
+        CompletableFuture<String> invoiceUpload = uploadInvoice(file);
+        IdempotencyService.Reservation reservation;
+        try {
+            reservation = idempotencyService.reserve(idempotencyKey, requestHash);
+        } catch (RuntimeException e) {
+            settle(invoiceUpload);
+            throw e;
+        }
+        if (reservation.outcome() != IdempotencyService.Outcome.ACQUIRED) {
+            settle(invoiceUpload);
+            logger.info("Idempotency key {} not processed again: {}", idempotencyKey, reservation.outcome());
+            return reservation;
+        }
+
+        if (order.getCreatedAt() == null) {
+            order.setCreatedAt(reservation.createdAt());
+        }
+        Order savedOrder;
+        try {
+            // The reservation time is the same on every attempt under this key, so a redone
+            // create rewrites the same OrderCreated event
+            savedOrder = create(order, invoiceUpload, reservation.orderId(), reservation.createdAt().getTime());
+        } catch (IOException | RuntimeException e) {
+            idempotencyService.release(idempotencyKey);
+            throw e;
+        }
+        idempotencyService.complete(idempotencyKey, requestHash, savedOrder);
+        return reservation.withOrder(savedOrder);
+    }
+
+    private Order create(Order order, CompletableFuture<String> invoiceUpload, String orderId, long createdAtMillis)
+            throws IOException {
+        // Step 1: Assign the order ID; the invoice is only ever set from an upload below or by
+        // InvoiceUploadService, never taken from the client (it would be signed for download)
+        order.setOrderId(orderId);
+        order.setInvoiceUrl(null);
+        if (order.getCreatedAt() == null) {
+            // createdAt is the sort key of the customer index, so every order needs one
+            order.setCreatedAt(new Date());
         }
 
-        // Step 3: Save the order in DynamoDB
-        Order savedOrder = orderRepository.save(order);
+        // Step 2: Wait for the invoice upload if there is one (skipped when the same bytes are
+        // already stored), referencing it before the order so a shared invoice is never deleted
+        // from under it
+        if (invoiceUpload != null) {
+            try {
+                String invoiceKey = await(invoiceUpload);
+                guards.dynamoDb().get(() -> {
+                    invoiceRefRepository.add(invoiceKey, orderId);
+                    return null;
+                });
+                order.setInvoiceUrl(invoiceKey);
+            } catch (DependencyUnavailableException e) {
+                if (!"s3".equals(e.getDependency())) {
+                    throw e;
+                }
+                logger.warn("Order {} accepted without its invoice: {}", orderId, e.getMessage());
+            }
+        }
 
-        // Step 4: Notify via SNS
-        snsService.publishOrderEvent("🆕 Order Created: " + savedOrder.getOrderId());
+        // Step 3: Save the order together with its event
+        OutboxEvent created = outboxRepository.createdEvent(order, createdAtMillis);
+        eventCodec.encodeInto(created, order);
+        guards.dynamoDb().get(() -> {
+            orderRepository.saveWithEvents(List.of(order), List.of(created));
+            return null;
+        });
+
+        // Step 4: Cache
+        orderCache.put(order);
+
+        return order;
+    }
 
-        return savedOrder;
+    /**
+     * Starts uploading the invoice through the S3 guard, or returns null without a file.
+     * Callers must wait for the upload before returning: the file is deleted with the request.
+     */
+    private CompletableFuture<String> uploadInvoice(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            return null;
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return guards.s3().call(() -> s3Service.uploadFile(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, ioExecutor);
+    }
+
+    private static String await(CompletableFuture<String> upload) throws IOException {
+        try {
+            return upload.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException("S3 upload failed", cause);
+        }
+    }
+
+    /**
+     * Waits for an upload whose result isn't needed, ignoring its outcome.
+     */
+    private static void settle(CompletableFuture<String> upload) {
+        if (upload != null) {
+            upload.handle((key, error) -> null).join();
+        }
     }
 
     /**
      * Retrieve a specific order by its ID.
+     * Served from the order cache when possible; misses are loaded once from DynamoDB.
      *
      * @param orderId The unique identifier of the order
      * @return Optional containing the order if it exists
      */
     public Optional<Order> getOrderById(String orderId) {
-        return orderRepository.findById(orderId);
+        return orderCache.get(orderId, id -> guards.dynamoDb().get(() -> orderRepository.findById(id)));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getOrderById(String)}.
+     * Cache misses are loaded with the async DynamoDB client, so no thread waits on the lookup.
+     *
+     * @param orderId The unique identifier of the order
+     * @return Future of an Optional containing the order if it exists
+     */
+    public CompletableFuture<Optional<Order>> getOrderByIdAsync(String orderId) {
+        return orderCache.getAsync(orderId, id -> guards.dynamoDb().async(() -> orderRepository.findByIdAsync(id)));
+    }
+
+    /**
+     * Fetch one page of orders.
+     *
+     * @param limit     Maximum number of orders in the page
+     * @param pageToken Continuation token from the previous page, or null for the first page
+     * @return The page of orders and the token for the next one
+     */
+    public OrderPage listOrders(int limit, String pageToken) {
+        return guards.dynamoDb().get(() -> orderRepository.scanPage(limit, pageToken));
+    }
+
+    /**
+     * Fetch one page of a customer's orders, sorted by creation time.
+     * Backed by the customerName/createdAt GSI, so no table scan is involved.
+     *
+     * @param customerName Customer whose orders to fetch
+     * @param from         Inclusive lower bound on createdAt, or null
+     * @param to           Inclusive upper bound on createdAt, or null
+     * @param limit        Maximum number of orders in the page
+     * @param pageToken    Continuation token from the previous page, or null for the first page
+     * @param ascending    True for oldest first, false for newest first
+     * @return The page of orders and the token for the next one
+     */
+    public OrderPage findOrdersByCustomer(String customerName, Date from, Date to,
+                                          int limit, String pageToken, boolean ascending) {
+        return guards.dynamoDb().get(() -> orderRepository.queryByCustomer(customerName, from, to, limit, pageToken, ascending));
+    }
+
+    /**
+     * Non-blocking variant of {@link #findOrdersByCustomer}.
+     */
+    public CompletableFuture<OrderPage> findOrdersByCustomerAsync(String customerName, Date from, Date to,
+                                                                  int limit, String pageToken, boolean ascending) {
+        return guards.dynamoDb().async(() -> orderRepository.queryByCustomerAsync(customerName, from, to, limit, pageToken, ascending));
     }
 
     /**
-     * Fetch all orders from the database.
-     * Note: Uses full table scan; optimize in production.
+     * Walk every order in the table, one scan page at a time.
+     * Each page is handed to the consumer and can be discarded before the next is fetched.
      *
-     * @return All stored orders
+     * @param pageSize     Number of items requested per scan page
+     * @param pageConsumer Callback invoked for each non-empty page
      */
-    public Iterable<Order> getAllOrders() {
-        return orderRepository.findAll();
+    public void streamOrders(int pageSize, Consumer<List<Order>> pageConsumer) {
+        orderRepository.scanAll(pageSize, pageConsumer);
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.sarvesh.orderservice.service;
+
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.sarvesh.orderservice.model.OrderEvent;
+
+/**
+ * Feeds every OrderCreated event into the live order stats.
+ */
+@Component
+public class OrderStatsEventHandler implements OrderEventHandler {
+
+    private final OrderStatsService orderStatsService;
+
+    public OrderStatsEventHandler(OrderStatsService orderStatsService) {
+        this.orderStatsService = orderStatsService;
+    }
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(OrderEvent.ORDER_CREATED);
+    }
+
+    @Override
+    public void handle(OrderEvent event) {
+        orderStatsService.record(event);
+    }
+}
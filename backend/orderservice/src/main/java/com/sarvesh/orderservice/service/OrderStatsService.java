@@ -0,0 +1,346 @@
+package com.sarvesh.orderservice.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderEvent;
+import com.sarvesh.orderservice.model.OrderStats;
+import com.sarvesh.orderservice.model.OrderStatsCheckpoint;
+import com.sarvesh.orderservice.model.OrderStatsReport;
+import com.sarvesh.orderservice.repository.OrderStatsRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Live order aggregates per customer and per time bucket, kept up to date from order events.
+ *
+ * How it works:
+ * - Every OrderCreated event this instance consumes adds the order's amount to the running
+ *   aggregate of its customer and of its time bucket (count, sum, min, max, histogram).
+ *   Redelivered events are recognised by eventId and counted once.
+ * - Changed aggregates are checkpointed to DynamoDB every {@code checkpoint-interval}, one row
+ *   per aggregate and instance. After a restart an instance with the same instance-id picks up
+ *   from its own rows the first time it touches an aggregate.
+ * - Aggregates that saw no orders for a whole checkpoint interval are dropped from memory once
+ *   their row is written (old time buckets, quiet customers), so memory follows the active
+ *   aggregates rather than every customer and hour ever seen. The next order restores the row.
+ * - Each instance only sees its share of the events, so reads merge the local live aggregate
+ *   (or, once dropped, this instance's row) with the other instances' latest checkpoints (one
+ *   query per aggregate, cached until their next checkpoint is due). Stats are therefore at most
+ *   one checkpoint interval behind, and no read ever scans the orders table.
+ *
+ * Without checkpoints nothing is dropped, since the live aggregates are all there is.
+ *
+ * Events consumed after an instance's last checkpoint are lost from the stats if it dies
+ * without a clean shutdown (a clean one writes a final checkpoint).
+ *
+ * Metrics: orders.stats.aggregates gauge, orders.stats.checkpoint.failed counter.
+ */
+@Service
+public class OrderStatsService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatsService.class);
+
+    private static final String CUSTOMER_PREFIX = "customer#";
+    private static final String BUCKET_PREFIX = "bucket#";
+
+    private final OrderStatsRepository statsRepository;
+    private final String instanceId;
+    private final Duration bucketSize;
+    private final int maxBuckets;
+    private final boolean checkpointEnabled;
+    private final Duration checkpointInterval;
+
+    private final Map<String, OrderAggregate> live = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> seenEvents;
+    private final AsyncCache<String, StoredRows> storedRows;
+    private final Counter checkpointFailures;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public OrderStatsService(OrderStatsRepository statsRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${orders.stats.instance-id}") String instanceId,
+                             @Value("${orders.stats.bucket-size}") Duration bucketSize,
+                             @Value("${orders.stats.max-buckets}") int maxBuckets,
+                             @Value("${orders.stats.dedupe.max-size}") long dedupeSize,
+                             @Value("${orders.stats.checkpoint.enabled}") boolean checkpointEnabled,
+                             @Value("${orders.stats.checkpoint.interval}") Duration checkpointInterval) {
+        this.statsRepository = statsRepository;
+        this.instanceId = instanceId;
+        this.bucketSize = bucketSize;
+        this.maxBuckets = maxBuckets;
+        this.checkpointEnabled = checkpointEnabled;
+        this.checkpointInterval = checkpointInterval;
+
+        this.seenEvents = Caffeine.newBuilder().maximumSize(dedupeSize).build();
+        // Other instances' rows only change when they checkpoint
+        this.storedRows = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(checkpointInterval)
+                .buildAsync();
+        this.checkpointFailures = Counter.builder("orders.stats.checkpoint.failed").register(meterRegistry);
+        Gauge.builder("orders.stats.aggregates", live, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Adds a created order to its customer and time bucket aggregates, once per event.
+     */
+    public void record(OrderEvent event) {
+        Order order = event.order();
+        if (order.getAmount() == null || order.getCreatedAt() == null) {
+            logger.debug("Order {} has no amount or creation time, not counted", order.getOrderId());
+            return;
+        }
+        if (seenEvents.asMap().putIfAbsent(event.eventId(), Boolean.TRUE) != null) {
+            logger.debug("Event {} already counted", event.eventId());
+            return;
+        }
+
+        if (order.getCustomerName() != null) {
+            recordLive(CUSTOMER_PREFIX + order.getCustomerName(), order.getAmount());
+        }
+        recordLive(bucketKey(bucketStart(order.getCreatedAt().toInstant())), order.getAmount());
+    }
+
+    /**
+     * Stats over every order of the customer.
+     */
+    public OrderStats customerStats(String customerName) {
+        String key = CUSTOMER_PREFIX + customerName;
+        return merged(List.of(key)).get(0).toStats(customerName);
+    }
+
+    /**
+     * Stats per time bucket between {@code from} and {@code to}, widened to whole buckets.
+     *
+     * @throws IllegalArgumentException if the range is empty or spans more than max-buckets
+     */
+    public OrderStatsReport rangeStats(Instant from, Instant to) {
+        Instant first = bucketStart(from);
+        if (!to.isAfter(first)) {
+            throw new IllegalArgumentException("to must be after from");
+        }
+        long bucketCount = (Duration.between(first, to).toMillis() + bucketSize.toMillis() - 1) / bucketSize.toMillis();
+        if (bucketCount > maxBuckets) {
+            throw new IllegalArgumentException("Range spans " + bucketCount + " buckets of " + bucketSize
+                    + "; at most " + maxBuckets + " are allowed");
+        }
+
+        List<Instant> starts = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < bucketCount; i++) {
+            Instant start = first.plus(bucketSize.multipliedBy(i));
+            starts.add(start);
+            keys.add(bucketKey(start));
+        }
+
+        List<OrderAggregate> aggregates = merged(keys);
+        OrderAggregate total = new OrderAggregate();
+        List<OrderStats> buckets = new ArrayList<>();
+        for (int i = 0; i < aggregates.size(); i++) {
+            OrderAggregate aggregate = aggregates.get(i);
+            if (aggregate.count() > 0) {
+                buckets.add(aggregate.toStats(starts.get(i).toString()));
+                total.add(aggregate);
+            }
+        }
+        Instant end = first.plus(bucketSize.multipliedBy(bucketCount));
+        return new OrderStatsReport(first, end, total.toStats("total"), buckets);
+    }
+
+    /**
+     * Writes every aggregate that changed since the last checkpoint, and drops those that
+     * didn't change since the one before (their rows are up to date).
+     *
+     * @return Number of aggregates written
+     */
+    int checkpoint() {
+        List<OrderStatsCheckpoint> changed = new ArrayList<>();
+        List<String> idle = new ArrayList<>();
+        live.forEach((key, aggregate) -> {
+            OrderStatsCheckpoint checkpoint = aggregate.takeCheckpoint(key, instanceId);
+            if (checkpoint != null) {
+                changed.add(checkpoint);
+            } else {
+                idle.add(key);
+            }
+        });
+        idle.forEach(this::evictIfClean);
+        if (changed.isEmpty()) {
+            return 0;
+        }
+
+        List<OrderStatsCheckpoint> failed;
+        try {
+            failed = statsRepository.saveAll(changed);
+        } catch (RuntimeException e) {
+            logger.warn("Order stats checkpoint failed: {}", e.getMessage());
+            failed = changed;
+        }
+        // Unwritten aggregates go out with the next checkpoint
+        failed.forEach(checkpoint -> live.get(checkpoint.getAggregateKey()).markDirty());
+        checkpointFailures.increment(failed.size());
+        return changed.size() - failed.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!checkpointEnabled) {
+            logger.info("Order stats checkpoints disabled");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("order-stats-checkpoint").daemon(true).factory());
+        long intervalMillis = checkpointInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::checkpointQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Order stats checkpoints every {} as instance {}", checkpointInterval, instanceId);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(checkpointInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Final checkpoint, so a clean shutdown loses nothing
+        checkpointQuietly();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Start before and stop after the SQS consumer that feeds it
+        return Integer.MAX_VALUE - 2000;
+    }
+
+    private void checkpointQuietly() {
+        try {
+            int written = checkpoint();
+            if (written > 0) {
+                logger.debug("Checkpointed {} order aggregates", written);
+            }
+        } catch (Exception e) {
+            logger.warn("Order stats checkpoint failed: {}", e.getMessage());
+        }
+    }
+
+    private void recordLive(String key, double amount) {
+        while (!liveAggregate(key).record(amount)) {
+            // Dropped by a checkpoint meanwhile; its row has everything, so restore it and go on
+            Thread.onSpinWait();
+        }
+    }
+
+    private void evictIfClean(String key) {
+        if (!checkpointEnabled) {
+            return;
+        }
+        if (live.computeIfPresent(key, (k, aggregate) -> aggregate.retireIfClean() ? null : aggregate) == null) {
+            // Reads take this instance's part from its row from now on; don't serve an older one
+            storedRows.synchronous().invalidate(key);
+        }
+    }
+
+    /**
+     * This instance's aggregate, restored from its own checkpoint on first use.
+     */
+    private OrderAggregate liveAggregate(String key) {
+        OrderAggregate aggregate = live.get(key);
+        if (aggregate != null) {
+            return aggregate;
+        }
+        OrderAggregate restored = restore(key);
+        aggregate = live.putIfAbsent(key, restored);
+        return aggregate != null ? aggregate : restored;
+    }
+
+    private OrderAggregate restore(String key) {
+        if (!checkpointEnabled) {
+            return new OrderAggregate();
+        }
+        try {
+            return statsRepository.find(key, instanceId).map(OrderAggregate::fromCheckpoint).orElseGet(OrderAggregate::new);
+        } catch (RuntimeException e) {
+            // Counting on from zero beats dropping the event; the next checkpoint overwrites the old row
+            logger.warn("Could not restore order aggregate {}: {}", key, e.getMessage());
+            return new OrderAggregate();
+        }
+    }
+
+    /**
+     * Live aggregates of this instance (or its row, for aggregates no longer in memory) merged
+     * with the other instances' checkpoints, in key order.
+     */
+    private List<OrderAggregate> merged(List<String> keys) {
+        List<CompletableFuture<StoredRows>> stored = keys.stream()
+                .map(key -> checkpointEnabled
+                        ? storedRows.get(key, (k, executor) -> loadStoredRows(k))
+                        : CompletableFuture.completedFuture(new StoredRows(new OrderAggregate(), new OrderAggregate())))
+                .toList();
+
+        List<OrderAggregate> result = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            StoredRows rows = stored.get(i).join();
+            OrderAggregate aggregate = rows.others().copy();
+            OrderAggregate local = live.get(keys.get(i));
+            aggregate.add(local != null ? local : rows.own());
+            result.add(aggregate);
+        }
+        return result;
+    }
+
+    private CompletableFuture<StoredRows> loadStoredRows(String key) {
+        return statsRepository.findAllAsync(key).thenApply(rows -> {
+            OrderAggregate others = new OrderAggregate();
+            OrderAggregate own = new OrderAggregate();
+            rows.forEach(row -> (instanceId.equals(row.getInstanceId()) ? own : others).add(OrderAggregate.fromCheckpoint(row)));
+            return new StoredRows(others, own);
+        });
+    }
+
+    /** Checkpointed rows of one aggregate: the other instances' merged, and this instance's. */
+    private record StoredRows(OrderAggregate others, OrderAggregate own) {
+    }
+
+    private Instant bucketStart(Instant instant) {
+        long size = bucketSize.toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(instant.toEpochMilli(), size) * size);
+    }
+
+    private static String bucketKey(Instant bucketStart) {
+        return BUCKET_PREFIX + bucketStart;
+    }
+}
@@ -0,0 +1,280 @@
+package com.sarvesh.orderservice.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import com.sarvesh.orderservice.model.OutboxEvent;
+import com.sarvesh.orderservice.repository.OutboxRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
+import software.amazon.awssdk.services.sns.model.PublishBatchResultEntry;
+
+/**
+ * Drains the order outbox to SNS in the background.
+ *
+ * How it works:
+ * - Outbox shards are split between worker threads (shard % workers), so each shard is read
+ *   by exactly one thread and its events are relayed in the order they were written.
+ * - A worker reads the oldest events of a shard and publishes them with PublishBatch (max 10).
+ *   A batch holds at most one event per order, so a later event of an order is never published
+ *   before an earlier one has gone out.
+ * - Published events are deleted from the outbox. Failed entries stay and are retried, with
+ *   exponential backoff per shard; entries SNS rejects as invalid are logged and dropped.
+ * - Delivery is at-least-once: a crash between publish and delete republishes the event.
+ *   Every message carries its eventId as a message attribute so consumers can dedupe, plus
+ *   eventType, contentType and schemaVersion for subscription filter policies.
+ *
+ * Metrics: orders.outbox.lag (time from order write to publish) and
+ * orders.outbox.{published,retried,dead} counters.
+ */
+@Service
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    /** SNS PublishBatch accepts at most 10 entries per call. */
+    static final int MAX_BATCH_SIZE = 10;
+
+    /** Events read per shard and round; more than a batch, so one busy order doesn't stall the others. */
+    private static final int HEAD_SIZE = 25;
+
+    private final OutboxRepository outboxRepository;
+    private final SnsService snsService;
+    private final boolean enabled;
+    private final int workerCount;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final Timer lag;
+    private final Counter published;
+    private final Counter retried;
+    private final Counter dead;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       SnsService snsService,
+                       MeterRegistry meterRegistry,
+                       @Value("${orders.outbox.relay.enabled}") boolean enabled,
+                       @Value("${orders.outbox.relay.workers}") int workerCount,
+                       @Value("${orders.outbox.relay.batch-size}") int batchSize,
+                       @Value("${orders.outbox.relay.poll-interval}") Duration pollInterval,
+                       @Value("${orders.outbox.relay.initial-backoff}") Duration initialBackoff,
+                       @Value("${orders.outbox.relay.max-backoff}") Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.snsService = snsService;
+        this.enabled = enabled;
+        this.workerCount = Math.max(1, Math.min(workerCount, outboxRepository.shards()));
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+
+        this.lag = Timer.builder("orders.outbox.lag").publishPercentileHistogram().register(meterRegistry);
+        this.published = Counter.builder("orders.outbox.published").register(meterRegistry);
+        this.retried = Counter.builder("orders.outbox.retried").register(meterRegistry);
+        this.dead = Counter.builder("orders.outbox.dead").register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            logger.info("Outbox relay disabled");
+            return;
+        }
+
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            int worker = i;
+            workers.add(Thread.ofPlatform().name("outbox-relay-" + i).daemon(true).start(() -> relayLoop(worker)));
+        }
+        logger.info("Outbox relay started with {} workers over {} shards", workerCount, outboxRepository.shards());
+    }
+
+    private void relayLoop(int worker) {
+        List<Integer> shards = new ArrayList<>();
+        for (int shard = worker; shard < outboxRepository.shards(); shard += workerCount) {
+            shards.add(shard);
+        }
+        long[] backoffMillis = new long[shards.size()];
+        long[] nextAttemptAt = new long[shards.size()];
+
+        while (running) {
+            boolean busy = false;
+            for (int i = 0; i < shards.size() && running; i++) {
+                long now = System.currentTimeMillis();
+                if (now < nextAttemptAt[i]) {
+                    continue;
+                }
+                int shard = shards.get(i);
+                try {
+                    RelayResult result = relayShard(shard);
+                    if (result.retrying() == 0) {
+                        backoffMillis[i] = 0;
+                        // A full head means the shard probably has more waiting
+                        busy |= result.read() == HEAD_SIZE;
+                        continue;
+                    }
+                } catch (Exception e) {
+                    logger.warn("Relaying outbox shard {} failed: {}", shard, e.getMessage());
+                }
+                backoffMillis[i] = Math.min(Math.max(backoffMillis[i] * 2, initialBackoffMillis), maxBackoffMillis);
+                nextAttemptAt[i] = now + backoffMillis[i];
+            }
+            if (!busy && !sleep(pollIntervalMillis)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Publishes the oldest events of one shard and removes the published ones from the outbox.
+     */
+    RelayResult relayShard(int shard) {
+        List<OutboxEvent> head = outboxRepository.head(shard, HEAD_SIZE);
+        List<OutboxEvent> batch = nextBatch(head);
+        if (batch.isEmpty()) {
+            return new RelayResult(head.size(), 0, 0);
+        }
+
+        List<PublishBatchRequestEntry> entries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            entries.add(PublishBatchRequestEntry.builder()
+                    .id(Integer.toString(i))
+                    .message(event.getPayload())
+                    .messageAttributes(attributes(event))
+                    .build());
+        }
+
+        PublishBatchResponse response = snsService.publishBatch(entries);
+
+        List<OutboxEvent> done = new ArrayList<>(batch.size());
+        long now = System.currentTimeMillis();
+        for (PublishBatchResultEntry success : response.successful()) {
+            OutboxEvent event = batch.get(Integer.parseInt(success.id()));
+            lag.record(Math.max(now - event.getCreatedAt(), 0), TimeUnit.MILLISECONDS);
+            done.add(event);
+        }
+        published.increment(response.successful().size());
+
+        int retrying = 0;
+        for (BatchResultErrorEntry error : response.failed()) {
+            OutboxEvent event = batch.get(Integer.parseInt(error.id()));
+            if (Boolean.TRUE.equals(error.senderFault())) {
+                // Publishing it again can't succeed; don't let it block the order's later events
+                dead.increment();
+                logger.error("❌ SNS rejected outbox event {} for order {} ({}: {}), dropping it",
+                        event.getEventId(), event.getOrderId(), error.code(), error.message());
+                done.add(event);
+            } else {
+                retried.increment();
+                retrying++;
+            }
+        }
+
+        outboxRepository.delete(done);
+        return new RelayResult(head.size(), done.size(), retrying);
+    }
+
+    /**
+     * Takes events in outbox order, skipping any event whose order already has an earlier
+     * event in the batch (or one skipped before it), so per-order ordering is kept.
+     */
+    private List<OutboxEvent> nextBatch(List<OutboxEvent> head) {
+        List<OutboxEvent> batch = new ArrayList<>(batchSize);
+        Set<String> seenOrders = new HashSet<>();
+        for (OutboxEvent event : head) {
+            if (batch.size() == batchSize) {
+                break;
+            }
+            if (seenOrders.add(event.getOrderId())) {
+                batch.add(event);
+            }
+        }
+        return batch;
+    }
+
+    private static Map<String, MessageAttributeValue> attributes(OutboxEvent event) {
+        Map<String, MessageAttributeValue> attributes = new HashMap<>();
+        attributes.put(OrderEventCodec.ATTRIBUTE_EVENT_ID, stringAttribute(event.getEventId()));
+        attributes.put(OrderEventCodec.ATTRIBUTE_EVENT_TYPE, stringAttribute(event.getEventType()));
+        if (event.getContentType() != null) {
+            attributes.put(OrderEventCodec.ATTRIBUTE_CONTENT_TYPE, stringAttribute(event.getContentType()));
+        }
+        if (event.getSchemaVersion() != null) {
+            attributes.put(OrderEventCodec.ATTRIBUTE_SCHEMA_VERSION, MessageAttributeValue.builder()
+                    .dataType("Number")
+                    .stringValue(event.getSchemaVersion().toString())
+                    .build());
+        }
+        return attributes;
+    }
+
+    private static MessageAttributeValue stringAttribute(String value) {
+        return MessageAttributeValue.builder().dataType("String").stringValue(value).build();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        workers.forEach(Thread::interrupt);
+        try {
+            for (Thread worker : workers) {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // A restart starts a fresh set of workers
+            workers.clear();
+        }
+        logger.info("Outbox relay stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * What one round on a shard did: events read, events removed from the outbox, and
+     * events left for a retry.
+     */
+    record RelayResult(int read, int relayed, int retrying) {
+    }
+}
@@ -1,24 +1,41 @@
 package com.sarvesh.orderservice.service;
 
 import java.io.IOException;
-import java.net.URI;
-import java.util.UUID;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
 import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
 import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
@@ -27,49 +44,62 @@ public class S3Service {
 
     private static final Logger logger = LoggerFactory.getLogger(S3Service.class);
 
-    private S3Client s3Client;
+    /** Prefix of content-addressed objects; the rest of the key is the hex SHA-256 of the bytes. */
+    public static final String CONTENT_KEY_PREFIX = "blobs/sha256/";
 
-    // Inject region, endpoint, and bucket name from application properties
-    @Value("${aws.region}")
-    private String region;
+    private static final Pattern CONTENT_KEY = Pattern.compile(Pattern.quote(CONTENT_KEY_PREFIX) + "[0-9a-f]{64}");
 
-    @Value("${aws.s3.endpoint}")
-    private String endpoint;
+    private final S3Client s3Client;
 
+    // Inject bucket name from application properties
     @Value("${aws.s3.bucket}")
     private String bucketName;
 
+    // Uploads larger than this use S3 multipart upload; heap use is bounded by partSize * partConcurrency
+    @Value("${aws.s3.multipart.threshold}")
+    private DataSize multipartThreshold;
+
+    @Value("${aws.s3.multipart.part-size}")
+    private DataSize partSize;
+
+    @Value("${aws.s3.multipart.concurrency}")
+    private int partConcurrency;
+
+    private final ExecutorService ioExecutor;
+    private final DistributionSummary uploadSizes;
+    private final Counter deduplicatedUploads;
+    private final Counter deduplicatedBytes;
+
+    public S3Service(S3Client s3Client,
+                     @Qualifier("ioExecutor") ExecutorService ioExecutor,
+                     MeterRegistry meterRegistry) {
+        this.s3Client = s3Client;
+        this.ioExecutor = ioExecutor;
+        this.uploadSizes = DistributionSummary.builder("orders.invoice.upload.size")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.deduplicatedUploads = Counter.builder("orders.invoice.upload.deduplicated")
+                .description("Invoice uploads skipped because the same content was already stored")
+                .register(meterRegistry);
+        this.deduplicatedBytes = Counter.builder("orders.invoice.upload.deduplicated.bytes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
     /**
-     * Initializes the S3 client after the service is constructed.
-     * Connects to the LocalStack S3 endpoint with dummy credentials.
+     * Makes sure the bucket exists once the service is constructed.
+     * The client itself is the shared one from AwsClientConfig.
      */
     @PostConstruct
     public void init() {
         try {
-            logger.info("Initializing S3 client for region '{}' and endpoint '{}'", region, endpoint);
-
-            // Build the S3 client pointing to LocalStack
-            this.s3Client = S3Client.builder()
-                    .endpointOverride(URI.create(endpoint)) // LocalStack URI (e.g. http://localhost:4566)
-                    .region(Region.of(region))
-                    .credentialsProvider(
-                            StaticCredentialsProvider.create(
-                                    AwsBasicCredentials.create("test", "test") // dummy creds for LocalStack
-                            )
-                    )
-                    .serviceConfiguration(
-                            S3Configuration.builder()
-                                    .pathStyleAccessEnabled(true) // Required for LocalStack
-                                    .build()
-                    )
-                    .build();
-
             // Create the bucket if it doesn't already exist
             createBucketIfNotExists(bucketName);
 
         } catch (Exception e) {
-            logger.error("Failed to initialize S3 client: {}", e.getMessage(), e);
-            throw new RuntimeException("S3 client initialization failed", e);
+            logger.error("Failed to initialize S3 bucket: {}", e.getMessage(), e);
+            throw new RuntimeException("S3 bucket initialization failed", e);
         }
     }
 
@@ -98,42 +128,233 @@ public class S3Service {
     }
 
     /**
-     * Uploads the given file to S3 under a unique key.
+     * Stores the given file under a key derived from its content.
+     *
+     * The file is hashed in one streaming pass and kept as blobs/sha256/{hash}. If an object
+     * with that key and size is already stored (a retry, or the same invoice on another order),
+     * the upload is skipped; otherwise it is uploaded with its SHA-256 checksum so S3 rejects
+     * bytes that don't match the key. Objects under a content key are never overwritten with
+     * different bytes, so callers may treat them as immutable.
      *
      * @param file MultipartFile to be uploaded
-     * @return Generated key used for the file in S3
-     * @throws IOException if upload fails
+     * @return Content key the file is stored under
+     * @throws IOException if reading the file or the upload fails
      */
     public String uploadFile(MultipartFile file) throws IOException {
+        ContentHash hash = contentHash(file);
+        String key = CONTENT_KEY_PREFIX + hash.hex();
+
+        if (exists(key, file.getSize())) {
+            deduplicatedUploads.increment();
+            deduplicatedBytes.increment(file.getSize());
+            logger.info("File '{}' already stored as '{}', upload skipped", file.getOriginalFilename(), key);
+            return key;
+        }
+        uploadFile(file, key, hash.base64());
+        return key;
+    }
+
+    /**
+     * Whether the key is a content key as returned by {@link #uploadFile(MultipartFile)}.
+     */
+    public static boolean isContentKey(String key) {
+        return CONTENT_KEY.matcher(key).matches();
+    }
+
+    /**
+     * SHA-256 of the file, computed while streaming it once.
+     *
+     * @throws IllegalArgumentException if the file is missing, empty or unnamed
+     */
+    public ContentHash contentHash(MultipartFile file) throws IOException {
         // Validate input
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File must not be null or empty");
         }
-
         String originalFilename = file.getOriginalFilename();
         if (originalFilename == null || originalFilename.isBlank()) {
             throw new IllegalArgumentException("File must have a valid name");
         }
 
-        // Create a unique S3 key using UUID
-        String key = UUID.randomUUID() + "_" + originalFilename;
-
-        // Prepare the PutObject request
-        PutObjectRequest request = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(key)
-                .contentType(file.getContentType())
-                .build();
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return new ContentHash(digest.digest());
+    }
 
+    /**
+     * Whether an object of the given size is stored under the key.
+     */
+    public boolean exists(String key, long size) {
         try {
-            // Upload to S3
-            s3Client.putObject(request, RequestBody.fromBytes(file.getBytes()));
+            return s3Client.headObject(r -> r.bucket(bucketName).key(key)).contentLength() == size;
+        } catch (NoSuchKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * A SHA-256 digest, hex-encoded for keys and base64-encoded for S3 checksums.
+     */
+    public record ContentHash(byte[] bytes) {
+
+        public String hex() {
+            return HexFormat.of().formatHex(bytes);
+        }
+
+        public String base64() {
+            return Base64.getEncoder().encodeToString(bytes);
+        }
+    }
+
+    /**
+     * Uploads the given file to S3 under the given key.
+     * The file is streamed, never copied into a byte[] as a whole.
+     *
+     * @param file MultipartFile to be uploaded
+     * @param key  Key to store the file under
+     * @throws IOException if upload fails
+     */
+    public void uploadFile(MultipartFile file, String key) throws IOException {
+        uploadFile(file, key, null);
+    }
+
+    private void uploadFile(MultipartFile file, String key, String sha256) throws IOException {
+        String originalFilename = file.getOriginalFilename();
+
+        uploadSizes.record(file.getSize());
+        try (InputStream in = file.getInputStream()) {
+            uploadStream(key, file.getContentType(), in, file.getSize(), sha256);
             logger.info("File '{}' uploaded successfully to bucket '{}' with key '{}'", originalFilename, bucketName, key);
-        } catch (S3Exception e) {
-            logger.error("Failed to upload file '{}' to bucket '{}': {}", originalFilename, bucketName, e.awsErrorDetails().errorMessage(), e);
-            throw new IOException("S3 upload failed", e);
+        } catch (IOException e) {
+            logger.error("Failed to upload file '{}' to bucket '{}': {}", originalFilename, bucketName, e.getMessage(), e);
+            throw e;
         }
+    }
 
-        return key;
+    /**
+     * Streams data into S3.
+     *
+     * Small payloads of known length go up in a single PutObject. Everything else (larger
+     * than the multipart threshold, or of unknown length) is sent as a multipart upload whose
+     * parts are uploaded in parallel; an incomplete multipart upload is aborted on failure.
+     *
+     * @param key           Key to store the data under
+     * @param contentType   Content type of the object, may be null
+     * @param in            Data to upload; not closed by this method
+     * @param contentLength Length in bytes, or -1 if unknown
+     * @throws IOException if reading the stream or the upload fails
+     */
+    public void uploadStream(String key, String contentType, InputStream in, long contentLength) throws IOException {
+        uploadStream(key, contentType, in, contentLength, null);
+    }
+
+    private void uploadStream(String key, String contentType, InputStream in, long contentLength,
+                              String sha256) throws IOException {
+        if (contentLength >= 0 && contentLength <= multipartThreshold.toBytes()) {
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)
+                    // S3 verifies the bytes against it; only known for content-addressed uploads
+                    .checksumSHA256(sha256)
+                    .build();
+            try {
+                s3Client.putObject(request, RequestBody.fromInputStream(in, contentLength));
+            } catch (S3Exception e) {
+                throw new IOException("S3 upload failed: " + e.awsErrorDetails().errorMessage(), e);
+            }
+            return;
+        }
+
+        uploadMultipart(key, contentType, in);
+    }
+
+    private void uploadMultipart(String key, String contentType, InputStream in) throws IOException {
+        String uploadId = s3Client.createMultipartUpload(r -> r.bucket(bucketName).key(key).contentType(contentType))
+                .uploadId();
+        logger.debug("Started multipart upload {} for key '{}'", uploadId, key);
+
+        int partBytes = (int) partSize.toBytes();
+        Semaphore partSlots = new Semaphore(partConcurrency);
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        // Set on failure; parts that haven't started yet then skip their upload
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        try {
+            int partNumber = 1;
+            while (true) {
+                // Wait for a free slot before reading, so at most partConcurrency parts are buffered
+                partSlots.acquire();
+                byte[] buffer = in.readNBytes(partBytes);
+                if (buffer.length == 0 && partNumber > 1) {
+                    partSlots.release();
+                    break;
+                }
+
+                int currentPart = partNumber++;
+                parts.add(CompletableFuture
+                        .supplyAsync(() -> {
+                            if (cancelled.get()) {
+                                throw new CancellationException("Multipart upload " + uploadId + " failed");
+                            }
+                            return uploadPart(key, uploadId, currentPart, buffer);
+                        }, ioExecutor)
+                        .whenComplete((part, error) -> partSlots.release()));
+
+                if (buffer.length < partBytes || parts.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    break;
+                }
+            }
+
+            List<CompletedPart> completedParts = new ArrayList<>(parts.size());
+            for (CompletableFuture<CompletedPart> part : parts) {
+                completedParts.add(part.join());
+            }
+
+            s3Client.completeMultipartUpload(r -> r.bucket(bucketName).key(key).uploadId(uploadId)
+                    .multipartUpload(m -> m.parts(completedParts)));
+            logger.debug("Completed multipart upload {} for key '{}' with {} parts", uploadId, key, completedParts.size());
+
+        } catch (Exception e) {
+            // S3 may still store a part that is in flight while the upload is aborted, leaving
+            // storage behind, so let the running parts finish and the pending ones skip first
+            cancelled.set(true);
+            CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+                    .handle((ignored, error) -> null)
+                    .join();
+            abortMultipart(key, uploadId);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            throw new IOException("S3 multipart upload failed", cause);
+        }
+    }
+
+    private CompletedPart uploadPart(String key, String uploadId, int partNumber, byte[] data) {
+        String eTag = s3Client.uploadPart(
+                r -> r.bucket(bucketName).key(key).uploadId(uploadId).partNumber(partNumber).contentLength((long) data.length),
+                RequestBody.fromBytes(data)).eTag();
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void abortMultipart(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(r -> r.bucket(bucketName).key(key).uploadId(uploadId));
+            logger.warn("Aborted multipart upload {} for key '{}'", uploadId, key);
+        } catch (Exception e) {
+            logger.error("Failed to abort multipart upload {} for key '{}'", uploadId, key, e);
+        }
     }
 }
\ No newline at end of file
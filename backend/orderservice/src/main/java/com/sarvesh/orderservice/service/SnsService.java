@@ -2,55 +2,43 @@ package com.sarvesh.orderservice.service;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import jakarta.annotation.PostConstruct;
+
 import lombok.extern.slf4j.Slf4j;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sns.SnsClient;
-import software.amazon.awssdk.services.sns.model.PublishRequest;
-import software.amazon.awssdk.services.sns.model.PublishResponse;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
 
-import java.net.URI;
+import java.util.List;
 
 @Service
 @Slf4j
 public class SnsService {
 
-    @Value("${aws.sns.endpoint}")
-    private String snsEndpoint;
-
-    @Value("${aws.sns.region}")
-    private String region;
-
     @Value("${aws.sns.topicArn}")
     private String topicArn;
 
-    private SnsClient snsClient;
+    private final SnsClient snsClient;
+    private final DependencyGuard guard;
 
-    @PostConstruct
-    public void init() {
-        this.snsClient = SnsClient.builder()
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create("test", "test")))
-                .endpointOverride(URI.create(snsEndpoint))
-                .region(Region.of(region))
-                .build();
-
-        log.info("✅ SNS Client initialized with endpoint: {}", snsEndpoint);
+    public SnsService(SnsClient snsClient, DependencyGuards guards) {
+        this.snsClient = snsClient;
+        this.guard = guards.sns();
     }
 
-    public void publishOrderEvent(String message) {
-        try {
-            PublishRequest request = PublishRequest.builder()
-                    .topicArn(topicArn)
-                    .message(message)
-                    .build();
-
-            PublishResponse response = snsClient.publish(request);
-            log.info("📣 Published to SNS. MessageId: {}", response.messageId());
-        } catch (Exception e) {
-            log.error("❌ Failed to publish to SNS", e);
-        }
+    /**
+     * Publishes up to 10 messages in a single PublishBatch call.
+     * Per-entry failures are reported in the response rather than thrown;
+     * an unavailable SNS throws {@link DependencyUnavailableException}.
+     */
+    public PublishBatchResponse publishBatch(List<PublishBatchRequestEntry> entries) {
+        PublishBatchRequest request = PublishBatchRequest.builder()
+                .topicArn(topicArn)
+                .publishBatchRequestEntries(entries)
+                .build();
+
+        PublishBatchResponse response = guard.get(() -> snsClient.publishBatch(request));
+        log.debug("📣 Published batch to SNS. Succeeded: {}, failed: {}", response.successful().size(), response.failed().size());
+        return response;
     }
 }
\ No newline at end of file
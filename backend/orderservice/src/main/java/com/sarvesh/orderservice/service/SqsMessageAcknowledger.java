@@ -0,0 +1,145 @@
+package com.sarvesh.orderservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+
+/**
+ * Collects receipt handles of processed messages and deletes them with DeleteMessageBatch.
+ *
+ * A batch is sent as soon as 10 handles are pending, and whatever is left is sent on
+ * every {@link #flush()} (called periodically by the consumer). Deletes run on the
+ * acknowledger's own thread, so a slow DeleteMessageBatch never holds up the partition
+ * thread that finished the message; {@link #close()} sends what is still pending and
+ * stops that thread. Failed deletes are only
+ * logged: the message becomes visible again and is redelivered, which consumers of an
+ * at-least-once queue must tolerate anyway.
+ */
+class SqsMessageAcknowledger {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqsMessageAcknowledger.class);
+
+    /** SQS batch APIs accept at most 10 entries per call. */
+    private static final int MAX_BATCH_SIZE = 10;
+
+    private final SqsClient sqsClient;
+    private final String queueUrl;
+    private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ExecutorService deleter;
+
+    SqsMessageAcknowledger(SqsClient sqsClient, String queueUrl) {
+        this.sqsClient = sqsClient;
+        this.queueUrl = queueUrl;
+        this.deleter = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sqs-acknowledger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void acknowledge(String receiptHandle) {
+        pending.add(receiptHandle);
+        if (pendingCount.incrementAndGet() >= MAX_BATCH_SIZE) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Deletes everything acknowledged so far, including a final partial batch.
+     */
+    void flush() {
+        try {
+            deleter.execute(() -> drain(true));
+        } catch (RejectedExecutionException e) {
+            // Closed; close() has already sent what was pending
+        }
+    }
+
+    /**
+     * Waits for queued deletes, sends whatever is still pending on the calling thread and
+     * stops the delete thread.
+     */
+    void close() {
+        deleter.shutdown();
+        try {
+            if (!deleter.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("SQS deletes still running at shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain(true);
+    }
+
+    private void scheduleDrain() {
+        // One queued drain at a time; it keeps sending until less than a full batch is left
+        if (!drainScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            deleter.execute(() -> {
+                drainScheduled.set(false);
+                drain(false);
+            });
+        } catch (RejectedExecutionException e) {
+            drainScheduled.set(false);
+        }
+    }
+
+    private void drain(boolean includePartial) {
+        while (true) {
+            List<String> batch = new ArrayList<>(MAX_BATCH_SIZE);
+            String handle;
+            while (batch.size() < MAX_BATCH_SIZE && (handle = pending.poll()) != null) {
+                batch.add(handle);
+            }
+            pendingCount.addAndGet(-batch.size());
+
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (batch.size() < MAX_BATCH_SIZE && !includePartial) {
+                // Put the partial batch back for the next full batch or periodic flush
+                pending.addAll(batch);
+                pendingCount.addAndGet(batch.size());
+                return;
+            }
+            deleteBatch(batch);
+        }
+    }
+
+    private void deleteBatch(List<String> receiptHandles) {
+        List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(receiptHandles.size());
+        for (int i = 0; i < receiptHandles.size(); i++) {
+            entries.add(DeleteMessageBatchRequestEntry.builder()
+                    .id(Integer.toString(i))
+                    .receiptHandle(receiptHandles.get(i))
+                    .build());
+        }
+
+        try {
+            DeleteMessageBatchResponse response = sqsClient.deleteMessageBatch(r -> r.queueUrl(queueUrl).entries(entries));
+            for (BatchResultErrorEntry error : response.failed()) {
+                logger.warn("Failed to delete SQS message (entry {}): {} {}", error.id(), error.code(), error.message());
+            }
+        } catch (Exception e) {
+            logger.error("DeleteMessageBatch of {} messages failed; they will be redelivered", entries.size(), e);
+        }
+    }
+}
@@ -1,39 +1,438 @@
 package com.sarvesh.orderservice.service;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.stereotype.Service;
+
+import com.sarvesh.orderservice.model.OrderEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.*;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
 
+/**
+ * Consumes the order queue with several concurrent long-poll loops.
+ *
+ * How it works:
+ * - Each poller immediately issues the next ReceiveMessage (long poll) after the previous one
+ *   returns, so there is no idle gap between receives.
+ * - Messages are decoded into {@link OrderEvent}s with {@link OrderEventCodec}; the event
+ *   carries the order, so handling it needs no DynamoDB read.
+ * - Events are handed to the registered {@link OrderEventHandler}s through
+ *   {@link OrderEventDispatcher}: in order per order id, in parallel across order ids.
+ *   A semaphore caps the number of in-flight messages; pollers only ask SQS for as many
+ *   messages as there is capacity for (backpressure).
+ * - Successfully handled messages are deleted with DeleteMessageBatch.
+ * - A heartbeat extends the visibility timeout of messages whose handlers are still running,
+ *   so slow handlers don't cause duplicate deliveries.
+ * - Poison messages go to the dead-letter queue and are deleted: at once if they can't be
+ *   decoded, otherwise once handling has failed on max-receives deliveries.
+ *
+ * Metrics: sqs.consumer.lag (time from send to receive), sqs.consumer.processing (time from
+ * receive to done, tagged by outcome), sqs.consumer.dead-lettered (tagged by reason) and the
+ * sqs.consumer.in-flight gauge; per-handler timers come from {@link OrderEventDispatcher}.
+ */
 @Service
-public class SqsPollerService {
+public class SqsPollerService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqsPollerService.class);
+
+    /** SQS returns at most 10 messages per receive. */
+    private static final int MAX_MESSAGES_PER_RECEIVE = 10;
 
     private final SqsClient sqsClient;
+    private final OrderEventCodec eventCodec;
+    private final List<OrderEventHandler> handlers;
+    private final MeterRegistry meterRegistry;
     private final String queueUrl;
+    private final String deadLetterQueueUrl;
+    private final boolean enabled;
+    private final int pollerCount;
+    private final int partitions;
+    private final int maxReceives;
+    private final int waitTimeSeconds;
+    private final int visibilityTimeoutSeconds;
+    private final long heartbeatMillis;
+    private final Duration ackFlushInterval;
 
-    public SqsPollerService(SqsClient sqsClient, @Value("${aws.sqs.queueUrl}") String queueUrl) {
+    private final Semaphore inFlightPermits;
+    private final Map<String, InFlightMessage> inFlight = new ConcurrentHashMap<>();
+
+    private final Timer consumerLag;
+    private final Timer processedSuccess;
+    private final Timer processedFailure;
+    private final Counter deadLetteredUndecodable;
+    private final Counter deadLetteredExhausted;
+
+    private final List<Thread> pollers = new ArrayList<>();
+    private OrderEventDispatcher dispatcher;
+    private SqsMessageAcknowledger acknowledger;
+    private ScheduledExecutorService housekeeping;
+    private volatile boolean running;
+
+    public SqsPollerService(SqsClient sqsClient,
+                            OrderEventCodec eventCodec,
+                            List<OrderEventHandler> handlers,
+                            @Value("${aws.sqs.queueUrl}") String queueUrl,
+                            @Value("${aws.sqs.consumer.dead-letter-queue-url}") String deadLetterQueueUrl,
+                            @Value("${aws.sqs.consumer.enabled}") boolean enabled,
+                            @Value("${aws.sqs.consumer.pollers}") int pollerCount,
+                            @Value("${aws.sqs.consumer.partitions}") int partitions,
+                            @Value("${aws.sqs.consumer.max-receives}") int maxReceives,
+                            @Value("${aws.sqs.consumer.max-in-flight}") int maxInFlight,
+                            @Value("${aws.sqs.consumer.wait-time-seconds}") int waitTimeSeconds,
+                            @Value("${aws.sqs.consumer.visibility-timeout-seconds}") int visibilityTimeoutSeconds,
+                            @Value("${aws.sqs.consumer.ack-flush-interval}") Duration ackFlushInterval,
+                            MeterRegistry meterRegistry) {
         this.sqsClient = sqsClient;
+        this.eventCodec = eventCodec;
+        this.handlers = handlers;
+        this.meterRegistry = meterRegistry;
         this.queueUrl = queueUrl;
+        this.deadLetterQueueUrl = deadLetterQueueUrl;
+        this.enabled = enabled;
+        this.pollerCount = pollerCount;
+        this.partitions = partitions;
+        this.maxReceives = maxReceives;
+        this.waitTimeSeconds = waitTimeSeconds;
+        this.visibilityTimeoutSeconds = visibilityTimeoutSeconds;
+        // Three beats per visibility window, so a message is always extended with a beat to spare
+        this.heartbeatMillis = Math.max(TimeUnit.SECONDS.toMillis(visibilityTimeoutSeconds) / 3, 1);
+        this.ackFlushInterval = ackFlushInterval;
+        this.inFlightPermits = new Semaphore(maxInFlight);
+
+        this.consumerLag = Timer.builder("sqs.consumer.lag").publishPercentileHistogram().register(meterRegistry);
+        this.processedSuccess = processingTimer(meterRegistry, "success");
+        this.processedFailure = processingTimer(meterRegistry, "failure");
+        this.deadLetteredUndecodable = deadLetterCounter(meterRegistry, "undecodable");
+        this.deadLetteredExhausted = deadLetterCounter(meterRegistry, "exhausted");
+        Gauge.builder("sqs.consumer.in-flight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    private static Timer processingTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("sqs.consumer.processing")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter deadLetterCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("sqs.consumer.dead-lettered").tag("reason", reason).register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            logger.info("SQS consumer disabled");
+            return;
+        }
+
+        running = true;
+        dispatcher = new OrderEventDispatcher(handlers, partitions, meterRegistry);
+        acknowledger = new SqsMessageAcknowledger(sqsClient, queueUrl);
+        housekeeping = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sqs-housekeeping");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeping.scheduleWithFixedDelay(acknowledger::flush,
+                ackFlushInterval.toMillis(), ackFlushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        housekeeping.scheduleWithFixedDelay(() -> extendVisibility(System.currentTimeMillis()),
+                heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < pollerCount; i++) {
+            pollers.add(Thread.ofPlatform().name("sqs-poller-" + i).daemon(true).start(this::pollLoop));
+        }
+        logger.info("SQS consumer started with {} pollers on {}", pollerCount, queueUrl);
     }
 
-    @Scheduled(fixedDelay = 10000)
-    public void pollMessages() {
+    private void pollLoop() {
+        long backoffMillis = 0;
+        while (running) {
+            int permits;
+            try {
+                permits = acquireCapacity();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            List<Message> messages;
+            try {
+                messages = receive(permits);
+                backoffMillis = 0;
+            } catch (Exception e) {
+                inFlightPermits.release(permits);
+                if (!running) {
+                    return;
+                }
+                backoffMillis = Math.min(Math.max(backoffMillis * 2, 500), 10_000);
+                logger.warn("SQS receive failed, retrying in {} ms: {}", backoffMillis, e.getMessage());
+                if (!sleep(backoffMillis)) {
+                    return;
+                }
+                continue;
+            }
+
+            // Return capacity we asked for but didn't get
+            inFlightPermits.release(permits - messages.size());
+            for (Message message : messages) {
+                inFlight.put(message.messageId(), new InFlightMessage(message.receiptHandle(), visibilityDeadline()));
+                process(message);
+            }
+        }
+    }
+
+    /**
+     * Blocks until at least one message slot is free, then grabs up to a full receive's worth.
+     */
+    private int acquireCapacity() throws InterruptedException {
+        inFlightPermits.acquire();
+        int permits = 1;
+        while (permits < MAX_MESSAGES_PER_RECEIVE && inFlightPermits.tryAcquire()) {
+            permits++;
+        }
+        return permits;
+    }
+
+    private List<Message> receive(int maxMessages) {
         ReceiveMessageRequest request = ReceiveMessageRequest.builder()
             .queueUrl(queueUrl)
-            .maxNumberOfMessages(10)
-            .waitTimeSeconds(20)
+            .maxNumberOfMessages(maxMessages)
+            .waitTimeSeconds(waitTimeSeconds)
+            .visibilityTimeout(visibilityTimeoutSeconds)
+            .attributeNamesWithStrings("SentTimestamp", "ApproximateReceiveCount")
+            // contentType tells the codec how the body is encoded (raw SNS delivery)
+            .messageAttributeNames("All")
             .build();
 
         ReceiveMessageResponse response = sqsClient.receiveMessage(request);
-        for (Message msg : response.messages()) {
-            System.out.println("Received SQS message: " + msg.body());
-            // Delete after processing to prevent duplicates
-            DeleteMessageRequest del = DeleteMessageRequest.builder()
-                .queueUrl(queueUrl)
-                .receiptHandle(msg.receiptHandle())
-                .build();
-            sqsClient.deleteMessage(del);
+        return response.messages();
+    }
+
+    private void process(Message message) {
+        recordLag(message);
+        long start = System.nanoTime();
+
+        OrderEvent event;
+        try {
+            event = eventCodec.decode(message);
+            if (event.order() == null || event.order().getOrderId() == null) {
+                throw new IOException("Event carries no order id");
+            }
+        } catch (Exception e) {
+            // Decoding won't work on a redelivery either
+            processedFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            logger.error("Undecodable SQS message {}: {}", message.messageId(), e.getMessage());
+            if (deadLetter(message, "Undecodable: " + e.getMessage())) {
+                deadLetteredUndecodable.increment();
+            }
+            finish(message);
+            return;
+        }
+
+        dispatcher.dispatch(event).whenComplete((ignored, error) -> {
+            if (error == null) {
+                // Delete after processing to prevent duplicates
+                acknowledger.acknowledge(message.receiptHandle());
+                processedSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } else {
+                processedFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                int receives = receiveCount(message);
+                if (receives >= maxReceives) {
+                    logger.error("Giving up on {} event {} after {} deliveries", event.eventType(), event.eventId(), receives, cause);
+                    if (deadLetter(message, "Handler failed " + receives + " times: " + cause.getMessage())) {
+                        deadLetteredExhausted.increment();
+                    }
+                } else {
+                    // Not acknowledged: the message becomes visible again after the timeout and is retried
+                    logger.warn("Failed to handle {} event {} (delivery {}): {}", event.eventType(), event.eventId(),
+                            receives, cause.getMessage());
+                }
+            }
+            finish(message);
+        });
+    }
+
+    private void finish(Message message) {
+        inFlight.remove(message.messageId());
+        inFlightPermits.release();
+    }
+
+    /**
+     * Copies the message to the dead-letter queue and deletes the original.
+     * If the copy fails the original stays, so it's redelivered rather than lost.
+     *
+     * @return true if the message was moved
+     */
+    private boolean deadLetter(Message message, String reason) {
+        try {
+            sqsClient.sendMessage(r -> r
+                    .queueUrl(deadLetterQueueUrl)
+                    .messageBody(message.body())
+                    .messageAttributes(withReason(message, reason)));
+            acknowledger.acknowledge(message.receiptHandle());
+            return true;
+        } catch (Exception e) {
+            logger.error("Failed to dead-letter SQS message {}: {}", message.messageId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static Map<String, MessageAttributeValue> withReason(Message message, String reason) {
+        Map<String, MessageAttributeValue> attributes = new HashMap<>(message.messageAttributes());
+        // Attribute values are limited in size; the reason is only for a human looking at the DLQ
+        String truncated = reason.length() > 1_000 ? reason.substring(0, 1_000) : reason;
+        attributes.put("deadLetterReason", MessageAttributeValue.builder().dataType("String").stringValue(truncated).build());
+        return attributes;
+    }
+
+    private static int receiveCount(Message message) {
+        String count = message.attributesAsStrings().get("ApproximateReceiveCount");
+        return count != null ? Integer.parseInt(count) : 1;
+    }
+
+    private void recordLag(Message message) {
+        String sentTimestamp = message.attributesAsStrings().get("SentTimestamp");
+        if (sentTimestamp != null) {
+            long lagMillis = System.currentTimeMillis() - Long.parseLong(sentTimestamp);
+            consumerLag.record(Math.max(lagMillis, 0), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Pushes the visibility timeout out for messages that could become visible again before
+     * the heartbeat after next. A message skipped now is then at least one heartbeat away
+     * from its deadline when the next heartbeat runs, however late in the window it arrived.
+     */
+    void extendVisibility(long nowMillis) {
+        long threshold = nowMillis + TimeUnit.SECONDS.toMillis(visibilityTimeoutSeconds) - heartbeatMillis;
+        List<ChangeMessageVisibilityBatchRequestEntry> entries = new ArrayList<>();
+        List<InFlightMessage> extended = new ArrayList<>();
+
+        for (InFlightMessage message : inFlight.values()) {
+            if (message.visibleAtMillis() > threshold) {
+                continue;
+            }
+            entries.add(ChangeMessageVisibilityBatchRequestEntry.builder()
+                    .id(Integer.toString(entries.size()))
+                    .receiptHandle(message.receiptHandle())
+                    .visibilityTimeout(visibilityTimeoutSeconds)
+                    .build());
+            extended.add(message);
+
+            if (entries.size() == MAX_MESSAGES_PER_RECEIVE) {
+                sendVisibilityBatch(entries, extended);
+                entries = new ArrayList<>();
+                extended = new ArrayList<>();
+            }
+        }
+        if (!entries.isEmpty()) {
+            sendVisibilityBatch(entries, extended);
+        }
+    }
+
+    private void sendVisibilityBatch(List<ChangeMessageVisibilityBatchRequestEntry> entries, List<InFlightMessage> messages) {
+        try {
+            sqsClient.changeMessageVisibilityBatch(r -> r.queueUrl(queueUrl).entries(entries));
+            long deadline = visibilityDeadline();
+            messages.forEach(message -> message.extendTo(deadline));
+            logger.debug("Extended visibility of {} in-flight messages", entries.size());
+        } catch (Exception e) {
+            logger.warn("Failed to extend visibility of {} messages: {}", entries.size(), e.getMessage());
+        }
+    }
+
+    private long visibilityDeadline() {
+        return System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(visibilityTimeoutSeconds);
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+
+        // Pollers may be parked in a 20s long poll; interrupt so shutdown doesn't wait for it
+        pollers.forEach(Thread::interrupt);
+        pollers.clear();
+        try {
+            if (!dispatcher.shutdown(visibilityTimeoutSeconds, TimeUnit.SECONDS)) {
+                logger.warn("{} SQS messages still in flight at shutdown", inFlight.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        housekeeping.shutdownNow();
+        acknowledger.close();
+        logger.info("SQS consumer stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Receipt handle of a message being handled, and when it would become visible again.
+     */
+    private static final class InFlightMessage {
+
+        private final String receiptHandle;
+        private volatile long visibleAtMillis;
+
+        private InFlightMessage(String receiptHandle, long visibleAtMillis) {
+            this.receiptHandle = receiptHandle;
+            this.visibleAtMillis = visibleAtMillis;
+        }
+
+        String receiptHandle() {
+            return receiptHandle;
+        }
+
+        long visibleAtMillis() {
+            return visibleAtMillis;
+        }
+
+        void extendTo(long visibleAtMillis) {
+            this.visibleAtMillis = visibleAtMillis;
         }
     }
-}
\ No newline at end of file
+}
@@ -13,7 +13,10 @@ import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
         "amazon.dynamodb.endpoint=http://localhost:4566",
         "cloud.aws.region.static=us-east-1",
         "cloud.aws.stack.auto=false",
-        "aws.s3.bucket=test-bucket"
+        "aws.s3.bucket=test-bucket",
+        "aws.sqs.consumer.enabled=false",
+        "orders.outbox.relay.enabled=false",
+        "orders.stats.checkpoint.enabled=false"
     },
     args = "--add-opens=java.base/java.lang=ALL-UNNAMED"
 )
@@ -0,0 +1,142 @@
+package com.sarvesh.orderservice.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.sarvesh.orderservice.OrderserviceApplication;
+
+/**
+ * Compares request throughput of the web execution modes at high concurrency.
+ *
+ * Each scenario boots the service on a random port with a small Tomcat pool and a repository
+ * that takes {@link LatencyStandIns#LATENCY} per call, then fires {@link #REQUESTS} requests
+ * from {@link #CONCURRENCY} concurrent clients. With a pool of {@link #TOMCAT_THREADS} the
+ * blocking mode tops out near TOMCAT_THREADS / LATENCY requests per second; the other modes
+ * are not bound by the pool.
+ *
+ * Run with: mvn -Pload test
+ */
+@Tag("load")
+class ExecutionModeLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionModeLoadTest.class);
+
+    private static final int TOMCAT_THREADS = 32;
+    private static final int CONCURRENCY = 400;
+    private static final int REQUESTS = 4_000;
+    private static final int WARMUP_REQUESTS = 400;
+
+    private static final String ORDER_JSON = "{\"customerName\":\"Load Test\",\"amount\":10.0}";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void virtualThreadsAndAsyncEndpointsBeatTheBlockingPool() throws Exception {
+        Result blocking = run("blocking", "blocking POST /orders", this::createOrder);
+        Result virtual = run("virtual", "virtual POST /orders", this::createOrder);
+        Result asyncRead = run("blocking", "blocking GET /orders/{id} (async)", this::getOrder);
+
+        logger.info("{}", blocking);
+        logger.info("{}", virtual);
+        logger.info("{}", asyncRead);
+
+        assertEquals(0, blocking.errors() + virtual.errors() + asyncRead.errors(), "requests failed");
+        assertTrue(virtual.throughput() > blocking.throughput() * 2,
+                "virtual threads should clearly beat the blocking pool: " + virtual + " vs " + blocking);
+        assertTrue(asyncRead.throughput() > blocking.throughput() * 2,
+                "async endpoints should not be bound by the blocking pool: " + asyncRead + " vs " + blocking);
+    }
+
+    private Result run(String mode, String name, Function<String, HttpRequest> requestFactory) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderserviceApplication.class, LatencyStandIns.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "orders.web.execution-mode=" + mode,
+                        "aws.sqs.consumer.enabled=false",
+                        "orders.outbox.relay.enabled=false",
+                        "orders.stats.checkpoint.enabled=false",
+                        // One client firing thousands of requests; the rate limit would turn most away
+                        "orders.admission.enabled=false",
+                        "spring.main.allow-bean-definition-overriding=true",
+                        "logging.level.com.sarvesh.orderservice=WARN")
+                .run()) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+
+            drive(name, baseUrl, requestFactory, WARMUP_REQUESTS);
+            return drive(name, baseUrl, requestFactory, REQUESTS);
+        }
+    }
+
+    private Result drive(String name, String baseUrl, Function<String, HttpRequest> requestFactory, int requests)
+            throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CONCURRENCY; c++) {
+                callers.execute(() -> {
+                    while (next.getAndIncrement() < requests) {
+                        try {
+                            HttpResponse<Void> response = client.send(requestFactory.apply(baseUrl),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        return new Result(name, requests, errors.get(), requests / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private HttpRequest createOrder(String baseUrl) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/orders"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(ORDER_JSON))
+                .build();
+    }
+
+    private HttpRequest getOrder(String baseUrl) {
+        // Fresh ids so every lookup misses the cache and goes to the repository
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/orders/" + UUID.randomUUID())).GET().build();
+    }
+
+    private record Result(String name, int requests, int errors, double throughput) {
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %6d requests, %4d errors, %8.1f req/s", name, requests, errors, throughput);
+        }
+    }
+}
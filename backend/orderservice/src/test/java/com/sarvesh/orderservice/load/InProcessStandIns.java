@@ -0,0 +1,424 @@
+package com.sarvesh.orderservice.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.Bean;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BillingModeSummary;
+import software.amazon.awssdk.services.dynamodb.model.CreateTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.CreateTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTimeToLiveRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTimeToLiveResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndexDescription;
+import software.amazon.awssdk.services.dynamodb.model.IndexStatus;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.model.TableStatus;
+import software.amazon.awssdk.services.dynamodb.model.TimeToLiveStatus;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.waiters.DynamoDbWaiter;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.HeadBucketResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchResponse;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+/**
+ * Bean overrides for the regression load suite: S3, DynamoDB and SQS are replaced by in-process
+ * stand-ins that keep their data in memory and answer after {@link #LATENCY}, so the real
+ * controllers, services, repositories (through the DynamoDB Enhanced Client), S3Service and
+ * SQS consumer run end to end without LocalStack.
+ * SNS is only used by the outbox relay, which the suite leaves disabled; it's a mock.
+ *
+ * Deliberately not a @Configuration, so component scanning never picks it up; it is passed
+ * as an extra source and needs spring.main.allow-bean-definition-overriding=true.
+ */
+class InProcessStandIns {
+
+    /** Round-trip time of every stand-in call; -Dload.stand-in-latency-ms overrides it. */
+    static final Duration LATENCY = Duration.ofMillis(Long.getLong("load.stand-in-latency-ms", 5));
+
+    @Bean
+    InMemoryDynamoDbClient dynamoDbClient() {
+        return new InMemoryDynamoDbClient();
+    }
+
+    @Bean
+    DynamoDbAsyncClient dynamoDbAsyncClient(InMemoryDynamoDbClient dynamoDbClient) {
+        return new InMemoryDynamoDbAsyncClient(dynamoDbClient);
+    }
+
+    @Bean
+    SnsClient snsClient() {
+        return Mockito.mock(SnsClient.class);
+    }
+
+    @Bean
+    S3Client s3Client() {
+        return new InMemoryS3Client();
+    }
+
+    @Bean
+    SqsClient sqsClient() {
+        return new InMemorySqsClient();
+    }
+
+    /**
+     * The DynamoDB calls the measured paths make, on tables held in memory, so the real
+     * repositories, Enhanced Client mapping and order-plus-outbox transactions run.
+     *
+     * Tables come into being through the table initializers' createTable calls, which is also
+     * where their key schemas come from. Writes must be unconditional puts: a condition the
+     * stand-in can't evaluate fails the call instead of being ignored.
+     */
+    static final class InMemoryDynamoDbClient implements DynamoDbClient {
+
+        private final Map<String, CreateTableRequest> definitions = new ConcurrentHashMap<>();
+        private final Map<String, Map<Map<String, AttributeValue>, Map<String, AttributeValue>>> tables =
+                new ConcurrentHashMap<>();
+
+        @Override
+        public CreateTableResponse createTable(CreateTableRequest request) {
+            definitions.putIfAbsent(request.tableName(), request);
+            tables.putIfAbsent(request.tableName(), new ConcurrentHashMap<>());
+            return CreateTableResponse.builder().tableDescription(description(request)).build();
+        }
+
+        @Override
+        public DescribeTableResponse describeTable(DescribeTableRequest request) {
+            CreateTableRequest definition = definitions.get(request.tableName());
+            if (definition == null) {
+                throw ResourceNotFoundException.builder().statusCode(400).message("Not found: " + request.tableName()).build();
+            }
+            return DescribeTableResponse.builder().table(description(definition)).build();
+        }
+
+        @Override
+        public DescribeTimeToLiveResponse describeTimeToLive(DescribeTimeToLiveRequest request) {
+            // Nothing lives long enough in a run to expire
+            return DescribeTimeToLiveResponse.builder()
+                    .timeToLiveDescription(ttl -> ttl.timeToLiveStatus(TimeToLiveStatus.ENABLED))
+                    .build();
+        }
+
+        @Override
+        public DynamoDbWaiter waiter() {
+            return DynamoDbWaiter.builder().client(this).build();
+        }
+
+        @Override
+        public GetItemResponse getItem(GetItemRequest request) {
+            sleep();
+            return find(request);
+        }
+
+        @Override
+        public PutItemResponse putItem(PutItemRequest request) {
+            requireUnconditional(request.conditionExpression());
+            sleep();
+            store(request.tableName(), request.item());
+            return PutItemResponse.builder().build();
+        }
+
+        @Override
+        public TransactWriteItemsResponse transactWriteItems(TransactWriteItemsRequest request) {
+            for (TransactWriteItem item : request.transactItems()) {
+                if (item.put() == null) {
+                    throw new UnsupportedOperationException("Only puts are supported in transactions");
+                }
+                requireUnconditional(item.put().conditionExpression());
+            }
+            sleep();
+            request.transactItems().forEach(item -> store(item.put().tableName(), item.put().item()));
+            return TransactWriteItemsResponse.builder().build();
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        GetItemResponse find(GetItemRequest request) {
+            Map<String, AttributeValue> item = table(request.tableName()).get(request.key());
+            return item != null ? GetItemResponse.builder().item(item).build() : GetItemResponse.builder().build();
+        }
+
+        private void store(String tableName, Map<String, AttributeValue> item) {
+            Map<String, AttributeValue> key = new HashMap<>();
+            for (KeySchemaElement element : definitions.get(tableName).keySchema()) {
+                key.put(element.attributeName(), item.get(element.attributeName()));
+            }
+            table(tableName).put(key, Map.copyOf(item));
+        }
+
+        private Map<Map<String, AttributeValue>, Map<String, AttributeValue>> table(String tableName) {
+            Map<Map<String, AttributeValue>, Map<String, AttributeValue>> table = tables.get(tableName);
+            if (table == null) {
+                throw ResourceNotFoundException.builder().statusCode(400).message("Not found: " + tableName).build();
+            }
+            return table;
+        }
+
+        private static void requireUnconditional(String conditionExpression) {
+            if (conditionExpression != null) {
+                throw new UnsupportedOperationException("Conditional writes are not supported: " + conditionExpression);
+            }
+        }
+
+        private static TableDescription description(CreateTableRequest definition) {
+            return TableDescription.builder()
+                    .tableName(definition.tableName())
+                    .tableStatus(TableStatus.ACTIVE)
+                    .keySchema(definition.keySchema())
+                    .attributeDefinitions(definition.attributeDefinitions())
+                    .billingModeSummary(BillingModeSummary.builder().billingMode(definition.billingMode()).build())
+                    .globalSecondaryIndexes(definition.globalSecondaryIndexes().stream()
+                            .map(index -> GlobalSecondaryIndexDescription.builder()
+                                    .indexName(index.indexName())
+                                    .keySchema(index.keySchema())
+                                    .projection(index.projection())
+                                    .indexStatus(IndexStatus.ACTIVE)
+                                    .build())
+                            .toList())
+                    .build();
+        }
+    }
+
+    /**
+     * Async reads on the tables of an {@link InMemoryDynamoDbClient}; they complete after
+     * {@link #LATENCY} without holding a thread.
+     */
+    static final class InMemoryDynamoDbAsyncClient implements DynamoDbAsyncClient {
+
+        private final Executor delayed = CompletableFuture.delayedExecutor(LATENCY.toMillis(), TimeUnit.MILLISECONDS);
+        private final InMemoryDynamoDbClient tables;
+
+        InMemoryDynamoDbAsyncClient(InMemoryDynamoDbClient tables) {
+            this.tables = tables;
+        }
+
+        @Override
+        public CompletableFuture<GetItemResponse> getItem(GetItemRequest request) {
+            return CompletableFuture.supplyAsync(() -> tables.find(request), delayed);
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * The S3 calls S3Service makes for single-part uploads. Object bodies are read to the end
+     * and discarded; only their sizes are kept, which is all HEAD needs.
+     */
+    static final class InMemoryS3Client implements S3Client {
+
+        private final Map<String, Long> sizes = new ConcurrentHashMap<>();
+
+        @Override
+        public HeadBucketResponse headBucket(HeadBucketRequest request) {
+            return HeadBucketResponse.builder().build();
+        }
+
+        @Override
+        public HeadObjectResponse headObject(HeadObjectRequest request) {
+            sleep();
+            Long size = sizes.get(request.key());
+            if (size == null) {
+                throw NoSuchKeyException.builder().statusCode(404).message("Not found: " + request.key()).build();
+            }
+            return HeadObjectResponse.builder().contentLength(size).build();
+        }
+
+        @Override
+        public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+            long size;
+            try (InputStream in = body.contentStreamProvider().newStream()) {
+                size = in.transferTo(OutputStream.nullOutputStream());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            sleep();
+            sizes.put(request.key(), size);
+            return PutObjectResponse.builder().build();
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * A single in-memory queue with the calls the SQS consumer makes. Every message counts as
+     * received once; the time from receive to delete is recorded per message.
+     */
+    static final class InMemorySqsClient implements SqsClient {
+
+        private final BlockingQueue<Message> queue = new LinkedBlockingQueue<>();
+        private final Map<String, Long> receivedAtNanos = new ConcurrentHashMap<>();
+        private final ConcurrentHistogram processingMicros = new ConcurrentHistogram(3);
+        private final AtomicLong deleted = new AtomicLong();
+
+        /**
+         * Adds a message as SNS would with raw delivery.
+         */
+        void send(String body, String contentType) {
+            String id = UUID.randomUUID().toString();
+            queue.add(Message.builder()
+                    .messageId(id)
+                    .receiptHandle(id)
+                    .body(body)
+                    .messageAttributes(Map.of("contentType",
+                            MessageAttributeValue.builder().dataType("String").stringValue(contentType).build()))
+                    .attributesWithStrings(Map.of(
+                            "SentTimestamp", Long.toString(System.currentTimeMillis()),
+                            "ApproximateReceiveCount", "1"))
+                    .build());
+        }
+
+        long deleted() {
+            return deleted.get();
+        }
+
+        ConcurrentHistogram processingMicros() {
+            return processingMicros;
+        }
+
+        void reset() {
+            processingMicros.reset();
+            deleted.set(0);
+        }
+
+        @Override
+        public ReceiveMessageResponse receiveMessage(ReceiveMessageRequest request) {
+            List<Message> messages = new ArrayList<>();
+            try {
+                // Long poll: wait for the first message, then take what's there
+                Message first = queue.poll(request.waitTimeSeconds() != null ? request.waitTimeSeconds() : 0, TimeUnit.SECONDS);
+                if (first != null) {
+                    messages.add(first);
+                    queue.drainTo(messages, request.maxNumberOfMessages() - 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Receive interrupted", e);
+            }
+            sleep();
+            long now = System.nanoTime();
+            messages.forEach(message -> receivedAtNanos.put(message.receiptHandle(), now));
+            return ReceiveMessageResponse.builder().messages(messages).build();
+        }
+
+        @Override
+        public DeleteMessageBatchResponse deleteMessageBatch(DeleteMessageBatchRequest request) {
+            sleep();
+            long now = System.nanoTime();
+            List<DeleteMessageBatchResultEntry> successful = new ArrayList<>();
+            request.entries().forEach(entry -> {
+                Long receivedAt = receivedAtNanos.remove(entry.receiptHandle());
+                if (receivedAt != null) {
+                    processingMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(now - receivedAt));
+                    deleted.incrementAndGet();
+                }
+                successful.add(DeleteMessageBatchResultEntry.builder().id(entry.id()).build());
+            });
+            return DeleteMessageBatchResponse.builder().successful(successful).build();
+        }
+
+        @Override
+        public ChangeMessageVisibilityBatchResponse changeMessageVisibilityBatch(ChangeMessageVisibilityBatchRequest request) {
+            sleep();
+            return ChangeMessageVisibilityBatchResponse.builder()
+                    .successful(request.entries().stream()
+                            .map(entry -> ChangeMessageVisibilityBatchResultEntry.builder().id(entry.id()).build())
+                            .toList())
+                    .build();
+        }
+
+        @Override
+        public SendMessageResponse sendMessage(SendMessageRequest request) {
+            // Dead-lettering; the suite only sends messages that decode
+            sleep();
+            return SendMessageResponse.builder().messageId(UUID.randomUUID().toString()).build();
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(LATENCY.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
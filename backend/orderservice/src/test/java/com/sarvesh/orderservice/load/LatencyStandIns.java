@@ -0,0 +1,124 @@
+package com.sarvesh.orderservice.load;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.mockito.Mockito;
+import org.springframework.context.annotation.Bean;
+
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderPage;
+import com.sarvesh.orderservice.model.OutboxEvent;
+import com.sarvesh.orderservice.repository.OrderRepository;
+import com.sarvesh.orderservice.service.S3Service;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+/**
+ * Bean overrides for load tests: AWS-facing beans are replaced by mocks, and the order
+ * repository by one that answers after a fixed delay, standing in for DynamoDB round trips.
+ *
+ * Deliberately not a @Configuration, so component scanning never picks it up; it is passed
+ * as an extra source and needs spring.main.allow-bean-definition-overriding=true.
+ */
+class LatencyStandIns {
+
+    static final Duration LATENCY = Duration.ofMillis(50);
+
+    @Bean
+    DynamoDbClient dynamoDbClient() {
+        return Mockito.mock(DynamoDbClient.class);
+    }
+
+    @Bean
+    S3Service s3Service() {
+        return Mockito.mock(S3Service.class);
+    }
+
+    @Bean
+    OrderRepository dynamoDbOrderRepository() {
+        return new LatencyOrderRepository();
+    }
+
+    /**
+     * Sync calls sleep for {@link #LATENCY}; async calls complete after it without holding a thread.
+     */
+    static final class LatencyOrderRepository implements OrderRepository {
+
+        private final Executor delayed = CompletableFuture.delayedExecutor(LATENCY.toMillis(), TimeUnit.MILLISECONDS);
+
+        @Override
+        public void saveWithEvents(List<Order> orders, List<OutboxEvent> events) {
+            sleep();
+        }
+
+        @Override
+        public void attachInvoice(String orderId, String invoiceUrl, OutboxEvent event) {
+            sleep();
+        }
+
+        @Override
+        public Optional<Order> findById(String orderId) {
+            sleep();
+            return Optional.of(order(orderId));
+        }
+
+        @Override
+        public OrderPage scanPage(int limit, String pageToken) {
+            sleep();
+            return new OrderPage(List.of(), null);
+        }
+
+        @Override
+        public OrderPage scanSegment(int segment, int totalSegments, int limit, String pageToken) {
+            sleep();
+            return new OrderPage(List.of(), null);
+        }
+
+        @Override
+        public void scanAll(int pageSize, Consumer<List<Order>> pageConsumer) {
+            sleep();
+        }
+
+        @Override
+        public OrderPage queryByCustomer(String customerName, Date from, Date to,
+                                         int limit, String pageToken, boolean ascending) {
+            sleep();
+            return new OrderPage(List.of(), null);
+        }
+
+        @Override
+        public CompletableFuture<Optional<Order>> findByIdAsync(String orderId) {
+            return CompletableFuture.supplyAsync(() -> Optional.of(order(orderId)), delayed);
+        }
+
+        @Override
+        public CompletableFuture<OrderPage> queryByCustomerAsync(String customerName, Date from, Date to,
+                                                                 int limit, String pageToken, boolean ascending) {
+            return CompletableFuture.supplyAsync(() -> new OrderPage(List.of(), null), delayed);
+        }
+
+        private static Order order(String orderId) {
+            Order order = new Order();
+            order.setOrderId(orderId);
+            order.setCustomerName("Load Test");
+            order.setAmount(10.0);
+            order.setCreatedAt(new Date());
+            return order;
+        }
+
+        private static void sleep() {
+            try {
+                Thread.sleep(LATENCY.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
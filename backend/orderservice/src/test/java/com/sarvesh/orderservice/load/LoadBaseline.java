@@ -0,0 +1,119 @@
+package com.sarvesh.orderservice.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Results of a load run keyed by scenario name, stored as JSON together with the profile of
+ * the machine and settings they were measured with, so a run can be compared with an earlier
+ * one. Runs only compare when their profiles are equal.
+ *
+ * A scenario regresses when its throughput drops, or its p99 latency or allocation per
+ * operation grows, by more than the tolerance. Small absolute differences (under
+ * {@link #LATENCY_SLACK_MILLIS} and {@link #ALLOCATION_SLACK_BYTES}) never count, so
+ * near-zero values don't fail on noise.
+ */
+final class LoadBaseline {
+
+    static final double LATENCY_SLACK_MILLIS = 1.0;
+    static final double ALLOCATION_SLACK_BYTES = 1024;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadBaseline() {
+    }
+
+    /**
+     * Measurements of one scenario.
+     *
+     * @param throughput         Operations per second
+     * @param allocatedBytesPerOp Heap allocated per operation by the whole JVM, load generator included
+     */
+    record ScenarioResult(String name, int operations, int errors, double throughput,
+                          double p50Millis, double p90Millis, double p99Millis, double maxMillis,
+                          double allocatedBytesPerOp) {
+
+        @Override
+        public String toString() {
+            return String.format("%-32s %6d ops, %4d errors, %9.1f ops/s, p50 %7.2f ms, p90 %7.2f ms, p99 %7.2f ms, max %7.2f ms, %9.0f B/op",
+                    name, operations, errors, throughput, p50Millis, p90Millis, p99Millis, maxMillis, allocatedBytesPerOp);
+        }
+    }
+
+    /**
+     * Where and with what settings a run was measured.
+     *
+     * @param jvm                  JVM name and feature release, e.g. "OpenJDK 64-Bit Server VM 21"
+     * @param standInLatencyMillis Round-trip time of the AWS stand-ins
+     */
+    record Profile(String os, String arch, int processors, long maxHeapBytes, String jvm,
+                   int concurrency, long standInLatencyMillis) {
+
+        static Profile current(int concurrency, Duration standInLatency) {
+            return new Profile(System.getProperty("os.name"), System.getProperty("os.arch"),
+                    Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory(),
+                    System.getProperty("java.vm.name") + " " + Runtime.version().feature(),
+                    concurrency, standInLatency.toMillis());
+        }
+    }
+
+    /**
+     * A stored run: its profile and its results by scenario name.
+     */
+    record Run(Profile profile, Map<String, ScenarioResult> scenarios) {
+    }
+
+    /**
+     * @return The stored run, or null if there is none
+     */
+    static Run read(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        return MAPPER.readValue(path.toFile(), Run.class);
+    }
+
+    static void write(Path path, Profile profile, List<ScenarioResult> results) throws IOException {
+        Map<String, ScenarioResult> byName = new LinkedHashMap<>();
+        results.forEach(result -> byName.put(result.name(), result));
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        MAPPER.writeValue(path.toFile(), new Run(profile, byName));
+    }
+
+    /**
+     * Regressions of the results against the baseline; scenarios missing from the baseline are skipped.
+     */
+    static List<String> regressions(Map<String, ScenarioResult> baseline, List<ScenarioResult> results, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (ScenarioResult current : results) {
+            ScenarioResult base = baseline.get(current.name());
+            if (base == null) {
+                continue;
+            }
+            if (current.throughput() < base.throughput() * (1 - tolerance)) {
+                regressions.add(String.format("%s: throughput %.1f ops/s, baseline %.1f",
+                        current.name(), current.throughput(), base.throughput()));
+            }
+            if (current.p99Millis() > base.p99Millis() * (1 + tolerance)
+                    && current.p99Millis() - base.p99Millis() > LATENCY_SLACK_MILLIS) {
+                regressions.add(String.format("%s: p99 %.2f ms, baseline %.2f ms",
+                        current.name(), current.p99Millis(), base.p99Millis()));
+            }
+            if (current.allocatedBytesPerOp() > base.allocatedBytesPerOp() * (1 + tolerance)
+                    && current.allocatedBytesPerOp() - base.allocatedBytesPerOp() > ALLOCATION_SLACK_BYTES) {
+                regressions.add(String.format("%s: %.0f B/op allocated, baseline %.0f",
+                        current.name(), current.allocatedBytesPerOp(), base.allocatedBytesPerOp()));
+            }
+        }
+        return regressions;
+    }
+}
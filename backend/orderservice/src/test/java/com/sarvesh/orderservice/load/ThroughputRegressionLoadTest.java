@@ -0,0 +1,329 @@
+package com.sarvesh.orderservice.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.unit.DataSize;
+
+import com.sarvesh.orderservice.OrderserviceApplication;
+import com.sarvesh.orderservice.load.LoadBaseline.Profile;
+import com.sarvesh.orderservice.load.LoadBaseline.Run;
+import com.sarvesh.orderservice.load.LoadBaseline.ScenarioResult;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderEvent;
+import com.sarvesh.orderservice.model.OutboxEvent;
+import com.sarvesh.orderservice.repository.OrderRepository;
+import com.sarvesh.orderservice.service.OrderEventCodec;
+
+/**
+ * Throughput, latency and allocation of the main request paths, compared with a stored baseline.
+ *
+ * The service is booted once on a random port with {@link InProcessStandIns} in place of AWS
+ * (faked at the SDK client level, so the repositories and the order-plus-outbox transactions
+ * are part of what is measured), then each scenario is warmed up and measured:
+ * - POST /orders
+ * - POST /orders/upload, once per file size in load.upload-sizes
+ * - GET /orders/{id} on previously stored orders
+ * - the SQS consumer draining load.requests order events (concurrency is its max-in-flight)
+ *
+ * Results go to target/load-results.json, with the profile of the run (machine, JVM,
+ * concurrency, stand-in latency). The reference baseline is src/test/resources/load-baseline.json;
+ * when this run's profile equals the baseline's, a scenario whose throughput drops, or whose
+ * p99 or allocation per operation grows, by more than load.tolerance fails the test. On any
+ * other profile the comparison is skipped with a warning, since the numbers don't carry over.
+ * Re-record the baseline on the reference machine with -Dload.update-baseline=true and commit
+ * it along with the change that moved the numbers.
+ *
+ * Run with: mvn -Pload test -Dtest=ThroughputRegressionLoadTest
+ *   [-Dload.concurrency=64] [-Dload.requests=5000] [-Dload.upload-sizes=16KB,1MB,8MB]
+ *   [-Dload.tolerance=0.2] [-Dload.stand-in-latency-ms=5] [-Dload.update-baseline=true]
+ */
+@Tag("load")
+class ThroughputRegressionLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThroughputRegressionLoadTest.class);
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 5_000);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("load.warmup-requests", 500);
+    private static final List<DataSize> UPLOAD_SIZES = Arrays.stream(System.getProperty("load.upload-sizes", "16KB,1MB,8MB").split(","))
+            .map(String::trim)
+            .map(DataSize::parse)
+            .toList();
+    /** Upload scenarios send fewer requests when needed to stay under this many bytes. */
+    private static final long UPLOAD_BYTES = DataSize.parse(System.getProperty("load.upload-bytes", "2GB")).toBytes();
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("load.tolerance", "0.2"));
+    private static final boolean UPDATE_BASELINE = Boolean.getBoolean("load.update-baseline");
+
+    private static final Path BASELINE = Path.of(System.getProperty("load.baseline", "src/test/resources/load-baseline.json"));
+    private static final Path RESULTS = Path.of("target", "load-results.json");
+
+    private static final int SEEDED_ORDERS = 1_000;
+    private static final String ORDER_JSON = "{\"customerName\":\"Load Test\",\"amount\":10.0}";
+    private static final String BOUNDARY = "load-test-boundary";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void staysWithinBaseline() throws Exception {
+        List<ScenarioResult> results = new ArrayList<>();
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderserviceApplication.class, InProcessStandIns.class)
+                .properties(
+                        "server.port=0",
+                        "aws.sqs.consumer.max-in-flight=" + CONCURRENCY,
+                        // Short polls, so shutdown doesn't wait out a 20s long poll
+                        "aws.sqs.consumer.wait-time-seconds=1",
+                        "orders.outbox.relay.enabled=false",
+                        "orders.stats.checkpoint.enabled=false",
+                        // One client firing thousands of requests; the rate limit would turn most away
+                        "orders.admission.enabled=false",
+                        "spring.main.allow-bean-definition-overriding=true",
+                        "logging.level.com.sarvesh.orderservice=WARN",
+                        // Keep this test's report
+                        "logging.level.com.sarvesh.orderservice.load=INFO")
+                .run()) {
+
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            results.add(http("POST /orders", REQUESTS, () -> createOrder(baseUrl)));
+
+            for (DataSize size : UPLOAD_SIZES) {
+                int requests = (int) Math.max(50, Math.min(REQUESTS, UPLOAD_BYTES / size.toBytes()));
+                byte[] content = new byte[(int) size.toBytes()];
+                ThreadLocalRandom.current().nextBytes(content);
+                results.add(http("POST /orders/upload " + size.toKilobytes() + "KB", requests,
+                        () -> uploadOrder(baseUrl, content)));
+            }
+
+            List<String> orderIds = seedOrders(context.getBean(OrderRepository.class));
+            results.add(http("GET /orders/{id}", REQUESTS,
+                    () -> getOrder(baseUrl, orderIds.get(ThreadLocalRandom.current().nextInt(orderIds.size())))));
+
+            results.add(sqsConsumer(context));
+        }
+
+        Profile profile = Profile.current(CONCURRENCY, InProcessStandIns.LATENCY);
+        results.forEach(result -> logger.info("{}", result));
+        LoadBaseline.write(RESULTS, profile, results);
+
+        assertEquals(0, results.stream().mapToInt(ScenarioResult::errors).sum(), "requests failed");
+
+        if (UPDATE_BASELINE) {
+            LoadBaseline.write(BASELINE, profile, results);
+            logger.info("Baseline written to {} for {}", BASELINE.toAbsolutePath(), profile);
+            return;
+        }
+        Run baseline = LoadBaseline.read(BASELINE);
+        if (baseline == null) {
+            logger.warn("No baseline at {}; record one with -Dload.update-baseline=true", BASELINE.toAbsolutePath());
+            return;
+        }
+        if (!profile.equals(baseline.profile())) {
+            logger.warn("Baseline at {} was recorded on {}, this run is {}; not compared",
+                    BASELINE.toAbsolutePath(), baseline.profile(), profile);
+            return;
+        }
+        List<String> regressions = LoadBaseline.regressions(baseline.scenarios(), results, TOLERANCE);
+        assertTrue(regressions.isEmpty(), "Regressed by more than " + Math.round(TOLERANCE * 100) + "% against "
+                + BASELINE + ":\n" + String.join("\n", regressions));
+    }
+
+    /**
+     * Warms up, then sends {@code requests} requests from {@link #CONCURRENCY} concurrent clients.
+     */
+    private ScenarioResult http(String name, int requests, Supplier<HttpRequest> requestFactory) throws InterruptedException {
+        drive(requestFactory, Math.min(WARMUP_REQUESTS, requests), new ConcurrentHistogram(3));
+
+        ConcurrentHistogram latencyMicros = new ConcurrentHistogram(3);
+        long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+        long start = System.nanoTime();
+        int errors = drive(requestFactory, requests, latencyMicros);
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+
+        return result(name, requests, errors, elapsedNanos, latencyMicros, allocated);
+    }
+
+    private int drive(Supplier<HttpRequest> requestFactory, int requests, ConcurrentHistogram latencyMicros)
+            throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CONCURRENCY; c++) {
+                callers.execute(() -> {
+                    while (next.getAndIncrement() < requests) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(requestFactory.get(), HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                    }
+                });
+            }
+        }
+        return errors.get();
+    }
+
+    /**
+     * Queues order events and measures how fast the consumer works through them; latency is
+     * the time from receive to delete of each message.
+     */
+    private ScenarioResult sqsConsumer(ConfigurableApplicationContext context) throws InterruptedException {
+        InProcessStandIns.InMemorySqsClient sqs = context.getBean(InProcessStandIns.InMemorySqsClient.class);
+        OrderEventCodec codec = context.getBean(OrderEventCodec.class);
+
+        sqs.reset();
+        int warmup = Math.min(WARMUP_REQUESTS, REQUESTS);
+        enqueue(sqs, codec, warmup);
+        awaitDeleted(sqs, warmup);
+
+        sqs.reset();
+        long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+        long start = System.nanoTime();
+        enqueue(sqs, codec, REQUESTS);
+        long deleted = awaitDeleted(sqs, REQUESTS);
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+
+        return result("SQS consumer", REQUESTS, (int) (REQUESTS - deleted), elapsedNanos, sqs.processingMicros(), allocated);
+    }
+
+    private static void enqueue(InProcessStandIns.InMemorySqsClient sqs, OrderEventCodec codec, int count) {
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setOrderId(UUID.randomUUID().toString());
+            order.setCustomerName("Load Test " + (i % 100));
+            order.setAmount(10.0 + i % 50);
+            order.setCreatedAt(new Date());
+
+            OutboxEvent event = new OutboxEvent();
+            event.setEventId(UUID.randomUUID().toString());
+            event.setOrderId(order.getOrderId());
+            event.setEventType(OrderEvent.ORDER_CREATED);
+            event.setCreatedAt(System.currentTimeMillis());
+            codec.encodeInto(event, order);
+            sqs.send(event.getPayload(), event.getContentType());
+        }
+    }
+
+    /**
+     * Waits until {@code count} messages were deleted, or a minute passes.
+     *
+     * @return Number of messages deleted
+     */
+    private static long awaitDeleted(InProcessStandIns.InMemorySqsClient sqs, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (sqs.deleted() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        return sqs.deleted();
+    }
+
+    private static ScenarioResult result(String name, int operations, int errors, long elapsedNanos,
+                                         Histogram latencyMicros, long allocatedBytes) {
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        return new ScenarioResult(name, operations, errors, operations / seconds,
+                latencyMicros.getValueAtPercentile(50) / 1000.0,
+                latencyMicros.getValueAtPercentile(90) / 1000.0,
+                latencyMicros.getValueAtPercentile(99) / 1000.0,
+                latencyMicros.getMaxValue() / 1000.0,
+                allocatedBytes / (double) operations);
+    }
+
+    private static List<String> seedOrders(OrderRepository repository) {
+        List<Order> orders = new ArrayList<>(SEEDED_ORDERS);
+        for (int i = 0; i < SEEDED_ORDERS; i++) {
+            Order order = new Order();
+            order.setOrderId(UUID.randomUUID().toString());
+            order.setCustomerName("Load Test");
+            order.setAmount(10.0);
+            order.setCreatedAt(new Date());
+            orders.add(order);
+        }
+        for (int from = 0; from < orders.size(); from += OrderRepository.MAX_TRANSACT_ITEMS) {
+            repository.saveWithEvents(
+                    orders.subList(from, Math.min(from + OrderRepository.MAX_TRANSACT_ITEMS, orders.size())),
+                    List.of());
+        }
+        return orders.stream().map(Order::getOrderId).toList();
+    }
+
+    private static HttpRequest createOrder(String baseUrl) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/orders"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(ORDER_JSON))
+                .build();
+    }
+
+    /**
+     * Multipart order plus invoice. The invoice starts with 16 fresh random bytes, so every
+     * upload is new content and goes all the way to S3 instead of being deduplicated.
+     */
+    private static HttpRequest uploadOrder(String baseUrl, byte[] content) {
+        String head = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"order\"\r\n"
+                + "Content-Type: application/json\r\n\r\n"
+                + ORDER_JSON + "\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"invoice.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n";
+        String tail = "\r\n--" + BOUNDARY + "--\r\n";
+        UUID unique = UUID.randomUUID();
+        byte[] prefix = ByteBuffer.allocate(16)
+                .putLong(unique.getMostSignificantBits())
+                .putLong(unique.getLeastSignificantBits())
+                .array();
+
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/orders/upload"))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArrays(List.of(
+                        head.getBytes(StandardCharsets.UTF_8), prefix, content, tail.getBytes(StandardCharsets.UTF_8))))
+                .build();
+    }
+
+    private static HttpRequest getOrder(String baseUrl, String orderId) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/orders/" + orderId)).GET().build();
+    }
+}
@@ -0,0 +1,205 @@
+package com.sarvesh.orderservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderPage;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+class DynamoDbOrderRepositoryTest {
+
+    private static final String TABLE = "Orders";
+
+    private final DynamoDbClient dynamoDbClient = mock(DynamoDbClient.class);
+    private final DynamoDbAsyncClient dynamoDbAsyncClient = mock(DynamoDbAsyncClient.class);
+    private final DynamoDbOrderRepository repository;
+
+    DynamoDbOrderRepositoryTest() {
+        // The enhanced client pages through the paginators, which call scan/query below
+        when(dynamoDbClient.scanPaginator(any(ScanRequest.class))).thenCallRealMethod();
+        when(dynamoDbClient.queryPaginator(any(QueryRequest.class))).thenCallRealMethod();
+        when(dynamoDbAsyncClient.queryPaginator(any(QueryRequest.class))).thenCallRealMethod();
+
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder().dynamoDbClient(dynamoDbClient).build();
+        DynamoDbEnhancedAsyncClient enhancedAsyncClient =
+                DynamoDbEnhancedAsyncClient.builder().dynamoDbClient(dynamoDbAsyncClient).build();
+        repository = new DynamoDbOrderRepository(enhancedClient, enhancedAsyncClient,
+                new OutboxRepository(enhancedClient, "OrderOutbox", 8), TABLE);
+    }
+
+    @Test
+    void scanPageReturnsOnePageAndATokenForTheNext() {
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(ScanResponse.builder()
+                .items(item("o-1", "alice", "2024-01-01T00:00:00.000Z"), item("o-2", "bob", "2024-01-02T00:00:00.000Z"))
+                .lastEvaluatedKey(Map.of("orderId", AttributeValue.fromS("o-2")))
+                .build());
+
+        OrderPage page = repository.scanPage(2, null);
+
+        assertEquals(List.of("o-1", "o-2"), page.getItems().stream().map(Order::getOrderId).toList());
+        assertEquals(Map.of("orderId", AttributeValue.fromS("o-2")),
+                PageTokenCodec.decode(page.getNextToken(), OrderTableSchema.TABLE_KEY));
+
+        // Exactly one request, none for the following page
+        ArgumentCaptor<ScanRequest> request = ArgumentCaptor.forClass(ScanRequest.class);
+        verify(dynamoDbClient, times(1)).scan(request.capture());
+        assertEquals(TABLE, request.getValue().tableName());
+        assertEquals(2, request.getValue().limit());
+        assertFalse(request.getValue().hasExclusiveStartKey());
+    }
+
+    @Test
+    void scanPageContinuesFromTheTokenAndEndsWithoutOne() {
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(ScanResponse.builder()
+                .items(item("o-3", "carol", "2024-01-03T00:00:00.000Z"))
+                .build());
+        String token = PageTokenCodec.encode(Map.of("orderId", AttributeValue.fromS("o-2")));
+
+        OrderPage page = repository.scanPage(2, token);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextToken());
+
+        ArgumentCaptor<ScanRequest> request = ArgumentCaptor.forClass(ScanRequest.class);
+        verify(dynamoDbClient).scan(request.capture());
+        assertEquals(Map.of("orderId", AttributeValue.fromS("o-2")), request.getValue().exclusiveStartKey());
+    }
+
+    @Test
+    void invalidTokenFailsBeforeAnyRequest() {
+        assertThrows(InvalidPageTokenException.class, () -> repository.scanPage(2, "not a token"));
+        assertThrows(InvalidPageTokenException.class,
+                () -> repository.queryByCustomer("alice", null, null, 2, "not a token", true));
+        verify(dynamoDbClient, never()).scan(any(ScanRequest.class));
+        verify(dynamoDbClient, never()).query(any(QueryRequest.class));
+    }
+
+    @Test
+    void tokenFromAnotherListingFailsBeforeAnyRequest() {
+        String scanToken = PageTokenCodec.encode(Map.of("orderId", AttributeValue.fromS("o-2")));
+        String bobsToken = PageTokenCodec.encode(Map.of(
+                "orderId", AttributeValue.fromS("o-1"),
+                "customerName", AttributeValue.fromS("bob"),
+                "createdAt", AttributeValue.fromS("2024-01-20T00:00:00.000Z")));
+
+        assertThrows(InvalidPageTokenException.class,
+                () -> repository.queryByCustomer("alice", null, null, 2, scanToken, true));
+        assertThrows(InvalidPageTokenException.class,
+                () -> repository.queryByCustomer("alice", null, null, 2, bobsToken, true));
+        assertThrows(InvalidPageTokenException.class, () -> repository.scanPage(2, bobsToken));
+        verify(dynamoDbClient, never()).scan(any(ScanRequest.class));
+        verify(dynamoDbClient, never()).query(any(QueryRequest.class));
+    }
+
+    @Test
+    void queryByCustomerUsesTheIndexWithinTheDateRange() {
+        Map<String, AttributeValue> lastKey = Map.of(
+                "orderId", AttributeValue.fromS("o-1"),
+                "customerName", AttributeValue.fromS("alice"),
+                "createdAt", AttributeValue.fromS("2024-01-20T00:00:00.000Z"));
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder()
+                .items(item("o-1", "alice", "2024-01-20T00:00:00.000Z"))
+                .lastEvaluatedKey(lastKey)
+                .build());
+        Date from = Date.from(Instant.parse("2024-01-01T00:00:00Z"));
+        Date to = Date.from(Instant.parse("2024-01-31T00:00:00Z"));
+
+        OrderPage page = repository.queryByCustomer("alice", from, to, 1, null, false);
+
+        assertEquals("o-1", page.getItems().get(0).getOrderId());
+        assertEquals(lastKey, PageTokenCodec.decode(page.getNextToken(), OrderTableSchema.CUSTOMER_CREATED_AT_INDEX_KEY));
+
+        ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient, times(1)).query(captor.capture());
+        QueryRequest request = captor.getValue();
+        assertEquals(TABLE, request.tableName());
+        assertEquals(OrderTableSchema.CUSTOMER_CREATED_AT_INDEX, request.indexName());
+        assertEquals(1, request.limit());
+        assertFalse(request.scanIndexForward());
+        assertTrue(request.keyConditionExpression().contains("BETWEEN"));
+        assertTrue(request.expressionAttributeValues().values().containsAll(List.of(
+                AttributeValue.fromS("alice"),
+                AttributeValue.fromS(OrderTableSchema.formatDate(from)),
+                AttributeValue.fromS(OrderTableSchema.formatDate(to)))));
+    }
+
+    @Test
+    void queryByCustomerWithoutDatesMatchesTheCustomerOnly() {
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().items(List.of()).build());
+
+        OrderPage page = repository.queryByCustomer("alice", null, null, 10, null, true);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextToken());
+
+        ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient).query(captor.capture());
+        assertTrue(captor.getValue().scanIndexForward());
+        assertEquals(List.of(AttributeValue.fromS("alice")),
+                List.copyOf(captor.getValue().expressionAttributeValues().values()));
+    }
+
+    @Test
+    void queryByCustomerAsyncRequestsTheFirstPageOnly() {
+        Map<String, AttributeValue> lastKey = Map.of(
+                "orderId", AttributeValue.fromS("o-1"),
+                "customerName", AttributeValue.fromS("alice"),
+                "createdAt", AttributeValue.fromS("2024-01-20T00:00:00.000Z"));
+        when(dynamoDbAsyncClient.query(any(QueryRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                QueryResponse.builder()
+                        .items(item("o-1", "alice", "2024-01-20T00:00:00.000Z"))
+                        .lastEvaluatedKey(lastKey)
+                        .build()));
+        Date from = Date.from(Instant.parse("2024-01-01T00:00:00Z"));
+
+        OrderPage page = repository.queryByCustomerAsync("alice", from, null, 1,
+                PageTokenCodec.encode(lastKey), true).join();
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(lastKey, PageTokenCodec.decode(page.getNextToken(), OrderTableSchema.CUSTOMER_CREATED_AT_INDEX_KEY));
+
+        ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbAsyncClient, times(1)).query(captor.capture());
+        QueryRequest request = captor.getValue();
+        assertEquals(OrderTableSchema.CUSTOMER_CREATED_AT_INDEX, request.indexName());
+        assertEquals(lastKey, request.exclusiveStartKey());
+        assertTrue(request.keyConditionExpression().contains(">="));
+        assertTrue(request.expressionAttributeValues().containsValue(AttributeValue.fromS(OrderTableSchema.formatDate(from))));
+    }
+
+    private static Map<String, AttributeValue> item(String orderId, String customerName, String createdAt) {
+        return Map.of(
+                "orderId", AttributeValue.fromS(orderId),
+                "customerName", AttributeValue.fromS(customerName),
+                "amount", AttributeValue.fromN("10.5"),
+                "createdAt", AttributeValue.fromS(createdAt));
+    }
+}
@@ -0,0 +1,67 @@
+package com.sarvesh.orderservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+class PageTokenCodecTest {
+
+    private static final Set<String> INDEX_KEY = Set.of("orderId", "customerName", "createdAt");
+
+    @Test
+    void decodesWhatItEncoded() {
+        Map<String, AttributeValue> lastEvaluatedKey = Map.of(
+                "orderId", AttributeValue.fromS("order-1"),
+                "customerName", AttributeValue.fromS("Alice"),
+                "createdAt", AttributeValue.fromS("2024-01-31T00:00:00.000Z"));
+
+        String token = PageTokenCodec.encode(lastEvaluatedKey);
+
+        assertEquals(lastEvaluatedKey, PageTokenCodec.decode(token, INDEX_KEY));
+        // Travels as a query parameter
+        assertFalse(token.matches(".*[+/=].*"));
+    }
+
+    @Test
+    void lastPageHasNoToken() {
+        assertNull(PageTokenCodec.encode(null));
+        assertNull(PageTokenCodec.encode(Map.of()));
+        assertNull(PageTokenCodec.decode(null, INDEX_KEY));
+        assertNull(PageTokenCodec.decode(" ", INDEX_KEY));
+    }
+
+    @Test
+    void rejectsTokensItDidNotIssue() {
+        String notJson = Base64.getUrlEncoder().encodeToString("orderId=1".getBytes(StandardCharsets.UTF_8));
+        String notAMap = Base64.getUrlEncoder().encodeToString("[1,2]".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidPageTokenException.class, () -> PageTokenCodec.decode("not base64!", INDEX_KEY));
+        assertThrows(InvalidPageTokenException.class, () -> PageTokenCodec.decode(notJson, INDEX_KEY));
+        assertThrows(InvalidPageTokenException.class, () -> PageTokenCodec.decode(notAMap, INDEX_KEY));
+    }
+
+    @Test
+    void rejectsTokensForAnotherKeyShape() {
+        String tableToken = PageTokenCodec.encode(Map.of("orderId", AttributeValue.fromS("order-1")));
+        String blankValue = Base64.getUrlEncoder().encodeToString(
+                "{\"orderId\":\"\",\"customerName\":\"Alice\",\"createdAt\":\"2024-01-31T00:00:00.000Z\"}"
+                        .getBytes(StandardCharsets.UTF_8));
+        String nullValue = Base64.getUrlEncoder().encodeToString(
+                "{\"orderId\":null}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidPageTokenException.class, () -> PageTokenCodec.decode(tableToken, INDEX_KEY));
+        assertThrows(InvalidPageTokenException.class, () -> PageTokenCodec.decode(blankValue, INDEX_KEY));
+        assertThrows(InvalidPageTokenException.class, () -> PageTokenCodec.decode(nullValue, Set.of("orderId")));
+        assertEquals(Map.of("orderId", AttributeValue.fromS("order-1")), PageTokenCodec.decode(tableToken, Set.of("orderId")));
+    }
+}
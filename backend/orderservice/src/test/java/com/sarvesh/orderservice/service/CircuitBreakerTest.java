@@ -0,0 +1,160 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+class CircuitBreakerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(1_000));
+    // Window of 10, opens at 50% failures once 4 calls are in, 2 trial calls when half-open
+    private final CircuitBreaker breaker =
+            new CircuitBreaker("s3", meterRegistry, 10, 4, 0.5, Duration.ofSeconds(5), 2, now::get);
+
+    @Test
+    void opensOnceFailureRateIsReached() {
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state(), "fewer calls than minimum-calls");
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, transitions("open"));
+        assertEquals(1, meterRegistry.get("resilience.circuit.state").tag("dependency", "s3").gauge().value());
+    }
+
+    @Test
+    void halfOpensAfterOpenDurationAndClosesWhenTrialsSucceed() {
+        tripOpen();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "only half-open-calls trials at a time");
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(1, transitions("closed"));
+
+        // The window starts empty again, so one failure doesn't reopen it
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void reopensWhenATrialFails() {
+        tripOpen();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(2, transitions("open"));
+    }
+
+    @Test
+    void guardFailsFastWhileOpenAndIgnoresRequestErrors() throws Exception {
+        DependencyGuard guard = new DependencyGuard("s3", breaker, 1, 1, Duration.ofSeconds(1), meterRegistry);
+        try {
+            for (int i = 0; i < 4; i++) {
+                assertThrows(ConditionalCheckFailedException.class, () -> guard.get(() -> {
+                    throw ConditionalCheckFailedException.builder().statusCode(400).message("exists").build();
+                }));
+            }
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.state(), "4xx errors don't trip the breaker");
+
+            for (int i = 0; i < 4; i++) {
+                assertThrows(IOException.class, () -> guard.call(() -> {
+                    throw new IOException("connection reset");
+                }));
+            }
+            assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+            DependencyUnavailableException e = assertThrows(DependencyUnavailableException.class,
+                    () -> guard.get(() -> "not called"));
+            assertEquals("s3", e.getDependency());
+            assertEquals(1, rejected("circuit-open"));
+        } finally {
+            guard.shutdown();
+        }
+    }
+
+    @Test
+    void guardRejectsWhenBulkheadIsFullAndTimesOutSlowCalls() throws Exception {
+        DependencyGuard guard = new DependencyGuard("s3", breaker, 1, 1, Duration.ofSeconds(1), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // One call holds the only thread, a second one waits in the queue
+            CompletableFuture<String> busy = CompletableFuture.supplyAsync(() -> guard.get(() -> {
+                started.countDown();
+                return await(release);
+            }));
+            started.await();
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> guard.get(() -> await(release)));
+            while (guard.queued() == 0) {
+                Thread.onSpinWait();
+            }
+
+            DependencyUnavailableException refused = assertThrows(DependencyUnavailableException.class,
+                    () -> guard.get(() -> "not called"));
+            assertEquals("bulkhead full", refused.getReason());
+            assertEquals(1, rejected("bulkhead-full"));
+
+            ExecutionException timedOut = assertThrows(ExecutionException.class, busy::get);
+            assertInstanceOf(DependencyUnavailableException.class, timedOut.getCause());
+            assertThrows(ExecutionException.class, queued::get);
+            assertEquals(2, rejected("timeout"));
+        } finally {
+            release.countDown();
+            guard.shutdown();
+        }
+    }
+
+    private static String await(CountDownLatch latch) {
+        try {
+            latch.await();
+            return "done";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void tripOpen() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    private double transitions(String state) {
+        return meterRegistry.get("resilience.circuit.transitions").tag("dependency", "s3").tag("state", state).counter().count();
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("resilience.calls.rejected").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,55 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(1_000));
+    // 10 requests per second, bursts of 5
+    private final ClientRateLimiter limiter = new ClientRateLimiter(10, 5, 1_000, now::get);
+
+    @Test
+    void admitsBurstThenRejectsUntilNextToken() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("ip:10.0.0.1"), "request " + i);
+        }
+
+        long wait = limiter.tryAcquire("ip:10.0.0.1");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+
+        now.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.1"));
+        assertTrue(limiter.tryAcquire("ip:10.0.0.1") > 0);
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("key:abc");
+        }
+
+        // Two seconds is enough for 20 tokens, but the bucket only holds 5
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        int admitted = 0;
+        while (limiter.tryAcquire("key:abc") == 0) {
+            admitted++;
+        }
+        assertEquals(5, admitted);
+    }
+
+    @Test
+    void keepsSeparateBucketsPerClient() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("ip:10.0.0.1");
+        }
+
+        assertTrue(limiter.tryAcquire("ip:10.0.0.1") > 0);
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.2"));
+    }
+}
@@ -0,0 +1,161 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.sarvesh.orderservice.service.DependencyLimits.Dependency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+
+class DependencyLimitsTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private static final GetItemRequest GET_ORDER = GetItemRequest.builder().tableName("Orders").build();
+    private static final PutObjectRequest PUT_INVOICE = PutObjectRequest.builder().key("invoices/abc.pdf").build();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DependencyLimits limits = new DependencyLimits(registry,
+            "Orders", "OrderIdempotencyKeys", "InvoiceRefs", "exports/",
+            10, 20, Duration.ofMillis(100),
+            4, 8, Duration.ofSeconds(1),
+            2, 0.5);
+
+    @Test
+    void rejectsOnceDependencyIsAtItsLimit() {
+        for (int i = 0; i < 4; i++) {
+            assertNull(limits.tryAcquire(EnumSet.of(Dependency.DYNAMODB, Dependency.S3)));
+        }
+
+        // S3 is full; the DynamoDB slot taken on the way is given back
+        assertEquals(Dependency.S3, limits.tryAcquire(EnumSet.of(Dependency.DYNAMODB, Dependency.S3)));
+        assertEquals(4, limits.limit(Dependency.DYNAMODB).inFlight());
+        assertNull(limits.tryAcquire(EnumSet.of(Dependency.DYNAMODB)));
+
+        limits.release(List.of(Dependency.S3));
+        assertNull(limits.tryAcquire(EnumSet.of(Dependency.S3)));
+    }
+
+    @Test
+    void backsOffOnThrottlingAndSlowCalls() {
+        limits.onCall(GET_ORDER, FAST, "ProvisionedThroughputExceededException");
+        assertEquals(5, limits.limit(Dependency.DYNAMODB).limit());
+
+        // The rest of the 10 calls that were in flight under the old limit don't cut it again
+        for (int i = 0; i < 9; i++) {
+            limits.onCall(GET_ORDER, SLOW, null);
+        }
+        assertEquals(5, limits.limit(Dependency.DYNAMODB).limit());
+
+        limits.onCall(GET_ORDER, SLOW, null);
+        assertEquals(2, limits.limit(Dependency.DYNAMODB).limit());
+
+        // Never below the minimum
+        for (int i = 0; i < 5; i++) {
+            limits.onCall(GET_ORDER, FAST, "ThrottlingException");
+        }
+        assertEquals(2, limits.limit(Dependency.DYNAMODB).limit());
+
+        // Other errors and other services don't count
+        limits.onCall(PUT_INVOICE, FAST, "NoSuchKey");
+        limits.onCall(PublishRequest.builder().message("event").build(), FAST, "Throttling");
+        assertEquals(4, limits.limit(Dependency.S3).limit());
+    }
+
+    @Test
+    void growsWhileHealthyAndBusy() {
+        AdaptiveLimit s3 = limits.limit(Dependency.S3);
+
+        // Idle: healthy calls alone don't raise the limit; it grows while at least half used
+        limits.onCall(PUT_INVOICE, FAST, null);
+        assertEquals(4, s3.limit());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(s3.tryAcquire());
+        }
+        for (int i = 0; i < 40; i++) {
+            limits.onCall(PUT_INVOICE, FAST, null);
+        }
+        assertEquals(8, s3.limit());
+        assertEquals(8.0, registry.get("orders.admission.limit").tag("dependency", "s3").gauge().value());
+    }
+
+    @Test
+    void ignoresBackgroundWork() {
+        // Export scan pages, outbox relay queries, stats checkpoints and bulk writes are slow by nature
+        limits.onCall(ScanRequest.builder().tableName("Orders").build(), SLOW, null);
+        limits.onCall(QueryRequest.builder().tableName("OrderOutbox").build(), SLOW, "ThrottlingException");
+        limits.onCall(BatchWriteItemRequest.builder().build(), SLOW, null);
+        TransactWriteItem put = TransactWriteItem.builder().put(Put.builder().tableName("Orders").build()).build();
+        limits.onCall(TransactWriteItemsRequest.builder().transactItems(put, put, put, put).build(), SLOW, null);
+        assertEquals(10, limits.limit(Dependency.DYNAMODB).limit());
+
+        // Export files and invoice parts move megabytes per call
+        limits.onCall(CreateMultipartUploadRequest.builder().key("exports/e1/segment-000/part-00000.ndjson.gz").build(), SLOW, null);
+        limits.onCall(UploadPartRequest.builder().key("invoices/abc.pdf").build(), TimeUnit.SECONDS.toNanos(10), null);
+        assertEquals(4, limits.limit(Dependency.S3).limit());
+
+        // The same kind of call on the request path does count
+        limits.onCall(QueryRequest.builder().tableName("Orders").build(), SLOW, null);
+        assertEquals(5, limits.limit(Dependency.DYNAMODB).limit());
+        for (int i = 0; i < 10; i++) {
+            limits.onCall(TransactWriteItemsRequest.builder().transactItems(put, put).build(), SLOW, null);
+        }
+        assertEquals(2, limits.limit(Dependency.DYNAMODB).limit());
+    }
+
+    @Test
+    void burstOfSlowCallsCutsTheLimitOnce() throws Exception {
+        // A full limit's worth of calls in flight when DynamoDB slows down all come back slow at once
+        ExecutorService callers = Executors.newFixedThreadPool(10);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 10; i++) {
+                callers.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    limits.onCall(GET_ORDER, SLOW, "ThrottlingException");
+                });
+            }
+            start.countDown();
+        } finally {
+            callers.shutdown();
+        }
+        assertTrue(callers.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(5, limits.limit(Dependency.DYNAMODB).limit());
+
+        // Slow calls keep cutting it, once per window
+        for (int i = 0; i < 10; i++) {
+            limits.onCall(GET_ORDER, SLOW, null);
+        }
+        assertEquals(2, limits.limit(Dependency.DYNAMODB).limit());
+    }
+}
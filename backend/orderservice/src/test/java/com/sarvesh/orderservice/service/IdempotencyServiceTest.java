@@ -0,0 +1,134 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarvesh.orderservice.model.IdempotencyRecord;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OutboxEvent;
+import com.sarvesh.orderservice.repository.IdempotencyRepository;
+import com.sarvesh.orderservice.repository.OutboxRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+
+class IdempotencyServiceTest {
+
+    private final IdempotencyRepository repository = mock(IdempotencyRepository.class);
+    private final IdempotencyService service = new IdempotencyService(repository, TestGuards.create(), new ObjectMapper(),
+            new SimpleMeterRegistry(), Duration.ofHours(24), Duration.ofSeconds(30), 100, Duration.ofMinutes(10));
+
+    @Test
+    void replaysCompletedKeyFromMemoryWithoutDynamoDb() {
+        when(repository.tryReserve(any(), anyLong())).thenReturn(true);
+
+        IdempotencyService.Reservation first = service.reserve("key-1", "hash");
+        service.complete("key-1", "hash", order(first.orderId()));
+        IdempotencyService.Reservation retry = service.reserve("key-1", "hash");
+
+        assertEquals(IdempotencyService.Outcome.ACQUIRED, first.outcome());
+        assertEquals(IdempotencyService.Outcome.REPLAYED, retry.outcome());
+        assertEquals(first.orderId(), retry.order().getOrderId());
+        verify(repository, times(1)).tryReserve(any(), anyLong());
+        verify(repository, never()).find(any());
+    }
+
+    @Test
+    void replaysResponseStoredByAnotherInstance() throws Exception {
+        IdempotencyRecord stored = completedRecord("key-2", "hash", "order-2");
+        when(repository.tryReserve(any(), anyLong())).thenReturn(false);
+        when(repository.find("key-2")).thenReturn(Optional.of(stored));
+
+        IdempotencyService.Reservation retry = service.reserve("key-2", "hash");
+
+        assertEquals(IdempotencyService.Outcome.REPLAYED, retry.outcome());
+        assertEquals("order-2", retry.order().getOrderId());
+    }
+
+    @Test
+    void rejectsKeyReusedForDifferentRequest() throws Exception {
+        when(repository.tryReserve(any(), anyLong())).thenReturn(false);
+        when(repository.find("key-3")).thenReturn(Optional.of(completedRecord("key-3", "hash", "order-3")));
+
+        assertEquals(IdempotencyService.Outcome.KEY_REUSED, service.reserve("key-3", "other-hash").outcome());
+    }
+
+    @Test
+    void takesOverAbandonedReservationKeepingTheOrderId() {
+        IdempotencyRecord abandoned = new IdempotencyRecord();
+        abandoned.setIdempotencyKey("key-4");
+        abandoned.setRequestHash("hash");
+        abandoned.setStatus(IdempotencyRecord.Status.IN_PROGRESS);
+        abandoned.setOrderId("order-4");
+        abandoned.setLockedUntil(System.currentTimeMillis() - 1_000);
+        when(repository.tryReserve(any(), anyLong())).thenReturn(false);
+        when(repository.find("key-4")).thenReturn(Optional.of(abandoned));
+        when(repository.tryTakeOver(any(), anyLong())).thenReturn(true);
+
+        IdempotencyService.Reservation reservation = service.reserve("key-4", "hash");
+
+        ArgumentCaptor<IdempotencyRecord> takeover = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).tryTakeOver(takeover.capture(), anyLong());
+        assertEquals(IdempotencyService.Outcome.ACQUIRED, reservation.outcome());
+        assertEquals("order-4", reservation.orderId());
+        assertEquals("order-4", takeover.getValue().getOrderId());
+    }
+
+    @Test
+    void redoneCreateWritesTheSameOrderCreatedEvent() {
+        when(repository.tryReserve(any(), anyLong())).thenReturn(true);
+        IdempotencyService.Reservation first = service.reserve("key-5", "hash");
+        ArgumentCaptor<IdempotencyRecord> reserved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).tryReserve(reserved.capture(), anyLong());
+
+        // The first owner died before completing; another instance takes the key over
+        IdempotencyRecord abandoned = reserved.getValue();
+        abandoned.setLockedUntil(System.currentTimeMillis() - 1_000);
+        IdempotencyService other = new IdempotencyService(repository, TestGuards.create(), new ObjectMapper(),
+                new SimpleMeterRegistry(), Duration.ofHours(24), Duration.ofSeconds(30), 100, Duration.ofMinutes(10));
+        when(repository.tryReserve(any(), anyLong())).thenReturn(false);
+        when(repository.find("key-5")).thenReturn(Optional.of(abandoned));
+        when(repository.tryTakeOver(any(), anyLong())).thenReturn(true);
+        IdempotencyService.Reservation redo = other.reserve("key-5", "hash");
+
+        assertEquals(IdempotencyService.Outcome.ACQUIRED, redo.outcome());
+        assertEquals(first.createdAt(), redo.createdAt());
+
+        OutboxRepository outbox = new OutboxRepository(mock(DynamoDbEnhancedClient.class), "OrderOutbox", 8);
+        OutboxEvent firstEvent = outbox.createdEvent(order(first.orderId()), first.createdAt().getTime());
+        OutboxEvent secondEvent = outbox.createdEvent(order(redo.orderId()), redo.createdAt().getTime());
+        assertEquals(firstEvent.getShard(), secondEvent.getShard());
+        assertEquals(firstEvent.getEventId(), secondEvent.getEventId());
+    }
+
+    private static IdempotencyRecord completedRecord(String key, String hash, String orderId) throws Exception {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey(key);
+        record.setRequestHash(hash);
+        record.setStatus(IdempotencyRecord.Status.COMPLETED);
+        record.setOrderId(orderId);
+        record.setResponseBody(new ObjectMapper().writeValueAsString(order(orderId)));
+        return record;
+    }
+
+    private static Order order(String orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerName("Alice");
+        order.setAmount(42.0);
+        return order;
+    }
+}
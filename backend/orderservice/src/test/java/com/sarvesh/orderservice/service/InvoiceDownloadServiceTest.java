@@ -0,0 +1,94 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+class InvoiceDownloadServiceTest {
+
+    private static final String CONTENT_KEY = S3Service.CONTENT_KEY_PREFIX + "a".repeat(64);
+    private static final String UPLOAD_KEY = "invoices/order-1/0b7e5c1a-3f2d-4e8a-9c61-5d2f8a7b4e10_invoice.pdf";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final S3Presigner presigner = S3Presigner.builder()
+            .endpointOverride(URI.create("http://localhost:4566"))
+            .region(Region.AP_SOUTH_1)
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+            .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+            .build();
+    private final InvoiceDownloadService service = new InvoiceDownloadService(presigner, "invoices-bucket",
+            Duration.ofHours(1), Duration.ofMinutes(5), 100, registry);
+
+    @AfterEach
+    void tearDown() {
+        presigner.close();
+    }
+
+    @Test
+    void reusesSignedUrlForSameKey() {
+        InvoiceDownloadService.PresignedInvoice first = service.presign("order-1", UPLOAD_KEY);
+        InvoiceDownloadService.PresignedInvoice second = service.presign("order-1", UPLOAD_KEY);
+
+        assertSame(first, second);
+        assertTrue(first.url().contains("/invoices-bucket/" + UPLOAD_KEY));
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "invoice-urls").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void eTagDependsOnlyOnContentKey() {
+        InvoiceDownloadService.PresignedInvoice invoice = service.presign("order-1", CONTENT_KEY);
+
+        assertEquals(InvoiceDownloadService.eTag(CONTENT_KEY), invoice.eTag());
+        assertNotEquals(InvoiceDownloadService.eTag(S3Service.CONTENT_KEY_PREFIX + "b".repeat(64)), invoice.eTag());
+        assertTrue(invoice.eTag().startsWith("\"") && invoice.eTag().endsWith("\""));
+        assertTrue(invoice.url().contains("immutable"));
+    }
+
+    @Test
+    void uploadKeyGetsNoETagWhileItsContentMayChange() {
+        InvoiceDownloadService.PresignedInvoice invoice = service.presign("order-1", UPLOAD_KEY);
+
+        assertNull(invoice.eTag());
+        assertFalse(invoice.url().contains("immutable"));
+    }
+
+    @Test
+    void refusesKeysTheServiceDidNotIssueForTheOrder() {
+        assertThrows(IllegalArgumentException.class, () -> service.presign("order-1", "exports/e-1/manifest.json"));
+        assertThrows(IllegalArgumentException.class, () -> service.presign("order-2", UPLOAD_KEY));
+        assertThrows(IllegalArgumentException.class, () -> service.presign("order-1", "invoices/order-1/../order-2/x"));
+        assertThrows(IllegalArgumentException.class, () -> service.presign("order-1", S3Service.CONTENT_KEY_PREFIX + "../exports"));
+        assertThrows(IllegalArgumentException.class, () -> service.presign("order-1", null));
+    }
+
+    @Test
+    void maxAgeKeepsRefreshMargin() {
+        long maxAge = service.presign("order-1", UPLOAD_KEY).maxAgeSeconds(service.refreshMargin());
+
+        assertTrue(maxAge > Duration.ofMinutes(54).toSeconds() && maxAge <= Duration.ofMinutes(55).toSeconds());
+    }
+
+    @Test
+    void rejectsRefreshMarginLongerThanUrlLifetime() {
+        assertThrows(IllegalArgumentException.class, () -> new InvoiceDownloadService(presigner, "invoices-bucket",
+                Duration.ofMinutes(5), Duration.ofMinutes(5), 100, registry));
+    }
+}
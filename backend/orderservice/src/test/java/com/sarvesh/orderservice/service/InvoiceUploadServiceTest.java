@@ -0,0 +1,156 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarvesh.orderservice.model.InvoiceUpload;
+import com.sarvesh.orderservice.model.InvoiceUploadCompletion;
+import com.sarvesh.orderservice.model.InvoiceUploadRequest;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderEvent;
+import com.sarvesh.orderservice.model.OutboxEvent;
+import com.sarvesh.orderservice.repository.InvoiceRefRepository;
+import com.sarvesh.orderservice.repository.OrderRepository;
+import com.sarvesh.orderservice.repository.OutboxRepository;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+class InvoiceUploadServiceTest {
+
+    private final S3Client s3Client = mock(S3Client.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final InvoiceRefRepository invoiceRefRepository = mock(InvoiceRefRepository.class);
+    private final OutboxRepository outboxRepository = mock(OutboxRepository.class);
+    private final OrderCache orderCache = mock(OrderCache.class);
+    // Presigning is local, so a real presigner works without S3
+    private final S3Presigner presigner = S3Presigner.builder()
+            .endpointOverride(URI.create("http://localhost:4566"))
+            .region(Region.AP_SOUTH_1)
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+            .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+            .build();
+    private final InvoiceUploadService service = new InvoiceUploadService(s3Client, presigner, orderRepository,
+            invoiceRefRepository, outboxRepository, new OrderEventCodec(new ObjectMapper(), "json"), orderCache,
+            TestGuards.create(), "invoices-bucket", DataSize.ofMegabytes(16), DataSize.ofMegabytes(8), DataSize.ofGigabytes(5),
+            Duration.ofMinutes(15));
+
+    @AfterEach
+    void tearDown() {
+        presigner.close();
+    }
+
+    @Test
+    void smallInvoiceGetsSinglePutUrl() {
+        when(orderRepository.findById("order-1")).thenReturn(Optional.of(order("order-1")));
+
+        InvoiceUpload upload = service.start("order-1",
+                new InvoiceUploadRequest("../march invoice.pdf", "application/pdf", 1024)).orElseThrow();
+
+        assertTrue(upload.key().startsWith("invoices/order-1/"));
+        assertTrue(upload.key().endsWith("_march_invoice.pdf"));
+        assertNull(upload.uploadId());
+        assertTrue(upload.url().contains("/invoices-bucket/invoices/order-1/"));
+        assertTrue(upload.parts().isEmpty());
+        verifyNoInteractions(s3Client);
+    }
+
+    @Test
+    void largeInvoiceGetsOneUrlPerPart() {
+        when(orderRepository.findById("order-1")).thenReturn(Optional.of(order("order-1")));
+        when(s3Client.createMultipartUpload(InvoiceUploadServiceTest.<CreateMultipartUploadRequest.Builder>anyConsumer()))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+
+        long size = DataSize.ofMegabytes(20).toBytes();
+        InvoiceUpload upload = service.start("order-1",
+                new InvoiceUploadRequest("invoice.pdf", "application/pdf", size)).orElseThrow();
+
+        assertEquals("upload-1", upload.uploadId());
+        assertNull(upload.url());
+        assertEquals(DataSize.ofMegabytes(8).toBytes(), upload.partSize());
+        assertEquals(List.of(1, 2, 3), upload.parts().stream().map(InvoiceUpload.Part::partNumber).toList());
+        upload.parts().forEach(part -> assertTrue(part.url().contains("uploadId=upload-1")));
+    }
+
+    @Test
+    void unknownOrderGetsNoUrl() {
+        when(orderRepository.findById("missing")).thenReturn(Optional.empty());
+
+        assertTrue(service.start("missing", new InvoiceUploadRequest("invoice.pdf", null, 10)).isEmpty());
+    }
+
+    @Test
+    void rejectsOversizedInvoice() {
+        assertThrows(IllegalArgumentException.class, () -> service.start("order-1",
+                new InvoiceUploadRequest("invoice.pdf", null, DataSize.ofGigabytes(6).toBytes())));
+    }
+
+    @Test
+    void completionAttachesUploadedObjectWithEvent() {
+        String key = "invoices/order-1/0b7e5c1a-3f2d-4e8a-9c61-5d2f8a7b4e10_invoice.pdf";
+        when(orderRepository.findById("order-1")).thenReturn(Optional.of(order("order-1")));
+        when(s3Client.headObject(InvoiceUploadServiceTest.<HeadObjectRequest.Builder>anyConsumer()))
+                .thenReturn(HeadObjectResponse.builder().contentLength(1024L).build());
+        OutboxEvent event = new OutboxEvent();
+        event.setEventId("e1");
+        event.setEventType(OrderEvent.INVOICE_ATTACHED);
+        when(outboxRepository.newEvent("order-1", OrderEvent.INVOICE_ATTACHED)).thenReturn(event);
+
+        Order order = service.complete("order-1", new InvoiceUploadCompletion(key, null, List.of())).orElseThrow();
+
+        assertEquals(key, order.getInvoiceUrl());
+        assertNotNull(event.getPayload());
+        verify(invoiceRefRepository).add(key, "order-1");
+        verify(orderRepository).attachInvoice("order-1", key, event);
+        verify(orderCache).put(order);
+    }
+
+    @Test
+    void completionRejectsKeyOfAnotherOrder() {
+        assertThrows(IllegalArgumentException.class, () -> service.complete("order-1",
+                new InvoiceUploadCompletion("invoices/order-2/0b7e5c1a-3f2d-4e8a-9c61-5d2f8a7b4e10_invoice.pdf", null, List.of())));
+        assertThrows(IllegalArgumentException.class, () -> service.complete("order-1",
+                new InvoiceUploadCompletion("invoices/order-1/../../exports/e-1/manifest.json", null, List.of())));
+
+        verify(orderRepository, never()).attachInvoice(any(), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Consumer<T> anyConsumer() {
+        return any(Consumer.class);
+    }
+
+    private static Order order(String orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        return order;
+    }
+}
@@ -0,0 +1,180 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarvesh.orderservice.model.BulkOrderItemResult;
+import com.sarvesh.orderservice.model.BulkOrderItemResult.Status;
+import com.sarvesh.orderservice.model.BulkOrderResult;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OutboxEvent;
+import com.sarvesh.orderservice.repository.OrderRepository;
+import com.sarvesh.orderservice.repository.OutboxRepository;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+class OrderBulkServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final ExecutorService ioExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final OrderBulkService service = new OrderBulkService(orderRepository,
+            new OutboxRepository(mock(DynamoDbEnhancedClient.class), "OrderOutbox", 8), TestGuards.create(),
+            new OrderEventCodec(objectMapper, "json"), objectMapper, ioExecutor, 2, MAX_ATTEMPTS);
+
+    // Every transaction attempt, successful or not
+    private final List<List<Order>> writes = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void tearDown() {
+        ioExecutor.shutdownNow();
+    }
+
+    @Test
+    void writesOrdersInChunksWithTheirEvents() throws Exception {
+        doAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            List<OutboxEvent> events = invocation.getArgument(1);
+            assertEquals(orders.stream().map(Order::getOrderId).toList(),
+                    events.stream().map(OutboxEvent::getOrderId).toList());
+            writes.add(orders);
+            return null;
+        }).when(orderRepository).saveWithEvents(any(), any());
+
+        BulkOrderResult result = service.ingestNdjson(ndjson(IntStream.range(0, 120).mapToObj(i -> order("c" + i)).toList()));
+
+        assertEquals(120, result.getReceived());
+        assertEquals(120, result.getCreated());
+        assertEquals(IntStream.range(0, 120).boxed().toList(),
+                result.getResults().stream().map(BulkOrderItemResult::getIndex).toList());
+        assertEquals(List.of(20, 50, 50), writes.stream().map(List::size).sorted().toList());
+    }
+
+    @Test
+    void retriesCancelledTransactionsUntilTheySucceed() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (attempts.incrementAndGet() < MAX_ATTEMPTS) {
+                throw cancelled();
+            }
+            return null;
+        }).when(orderRepository).saveWithEvents(any(), any());
+
+        BulkOrderResult result = service.ingestNdjson(ndjson(List.of(order("a"), order("b"))));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(MAX_ATTEMPTS, attempts.get());
+    }
+
+    @Test
+    void failsEveryOrderOfAChunkWhoseTransactionStaysCancelled() throws Exception {
+        // The second chunk (indexes 50..59) contains an order that keeps the transaction from committing
+        doAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            writes.add(orders);
+            if (orders.stream().anyMatch(order -> "conflict".equals(order.getCustomerName()))) {
+                throw cancelled();
+            }
+            return null;
+        }).when(orderRepository).saveWithEvents(any(), any());
+        List<String> lines = new ArrayList<>(IntStream.range(0, 60).mapToObj(i -> order("c" + i)).toList());
+        lines.set(55, order("conflict"));
+
+        BulkOrderResult result = service.ingestNdjson(ndjson(lines));
+
+        assertEquals(60, result.getReceived());
+        assertEquals(50, result.getCreated());
+        assertEquals(10, result.getFailed());
+        for (BulkOrderItemResult item : result.getResults()) {
+            assertEquals(item.getIndex() < 50 ? Status.CREATED : Status.FAILED, item.getStatus());
+        }
+        // One write for the first chunk, every attempt for the second
+        assertEquals(1 + MAX_ATTEMPTS, writes.size());
+    }
+
+    @Test
+    void reportsBadNdjsonLinesWithoutAffectingTheOthers() throws Exception {
+        String body = order("a") + "\n"
+                + "not json\n"
+                + "\n"
+                + "{\"amount\":\"ten\"}\n"
+                + "42\n"
+                + order("b") + "\n";
+
+        BulkOrderResult result = service.ingestNdjson(stream(body));
+
+        assertEquals(List.of(Status.CREATED, Status.INVALID, Status.INVALID, Status.INVALID, Status.CREATED),
+                result.getResults().stream().map(BulkOrderItemResult::getStatus).toList());
+        assertEquals(2, result.getCreated());
+        assertEquals(3, result.getFailed());
+    }
+
+    @Test
+    void writesArrayElementsBeforeMalformedJson() throws Exception {
+        String body = "[" + order("a") + ", 42, " + order("b") + ", {\"customerName\":";
+
+        BulkOrderResult result = service.ingestJsonArray(stream(body));
+
+        assertEquals(List.of(Status.CREATED, Status.INVALID, Status.CREATED, Status.INVALID),
+                result.getResults().stream().map(BulkOrderItemResult::getStatus).toList());
+        verify(orderRepository).saveWithEvents(any(), any());
+    }
+
+    @Test
+    void ignoresInvoiceUrlSentByTheClient() throws Exception {
+        doAnswer(invocation -> {
+            writes.add(invocation.getArgument(0));
+            return null;
+        }).when(orderRepository).saveWithEvents(any(), any());
+
+        service.ingestNdjson(stream("{\"customerName\":\"a\",\"invoiceUrl\":\"exports/e-1/manifest.json\"}"));
+
+        assertNull(writes.get(0).get(0).getInvoiceUrl());
+    }
+
+    @Test
+    void rejectsBodyThatIsNotAnArray() {
+        assertThrows(IllegalArgumentException.class, () -> service.ingestJsonArray(stream(order("a"))));
+        verify(orderRepository, never()).saveWithEvents(any(), any());
+    }
+
+    private static String order(String customerName) {
+        return "{\"customerName\":\"" + customerName + "\",\"amount\":10.5}";
+    }
+
+    private static InputStream ndjson(List<String> lines) {
+        return stream(String.join("\n", lines));
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static TransactionCanceledException cancelled() {
+        return TransactionCanceledException.builder().message("Transaction cancelled").build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderCacheEventHandlerTest {
+
+    private final OrderCache cache = new OrderCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry());
+    private final OrderCacheEventHandler handler = new OrderCacheEventHandler(cache);
+
+    @Test
+    void lateCreatedEventDoesNotReplaceNewerOrder() {
+        cache.put(order("o-1", "invoices/o-1/invoice.pdf"));
+
+        // Redelivered after the invoice was attached; its snapshot has no invoice
+        handler.handle(new OrderEvent(OrderEvent.SCHEMA_VERSION, "e1", OrderEvent.ORDER_CREATED, 0, order("o-1", null)));
+
+        Optional<Order> loaded = cache.get("o-1", id -> Optional.of(order("o-1", "invoices/o-1/invoice.pdf")));
+        assertEquals("invoices/o-1/invoice.pdf", loaded.orElseThrow().getInvoiceUrl());
+    }
+
+    @Test
+    void dropsCachedMissWhenOrderIsCreated() {
+        cache.get("o-2", id -> Optional.empty());
+
+        handler.handle(new OrderEvent(OrderEvent.SCHEMA_VERSION, "e2", OrderEvent.ORDER_CREATED, 0, order("o-2", null)));
+
+        assertEquals("o-2", cache.get("o-2", id -> Optional.of(order("o-2", null))).orElseThrow().getOrderId());
+    }
+
+    private static Order order(String orderId, String invoiceUrl) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setInvoiceUrl(invoiceUrl);
+        return order;
+    }
+}
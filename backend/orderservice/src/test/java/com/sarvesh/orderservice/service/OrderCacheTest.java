@@ -0,0 +1,86 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.sarvesh.orderservice.model.Order;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderCacheTest {
+
+    private final OrderCache cache = new OrderCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+    @Test
+    void cachesMissesSoTheLoaderRunsOnce() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("missing", id -> { loads.incrementAndGet(); return Optional.empty(); });
+        Optional<Order> second = cache.get("missing", id -> { loads.incrementAndGet(); return Optional.empty(); });
+
+        assertTrue(second.isEmpty());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    void putReplacesNegativeEntry() {
+        cache.get("o-1", id -> Optional.empty());
+
+        Order order = new Order();
+        order.setOrderId("o-1");
+        cache.put(order);
+
+        assertEquals("o-1", cache.get("o-1", id -> Optional.empty()).orElseThrow().getOrderId());
+    }
+
+    @Test
+    void coalescesConcurrentMissesForTheSameId() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Optional<Order>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return cache.get("hot", id -> {
+                        loads.incrementAndGet();
+                        sleep(50);
+                        Order order = new Order();
+                        order.setOrderId(id);
+                        return Optional.of(order);
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<Optional<Order>> result : results) {
+                assertTrue(result.get().isPresent());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Date;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderEvent;
+import com.sarvesh.orderservice.model.OutboxEvent;
+
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+class OrderEventCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void jsonEventSurvivesSnsNotificationWrapper() throws Exception {
+        OutboxEvent outboxEvent = encode(new OrderEventCodec(objectMapper, "json"));
+
+        // What SQS receives from an SNS subscription without raw message delivery
+        String notification = objectMapper.writeValueAsString(Map.of(
+                "Type", "Notification",
+                "Message", outboxEvent.getPayload(),
+                "MessageAttributes", Map.of(OrderEventCodec.ATTRIBUTE_CONTENT_TYPE,
+                        Map.of("Type", "String", "Value", OrderEventCodec.JSON))));
+        OrderEvent event = new OrderEventCodec(objectMapper, "json").decode(Message.builder().body(notification).build());
+
+        assertDecoded(event);
+    }
+
+    @Test
+    void cborEventIsReadByJsonConfiguredConsumer() throws Exception {
+        OutboxEvent outboxEvent = encode(new OrderEventCodec(objectMapper, "cbor"));
+
+        // Raw message delivery: attributes arrive on the SQS message itself
+        Message message = Message.builder()
+                .body(outboxEvent.getPayload())
+                .messageAttributes(Map.of(OrderEventCodec.ATTRIBUTE_CONTENT_TYPE, MessageAttributeValue.builder()
+                        .dataType("String").stringValue(outboxEvent.getContentType()).build()))
+                .build();
+        OrderEvent event = new OrderEventCodec(objectMapper, "json").decode(message);
+
+        assertEquals(OrderEventCodec.CBOR, outboxEvent.getContentType());
+        assertDecoded(event);
+    }
+
+    @Test
+    void ignoresFieldsAddedByNewerProducers() throws Exception {
+        String body = "{\"schemaVersion\":2,\"eventId\":\"e1\",\"eventType\":\"OrderCreated\",\"occurredAt\":1,"
+                + "\"channel\":\"web\",\"order\":{\"orderId\":\"order-1\",\"customerName\":\"Alice\",\"amount\":42.0}}";
+
+        OrderEvent event = new OrderEventCodec(objectMapper, "json").decode(body, OrderEventCodec.JSON);
+
+        assertEquals(2, event.schemaVersion());
+        assertEquals("order-1", event.order().getOrderId());
+    }
+
+    private static OutboxEvent encode(OrderEventCodec codec) {
+        Order order = new Order();
+        order.setOrderId("order-1");
+        order.setCustomerName("Alice");
+        order.setAmount(42.0);
+        order.setCreatedAt(new Date(1_700_000_000_000L));
+
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setEventId("e1");
+        outboxEvent.setEventType(OrderEvent.ORDER_CREATED);
+        outboxEvent.setCreatedAt(1_700_000_000_000L);
+        codec.encodeInto(outboxEvent, order);
+        return outboxEvent;
+    }
+
+    private static void assertDecoded(OrderEvent event) {
+        assertEquals(OrderEvent.SCHEMA_VERSION, event.schemaVersion());
+        assertEquals("e1", event.eventId());
+        assertEquals(OrderEvent.ORDER_CREATED, event.eventType());
+        assertEquals("order-1", event.order().getOrderId());
+        assertEquals("Alice", event.order().getCustomerName());
+        assertEquals(1_700_000_000_000L, event.order().getCreatedAt().getTime());
+    }
+}
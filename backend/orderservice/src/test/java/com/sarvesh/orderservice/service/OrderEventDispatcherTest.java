@@ -0,0 +1,135 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderEventDispatcherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private OrderEventDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void runsEventsOfOneOrderInSequence() {
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        dispatcher = new OrderEventDispatcher(List.of(handler(event -> {
+            Thread.sleep(5);
+            handled.add(event.eventId());
+        })), 4, registry);
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(dispatcher.dispatch(event("e" + i, "order-1")));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            expected.add("e" + i);
+        }
+        assertEquals(expected, handled);
+        assertEquals(20, registry.get("orders.events.handler").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void runsDifferentOrdersInParallel() {
+        // The latch only opens in time for both handlers if they run at the same time
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        AtomicInteger overlapped = new AtomicInteger();
+        dispatcher = new OrderEventDispatcher(List.of(handler(event -> {
+            bothRunning.countDown();
+            if (bothRunning.await(2, TimeUnit.SECONDS)) {
+                overlapped.incrementAndGet();
+            }
+        })), 64, registry);
+
+        CompletableFuture<Void> first = dispatcher.dispatch(event("e1", orderOnDifferentPartition(64, "order-a")));
+        CompletableFuture<Void> second = dispatcher.dispatch(event("e2", "order-a"));
+
+        CompletableFuture.allOf(first, second).join();
+        assertEquals(2, overlapped.get());
+    }
+
+    @Test
+    void reportsHandlerFailure() {
+        dispatcher = new OrderEventDispatcher(List.of(handler(event -> {
+            throw new IllegalStateException("boom");
+        })), 2, registry);
+
+        CompletionException failure = assertThrows(CompletionException.class,
+                () -> dispatcher.dispatch(event("e1", "order-1")).join());
+
+        assertEquals("boom", failure.getCause().getMessage());
+        assertEquals(1, registry.get("orders.events.handler").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void completesEventsWithoutHandler() {
+        dispatcher = new OrderEventDispatcher(List.of(), 2, registry);
+
+        OrderEvent event = new OrderEvent(OrderEvent.SCHEMA_VERSION, "e1", "OrderShipped", 0, order("order-1"));
+
+        assertTrue(dispatcher.dispatch(event).isDone());
+    }
+
+    private interface Body {
+        void run(OrderEvent event) throws Exception;
+    }
+
+    private static OrderEventHandler handler(Body body) {
+        return new OrderEventHandler() {
+            @Override
+            public Set<String> eventTypes() {
+                return Set.of(OrderEvent.ORDER_CREATED);
+            }
+
+            @Override
+            public void handle(OrderEvent event) throws Exception {
+                body.run(event);
+            }
+        };
+    }
+
+    private static String orderOnDifferentPartition(int partitions, String other) {
+        int otherPartition = Math.floorMod(other.hashCode(), partitions);
+        for (int i = 0; ; i++) {
+            String candidate = "order-" + i;
+            if (Math.floorMod(candidate.hashCode(), partitions) != otherPartition) {
+                return candidate;
+            }
+        }
+    }
+
+    private static OrderEvent event(String eventId, String orderId) {
+        return new OrderEvent(OrderEvent.SCHEMA_VERSION, eventId, OrderEvent.ORDER_CREATED, 0, order(orderId));
+    }
+
+    private static Order order(String orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        return order;
+    }
+}
@@ -0,0 +1,250 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarvesh.orderservice.model.ExportSegment;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderExport;
+import com.sarvesh.orderservice.model.OrderPage;
+import com.sarvesh.orderservice.repository.OrderExportRepository;
+import com.sarvesh.orderservice.repository.OrderRepository;
+
+class OrderExportServiceTest {
+
+    private static final int ORDERS = 23;
+    private static final int PAGE_SIZE = 2;
+    private static final long ROWS_PER_FILE = 3;
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderExportRepository exportRepository = mock(OrderExportRepository.class);
+    private final S3Service s3Service = mock(S3Service.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<String, ExportSegment> segments = new ConcurrentHashMap<>();
+    private final Map<String, String> uploaded = new ConcurrentHashMap<>();
+
+    private OrderExportService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        doAnswer(invocation -> {
+            ExportSegment segment = invocation.getArgument(0);
+            segments.put(segment.getExportId() + "#" + segment.getSegment(), copy(segment));
+            return null;
+        }).when(exportRepository).save(any(ExportSegment.class));
+        when(exportRepository.findByExportId(anyString())).thenAnswer(invocation -> segments.values().stream()
+                .filter(s -> s.getExportId().equals(invocation.getArgument(0)))
+                .map(OrderExportServiceTest::copy)
+                .toList());
+
+        // Segment s holds the orders whose number is s modulo the segment count; tokens are offsets
+        when(orderRepository.scanSegment(anyInt(), anyInt(), anyInt(), nullable(String.class))).thenAnswer(invocation -> {
+            int segment = invocation.getArgument(0);
+            int totalSegments = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            String token = invocation.getArgument(3);
+            List<Order> all = new ArrayList<>();
+            for (int i = segment; i < ORDERS; i += totalSegments) {
+                all.add(order(i));
+            }
+            int from = token != null ? Integer.parseInt(token) : 0;
+            int to = Math.min(from + limit, all.size());
+            return new OrderPage(all.subList(from, to), to < all.size() ? String.valueOf(to) : null);
+        });
+
+        doAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            InputStream in = invocation.getArgument(2);
+            byte[] body = in.readAllBytes();
+            if (key.endsWith(".gz")) {
+                body = new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes();
+            }
+            uploaded.put(key, new String(body, StandardCharsets.UTF_8));
+            return null;
+        }).when(s3Service).uploadStream(anyString(), anyString(), any(InputStream.class), anyLong());
+
+        service = new OrderExportService(orderRepository, exportRepository, s3Service, TestGuards.create(), objectMapper,
+                executor, 4, 16, PAGE_SIZE, ROWS_PER_FILE, "exports/");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void exportsEveryOrderOnceAcrossSegmentsAndFiles() throws Exception {
+        OrderExport started = service.start(3);
+
+        OrderExport done = awaitFinished(started.exportId());
+
+        assertEquals(ExportSegment.Status.DONE, done.status());
+        assertEquals(3, done.segmentsDone());
+        assertEquals(ORDERS, done.rows());
+        assertExportedOnce(done);
+        // Files roll at page boundaries once rows-per-file is reached: 8 orders in segment 0 make 2 files
+        assertTrue(done.files().contains("exports/" + started.exportId() + "/segment-000/part-00001.ndjson.gz"));
+
+        String manifest = uploaded.get(done.manifest());
+        assertNotNull(manifest);
+        assertEquals(ORDERS, objectMapper.readTree(manifest).get("rows").asInt());
+    }
+
+    @Test
+    void resumesFailedSegmentAfterItsLastFile() throws Exception {
+        AtomicBoolean failOnce = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (failOnce.getAndSet(false)) {
+                throw new IllegalStateException("Throughput exceeded");
+            }
+            return new OrderPage(List.of(order(9), order(11)), "6");
+        }).when(orderRepository).scanSegment(eq(1), eq(2), anyInt(), eq("4"));
+
+        OrderExport started = service.start(2);
+        OrderExport failed = awaitFinished(started.exportId());
+
+        assertEquals(ExportSegment.Status.FAILED, failed.status());
+        assertEquals(1, failed.segmentsDone());
+        assertNull(uploaded.get("exports/" + started.exportId() + "/manifest.json"));
+        ExportSegment segment = segments.get(started.exportId() + "#1");
+        assertEquals("4", segment.getPageToken());
+        assertEquals(1, segment.getNextPart());
+
+        service.resume(started.exportId());
+        OrderExport done = awaitFinished(started.exportId());
+
+        assertEquals(ExportSegment.Status.DONE, done.status());
+        assertEquals(ORDERS, done.rows());
+        assertExportedOnce(done);
+        assertNotNull(uploaded.get(done.manifest()));
+    }
+
+    @Test
+    void resumeOnlyFinishesSegmentWhoseScanCompleted() throws Exception {
+        // Saving the last file of segment 1 fails once: all of it is in S3, but it isn't marked done
+        AtomicBoolean failOnce = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            ExportSegment segment = invocation.getArgument(0);
+            if (segment.getSegment() == 1 && segment.getStatus() == ExportSegment.Status.RUNNING
+                    && segment.isScanComplete() && failOnce.getAndSet(false)) {
+                throw new IllegalStateException("Throughput exceeded");
+            }
+            segments.put(segment.getExportId() + "#" + segment.getSegment(), copy(segment));
+            return null;
+        }).when(exportRepository).save(any(ExportSegment.class));
+
+        OrderExport started = service.start(2);
+        OrderExport failed = awaitFinished(started.exportId());
+        assertEquals(ExportSegment.Status.FAILED, failed.status());
+        ExportSegment segment = segments.get(started.exportId() + "#1");
+        assertTrue(segment.isScanComplete());
+
+        service.resume(started.exportId());
+        OrderExport done = awaitFinished(started.exportId());
+
+        assertEquals(ExportSegment.Status.DONE, done.status());
+        assertEquals(ORDERS, done.rows());
+        assertExportedOnce(done);
+        verify(orderRepository, times(1)).scanSegment(eq(1), eq(2), anyInt(), isNull());
+        assertEquals(ORDERS, objectMapper.readTree(uploaded.get(done.manifest())).get("rows").asInt());
+    }
+
+    @Test
+    void rejectsInvalidSegmentCount() {
+        assertThrows(IllegalArgumentException.class, () -> service.start(0));
+        assertThrows(IllegalArgumentException.class, () -> service.start(17));
+    }
+
+    private void assertExportedOnce(OrderExport export) {
+        List<String> ids = export.files().stream()
+                .map(uploaded::get)
+                .flatMap(body -> Arrays.stream(body.split("\n")))
+                .map(line -> {
+                    try {
+                        return objectMapper.readTree(line).get("orderId").asText();
+                    } catch (Exception e) {
+                        throw new AssertionError(e);
+                    }
+                })
+                .sorted()
+                .toList();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            expected.add(order(i).getOrderId());
+        }
+        assertEquals(expected.stream().sorted().toList(), ids);
+    }
+
+    private OrderExport awaitFinished(String exportId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            OrderExport export = service.status(exportId).orElseThrow();
+            boolean manifestWritten = export.status() != ExportSegment.Status.DONE || uploaded.containsKey(export.manifest());
+            if (export.status() != ExportSegment.Status.RUNNING && manifestWritten) {
+                return export;
+            }
+            Thread.sleep(20);
+        }
+        return fail("Export " + exportId + " did not finish");
+    }
+
+    // The service mutates the segments it works on; the "table" keeps what was saved
+    private static ExportSegment copy(ExportSegment segment) {
+        ExportSegment copy = new ExportSegment();
+        copy.setExportId(segment.getExportId());
+        copy.setSegment(segment.getSegment());
+        copy.setTotalSegments(segment.getTotalSegments());
+        copy.setStatus(segment.getStatus());
+        copy.setPageToken(segment.getPageToken());
+        copy.setNextPart(segment.getNextPart());
+        copy.setRows(segment.getRows());
+        copy.setFiles(new ArrayList<>(segment.getFiles()));
+        copy.setError(segment.getError());
+        copy.setCreatedAt(segment.getCreatedAt());
+        return copy;
+    }
+
+    private static Order order(int i) {
+        Order order = new Order();
+        order.setOrderId(String.format("order-%02d", i));
+        order.setCustomerName("Customer " + i);
+        order.setAmount(10.0 + i);
+        return order;
+    }
+}
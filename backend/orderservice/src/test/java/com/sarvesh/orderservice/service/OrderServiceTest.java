@@ -0,0 +1,128 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderEvent;
+import com.sarvesh.orderservice.model.OutboxEvent;
+import com.sarvesh.orderservice.repository.InvoiceRefRepository;
+import com.sarvesh.orderservice.repository.OrderRepository;
+import com.sarvesh.orderservice.repository.OutboxRepository;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+
+class OrderServiceTest {
+
+    private static final String INVOICE_KEY = S3Service.CONTENT_KEY_PREFIX + "a".repeat(64);
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final S3Service s3Service = mock(S3Service.class);
+    private final InvoiceRefRepository invoiceRefRepository = mock(InvoiceRefRepository.class);
+    private final IdempotencyService idempotencyService = mock(IdempotencyService.class);
+    private final ExecutorService ioExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final OutboxRepository outboxRepository = new OutboxRepository(mock(DynamoDbEnhancedClient.class), "OrderOutbox", 8);
+    private final OrderService service = new OrderService(orderRepository, s3Service, invoiceRefRepository, outboxRepository,
+            new OrderEventCodec(new ObjectMapper(), "json"), mock(OrderCache.class), idempotencyService,
+            TestGuards.create(), ioExecutor);
+
+    private final MockMultipartFile file = new MockMultipartFile("file", "invoice.pdf", "application/pdf", new byte[64]);
+
+    @AfterEach
+    void tearDown() {
+        ioExecutor.shutdownNow();
+    }
+
+    @Test
+    void uploadsTheInvoiceWhileTheKeyIsReserved() throws Exception {
+        CountDownLatch uploadStarted = new CountDownLatch(1);
+        when(s3Service.uploadFile(file)).thenAnswer(invocation -> {
+            uploadStarted.countDown();
+            return INVOICE_KEY;
+        });
+        // Only returns once the upload has started, which it couldn't if the two ran one after the other
+        when(idempotencyService.reserve(eq("key-1"), anyString())).thenAnswer(invocation -> {
+            assertTrue(uploadStarted.await(5, TimeUnit.SECONDS));
+            return new IdempotencyService.Reservation(IdempotencyService.Outcome.ACQUIRED, "order-1", new Date(), null);
+        });
+
+        IdempotencyService.Reservation result = service.createOrder(order(), file, "key-1");
+
+        assertEquals(INVOICE_KEY, result.order().getInvoiceUrl());
+        verify(invoiceRefRepository).add(INVOICE_KEY, "order-1");
+        verify(orderRepository).saveWithEvents(any(), any());
+    }
+
+    @Test
+    void replayWaitsForTheUploadButWritesNothing() throws Exception {
+        AtomicBoolean uploadFinished = new AtomicBoolean();
+        when(s3Service.uploadFile(file)).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            uploadFinished.set(true);
+            return INVOICE_KEY;
+        });
+        when(idempotencyService.reserve(eq("key-1"), anyString())).thenReturn(
+                new IdempotencyService.Reservation(IdempotencyService.Outcome.REPLAYED, "order-1", new Date(), order()));
+
+        service.createOrder(order(), file, "key-1");
+
+        // The request's file is deleted once it returns, so the upload must be done by then
+        assertTrue(uploadFinished.get());
+        verify(invoiceRefRepository, never()).add(any(), any());
+        verify(orderRepository, never()).saveWithEvents(any(), any());
+    }
+
+    @Test
+    void ignoresInvoiceUrlSentByTheClient() throws Exception {
+        Order order = order();
+        order.setInvoiceUrl("exports/e-1/manifest.json");
+
+        Order saved = service.createOrder(order, null);
+
+        assertNull(saved.getInvoiceUrl());
+    }
+
+    @Test
+    void orderCreatedSortsBeforeLaterEventsWhateverCreatedAtTheClientSent() throws Exception {
+        Order order = order();
+        order.setCreatedAt(new Date(Long.MAX_VALUE / 2));
+
+        Order saved = service.createOrder(order, null);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboxEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(orderRepository).saveWithEvents(any(), events.capture());
+        String created = events.getValue().get(0).getEventId();
+        String attached = outboxRepository.newEvent(saved.getOrderId(), OrderEvent.INVOICE_ATTACHED).getEventId();
+        assertTrue(created.compareTo(attached) < 0, created + " should sort before " + attached);
+    }
+
+    private static Order order() {
+        Order order = new Order();
+        order.setCustomerName("alice");
+        order.setAmount(10.5);
+        return order;
+    }
+}
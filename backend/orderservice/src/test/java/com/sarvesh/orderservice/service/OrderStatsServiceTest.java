@@ -0,0 +1,163 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderEvent;
+import com.sarvesh.orderservice.model.OrderStats;
+import com.sarvesh.orderservice.model.OrderStatsCheckpoint;
+import com.sarvesh.orderservice.model.OrderStatsReport;
+import com.sarvesh.orderservice.repository.OrderStatsRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderStatsServiceTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T10:15:00Z");
+
+    private final OrderStatsRepository repository = mock(OrderStatsRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void countsEachEventOnce() {
+        OrderStatsService service = service(false);
+
+        service.record(event("e1", "Alice", 10.0, T0));
+        service.record(event("e1", "Alice", 10.0, T0));
+        service.record(event("e2", "Alice", 30.0, T0));
+
+        OrderStats stats = service.customerStats("Alice");
+        assertEquals(2, stats.count());
+        assertEquals(40.0, stats.sum());
+        assertEquals(20.0, stats.average());
+        assertEquals(10.0, stats.min());
+        assertEquals(30.0, stats.max());
+    }
+
+    @Test
+    void groupsOrdersIntoTimeBuckets() {
+        OrderStatsService service = service(false);
+
+        service.record(event("e1", "Alice", 10.0, T0));
+        service.record(event("e2", "Bob", 20.0, T0.plus(Duration.ofMinutes(30))));
+        service.record(event("e3", "Bob", 40.0, T0.plus(Duration.ofHours(2))));
+
+        OrderStatsReport report = service.rangeStats(T0, T0.plus(Duration.ofHours(3)));
+
+        assertEquals(Instant.parse("2024-01-01T10:00:00Z"), report.from());
+        assertEquals(List.of("2024-01-01T10:00:00Z", "2024-01-01T12:00:00Z"),
+                report.buckets().stream().map(OrderStats::name).toList());
+        assertEquals(2, report.buckets().get(0).count());
+        assertEquals(3, report.total().count());
+        assertEquals(70.0, report.total().sum());
+    }
+
+    @Test
+    void rejectsTooLongRange() {
+        OrderStatsService service = service(false);
+
+        assertThrows(IllegalArgumentException.class, () -> service.rangeStats(T0, T0.plus(Duration.ofDays(30))));
+    }
+
+    @Test
+    void mergesOtherInstancesCheckpoints() {
+        when(repository.find(anyString(), anyString())).thenReturn(Optional.empty());
+        OrderStatsService service = service(true);
+        service.record(event("e1", "Alice", 10.0, T0));
+
+        // A row of another instance, and a stale row of this one that the live aggregate replaces
+        OrderAggregate other = new OrderAggregate();
+        other.record(50.0);
+        OrderAggregate stale = new OrderAggregate();
+        stale.record(1.0);
+        when(repository.findAllAsync("customer#Alice")).thenReturn(CompletableFuture.completedFuture(List.of(
+                other.takeCheckpoint("customer#Alice", "other"),
+                stale.takeCheckpoint("customer#Alice", "this"))));
+
+        OrderStats stats = service.customerStats("Alice");
+
+        assertEquals(2, stats.count());
+        assertEquals(60.0, stats.sum());
+    }
+
+    @Test
+    void rewritesAggregatesWhoseCheckpointFailed() {
+        when(repository.find(anyString(), anyString())).thenReturn(Optional.empty());
+        OrderStatsService service = service(true);
+        service.record(event("e1", "Alice", 10.0, T0));
+
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<OrderStatsCheckpoint> checkpoints = invocation.getArgument(0);
+            return checkpoints.stream().filter(c -> c.getAggregateKey().startsWith("customer#")).toList();
+        });
+        // Customer and bucket aggregate changed; only the bucket one is written
+        assertEquals(1, service.checkpoint());
+
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> List.of());
+        assertEquals(1, service.checkpoint());
+        assertEquals(0, service.checkpoint());
+        assertEquals(1.0, registry.counter("orders.stats.checkpoint.failed").count());
+    }
+
+    @Test
+    void dropsIdleAggregatesOnceCheckpointedAndRestoresThemOnNextOrder() {
+        Map<String, OrderStatsCheckpoint> rows = new ConcurrentHashMap<>();
+        when(repository.find(anyString(), anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.getArgument(0))));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<OrderStatsCheckpoint> checkpoints = invocation.getArgument(0);
+            checkpoints.forEach(c -> rows.put(c.getAggregateKey(), c));
+            return List.of();
+        });
+        when(repository.findAllAsync(anyString())).thenAnswer(invocation -> CompletableFuture.completedFuture(
+                Optional.ofNullable(rows.get(invocation.getArgument(0))).stream().toList()));
+        OrderStatsService service = service(true);
+        service.record(event("e1", "Alice", 10.0, T0));
+
+        assertEquals(2, service.checkpoint());
+        assertEquals(2.0, registry.get("orders.stats.aggregates").gauge().value());
+        // Nothing new for a whole interval: both rows are current, so both aggregates go
+        assertEquals(0, service.checkpoint());
+        assertEquals(0.0, registry.get("orders.stats.aggregates").gauge().value());
+
+        // Reads use this instance's row instead
+        assertEquals(1, service.customerStats("Alice").count());
+        assertEquals(1, service.rangeStats(T0, T0.plus(Duration.ofHours(1))).total().count());
+
+        // The next order picks up from the row
+        service.record(event("e2", "Alice", 30.0, T0));
+        OrderStats stats = service.customerStats("Alice");
+        assertEquals(2, stats.count());
+        assertEquals(40.0, stats.sum());
+    }
+
+    private OrderStatsService service(boolean checkpointEnabled) {
+        return new OrderStatsService(repository, registry, "this", Duration.ofHours(1), 168, 1000,
+                checkpointEnabled, Duration.ofSeconds(30));
+    }
+
+    private static OrderEvent event(String eventId, String customer, double amount, Instant createdAt) {
+        Order order = new Order();
+        order.setOrderId("order-" + eventId);
+        order.setCustomerName(customer);
+        order.setAmount(amount);
+        order.setCreatedAt(Date.from(createdAt));
+        return new OrderEvent(OrderEvent.SCHEMA_VERSION, eventId, OrderEvent.ORDER_CREATED, createdAt.toEpochMilli(), order);
+    }
+}
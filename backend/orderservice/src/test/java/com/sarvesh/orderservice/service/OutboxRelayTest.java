@@ -0,0 +1,94 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.sarvesh.orderservice.model.OrderEvent;
+import com.sarvesh.orderservice.model.OutboxEvent;
+import com.sarvesh.orderservice.repository.OutboxRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
+import software.amazon.awssdk.services.sns.model.PublishBatchResultEntry;
+
+class OutboxRelayTest {
+
+    private final OutboxRepository outboxRepository = mock(OutboxRepository.class);
+    private final SnsService snsService = mock(SnsService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OutboxRelay relay;
+
+    OutboxRelayTest() {
+        when(outboxRepository.shards()).thenReturn(4);
+        relay = new OutboxRelay(outboxRepository, snsService, registry, false, 2, 10,
+                Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofMillis(100));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishesOneEventPerOrderAtATimeAndDeletesThem() {
+        List<OutboxEvent> head = List.of(event("e1", "order-a"), event("e2", "order-a"), event("e3", "order-b"));
+        when(outboxRepository.head(0, 25)).thenReturn(head);
+        when(snsService.publishBatch(anyList())).thenAnswer(invocation -> {
+            List<PublishBatchRequestEntry> entries = invocation.getArgument(0);
+            return PublishBatchResponse.builder()
+                    .successful(entries.stream().map(e -> PublishBatchResultEntry.builder().id(e.id()).build()).toList())
+                    .build();
+        });
+
+        OutboxRelay.RelayResult result = relay.relayShard(0);
+
+        ArgumentCaptor<List<PublishBatchRequestEntry>> sent = ArgumentCaptor.forClass(List.class);
+        verify(snsService).publishBatch(sent.capture());
+        // e2 waits until e1 of the same order is gone
+        assertEquals(List.of("e1", "e3"), sent.getValue().stream()
+                .map(e -> e.messageAttributes().get("eventId").stringValue()).toList());
+        verify(outboxRepository).delete(List.of(head.get(0), head.get(2)));
+        assertEquals(2, result.relayed());
+        assertEquals(2.0, registry.counter("orders.outbox.published").count());
+        assertEquals(2, registry.timer("orders.outbox.lag").count());
+    }
+
+    @Test
+    void keepsRetryableFailuresAndDropsRejectedEvents() {
+        List<OutboxEvent> head = List.of(event("e1", "order-a"), event("e2", "order-b"), event("e3", "order-c"));
+        when(outboxRepository.head(anyInt(), anyInt())).thenReturn(head);
+        when(snsService.publishBatch(anyList())).thenReturn(PublishBatchResponse.builder()
+                .successful(PublishBatchResultEntry.builder().id("0").build())
+                .failed(BatchResultErrorEntry.builder().id("1").code("Throttled").senderFault(false).build(),
+                        BatchResultErrorEntry.builder().id("2").code("InvalidParameter").senderFault(true).build())
+                .build());
+
+        OutboxRelay.RelayResult result = relay.relayShard(1);
+
+        verify(outboxRepository).delete(List.of(head.get(0), head.get(2)));
+        assertEquals(1, result.retrying());
+        assertEquals(1.0, registry.counter("orders.outbox.retried").count());
+        assertEquals(1.0, registry.counter("orders.outbox.dead").count());
+    }
+
+    private static OutboxEvent event(String eventId, String orderId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setShard(0);
+        event.setEventId(eventId);
+        event.setOrderId(orderId);
+        event.setEventType(OrderEvent.ORDER_CREATED);
+        event.setPayload("{}");
+        event.setContentType(OrderEventCodec.JSON);
+        event.setSchemaVersion(OrderEvent.SCHEMA_VERSION);
+        event.setCreatedAt(System.currentTimeMillis());
+        return event;
+    }
+}
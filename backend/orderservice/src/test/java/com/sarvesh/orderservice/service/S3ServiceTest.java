@@ -0,0 +1,174 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+class S3ServiceTest {
+
+    private static final byte[] INVOICE = "invoice #1".getBytes(StandardCharsets.UTF_8);
+
+    private final S3Client s3Client = mock(S3Client.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService ioExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final S3Service service = new S3Service(s3Client, ioExecutor, registry);
+    private final MockMultipartFile file = new MockMultipartFile("file", "invoice.pdf", "application/pdf", INVOICE);
+
+    S3ServiceTest() {
+        ReflectionTestUtils.setField(service, "bucketName", "invoices-bucket");
+        ReflectionTestUtils.setField(service, "multipartThreshold", DataSize.ofMegabytes(16));
+        ReflectionTestUtils.setField(service, "partSize", DataSize.ofBytes(5));
+        ReflectionTestUtils.setField(service, "partConcurrency", 2);
+    }
+
+    @AfterEach
+    void shutdown() {
+        ioExecutor.shutdownNow();
+    }
+
+    @Test
+    void skipsUploadOfStoredContent() throws Exception {
+        when(s3Client.headObject(S3ServiceTest.<HeadObjectRequest.Builder>anyConsumer()))
+                .thenReturn(HeadObjectResponse.builder().contentLength((long) INVOICE.length).build());
+
+        String key = service.uploadFile(file);
+
+        assertEquals(S3Service.CONTENT_KEY_PREFIX + HexFormat.of().formatHex(sha256()), key);
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        assertEquals(1.0, registry.counter("orders.invoice.upload.deduplicated").count());
+    }
+
+    @Test
+    void uploadsNewContentWithChecksum() throws Exception {
+        when(s3Client.headObject(S3ServiceTest.<HeadObjectRequest.Builder>anyConsumer()))
+                .thenThrow(NoSuchKeyException.builder().build());
+
+        String key = service.uploadFile(file);
+
+        ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(request.capture(), any(RequestBody.class));
+        assertEquals(key, request.getValue().key());
+        assertEquals(Base64.getEncoder().encodeToString(sha256()), request.getValue().checksumSHA256());
+    }
+
+    @Test
+    void uploadsStreamOfUnknownLengthInParts() throws Exception {
+        when(s3Client.createMultipartUpload(S3ServiceTest.<CreateMultipartUploadRequest.Builder>anyConsumer()))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(S3ServiceTest.<UploadPartRequest.Builder>anyConsumer(), any(RequestBody.class)))
+                .thenAnswer(invocation -> UploadPartResponse.builder()
+                        .eTag("etag-" + partNumber(invocation.getArgument(0)))
+                        .build());
+        AtomicReference<CompleteMultipartUploadRequest> completed = new AtomicReference<>();
+        when(s3Client.completeMultipartUpload(S3ServiceTest.<CompleteMultipartUploadRequest.Builder>anyConsumer()))
+                .thenAnswer(invocation -> {
+                    CompleteMultipartUploadRequest.Builder request = CompleteMultipartUploadRequest.builder();
+                    invocation.<Consumer<CompleteMultipartUploadRequest.Builder>>getArgument(0).accept(request);
+                    completed.set(request.build());
+                    return CompleteMultipartUploadResponse.builder().build();
+                });
+
+        // 12 bytes in parts of 5: 5 + 5 + 2
+        service.uploadStream("exports/orders.ndjson", "application/x-ndjson",
+                new ByteArrayInputStream("0123456789ab".getBytes(StandardCharsets.UTF_8)), -1);
+
+        List<CompletedPart> parts = completed.get().multipartUpload().parts();
+        assertEquals(List.of(1, 2, 3), parts.stream().map(CompletedPart::partNumber).toList());
+        assertEquals(List.of("etag-1", "etag-2", "etag-3"), parts.stream().map(CompletedPart::eTag).toList());
+        verify(s3Client, never()).abortMultipartUpload(S3ServiceTest.<AbortMultipartUploadRequest.Builder>anyConsumer());
+    }
+
+    @Test
+    void abortsMultipartUploadOnlyAfterPartsInFlightFinished() throws Exception {
+        CountDownLatch secondPartStarted = new CountDownLatch(1);
+        AtomicBoolean secondPartDone = new AtomicBoolean();
+        AtomicBoolean abortedAfterSecondPart = new AtomicBoolean();
+
+        when(s3Client.createMultipartUpload(S3ServiceTest.<CreateMultipartUploadRequest.Builder>anyConsumer()))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(S3ServiceTest.<UploadPartRequest.Builder>anyConsumer(), any(RequestBody.class)))
+                .thenAnswer(invocation -> {
+                    if (partNumber(invocation.getArgument(0)) == 1) {
+                        // Fail while part 2 is still being uploaded
+                        secondPartStarted.await(5, TimeUnit.SECONDS);
+                        throw S3Exception.builder().statusCode(500).message("part 1 failed").build();
+                    }
+                    secondPartStarted.countDown();
+                    Thread.sleep(100);
+                    secondPartDone.set(true);
+                    return UploadPartResponse.builder().eTag("etag-2").build();
+                });
+        when(s3Client.abortMultipartUpload(S3ServiceTest.<AbortMultipartUploadRequest.Builder>anyConsumer()))
+                .thenAnswer(invocation -> {
+                    abortedAfterSecondPart.set(secondPartDone.get());
+                    return AbortMultipartUploadResponse.builder().build();
+                });
+
+        assertThrows(IOException.class, () -> service.uploadStream("exports/orders.ndjson", "application/x-ndjson",
+                new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.UTF_8)), -1));
+
+        verify(s3Client).abortMultipartUpload(S3ServiceTest.<AbortMultipartUploadRequest.Builder>anyConsumer());
+        verify(s3Client, never()).completeMultipartUpload(S3ServiceTest.<CompleteMultipartUploadRequest.Builder>anyConsumer());
+        assertTrue(abortedAfterSecondPart.get(), "abort must wait for the part still in flight");
+    }
+
+    private static int partNumber(Consumer<UploadPartRequest.Builder> consumer) {
+        UploadPartRequest.Builder request = UploadPartRequest.builder();
+        consumer.accept(request);
+        return request.build().partNumber();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Consumer<T> anyConsumer() {
+        return any(Consumer.class);
+    }
+
+    private static byte[] sha256() throws Exception {
+        return MessageDigest.getInstance("SHA-256").digest(INVOICE);
+    }
+}
@@ -0,0 +1,264 @@
+package com.sarvesh.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarvesh.orderservice.model.Order;
+import com.sarvesh.orderservice.model.OrderEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchResponse;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+class SqsPollerServiceTest {
+
+    private static final String QUEUE_URL = "http://localhost:4566/000000000000/order-queue";
+    private static final String DLQ_URL = "http://localhost:4566/000000000000/order-queue-dlq";
+    private static final int VISIBILITY_TIMEOUT_SECONDS = 30;
+    private static final int MAX_RECEIVES = 3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SqsClient sqsClient = mock(SqsClient.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // Messages handed out by the stubbed ReceiveMessage, one receive per list
+    private final ConcurrentLinkedQueue<List<Message>> receives = new ConcurrentLinkedQueue<>();
+    private final List<Integer> requestedMaxMessages = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> deleted = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> deletingThreads = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> deadLettered = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> extended = Collections.synchronizedList(new ArrayList<>());
+
+    private final CountDownLatch releaseHandlers = new CountDownLatch(1);
+    private SqsPollerService service;
+
+    SqsPollerServiceTest() {
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class))).thenAnswer(invocation -> {
+            requestedMaxMessages.add(invocation.<ReceiveMessageRequest>getArgument(0).maxNumberOfMessages());
+            List<Message> messages = receives.poll();
+            if (messages == null) {
+                // Stands in for an empty long poll
+                Thread.sleep(20);
+                messages = List.of();
+            }
+            return ReceiveMessageResponse.builder().messages(messages).build();
+        });
+        when(sqsClient.deleteMessageBatch(SqsPollerServiceTest.<DeleteMessageBatchRequest.Builder>anyConsumer()))
+                .thenAnswer(invocation -> {
+                    deletingThreads.add(Thread.currentThread().getName());
+                    DeleteMessageBatchRequest.Builder request = DeleteMessageBatchRequest.builder();
+                    invocation.<Consumer<DeleteMessageBatchRequest.Builder>>getArgument(0).accept(request);
+                    request.build().entries().stream().map(DeleteMessageBatchRequestEntry::receiptHandle).forEach(deleted::add);
+                    return DeleteMessageBatchResponse.builder().build();
+                });
+        when(sqsClient.sendMessage(SqsPollerServiceTest.<SendMessageRequest.Builder>anyConsumer()))
+                .thenAnswer(invocation -> {
+                    SendMessageRequest.Builder request = SendMessageRequest.builder();
+                    invocation.<Consumer<SendMessageRequest.Builder>>getArgument(0).accept(request);
+                    SendMessageRequest sent = request.build();
+                    assertEquals(DLQ_URL, sent.queueUrl());
+                    deadLettered.add(sent.messageBody());
+                    return SendMessageResponse.builder().build();
+                });
+        when(sqsClient.changeMessageVisibilityBatch(SqsPollerServiceTest.<ChangeMessageVisibilityBatchRequest.Builder>anyConsumer()))
+                .thenAnswer(invocation -> {
+                    ChangeMessageVisibilityBatchRequest.Builder request = ChangeMessageVisibilityBatchRequest.builder();
+                    invocation.<Consumer<ChangeMessageVisibilityBatchRequest.Builder>>getArgument(0).accept(request);
+                    for (ChangeMessageVisibilityBatchRequestEntry entry : request.build().entries()) {
+                        assertEquals(VISIBILITY_TIMEOUT_SECONDS, entry.visibilityTimeout());
+                        extended.add(entry.receiptHandle());
+                    }
+                    return ChangeMessageVisibilityBatchResponse.builder().build();
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseHandlers.countDown();
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void acknowledgesHandledMessages() throws Exception {
+        receives.add(List.of(message("m1", "order-1", 1), message("m2", "order-2", 1)));
+        start(1, 10, event -> { });
+
+        awaitIdle();
+        service.stop();
+
+        assertEquals(Set.of("rh-m1", "rh-m2"), Set.copyOf(deleted));
+        assertEquals(2, registry.get("sqs.consumer.processing").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void deletesOffThePartitionThreads() throws Exception {
+        List<Message> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(message("m" + i, "order-" + i, 1));
+        }
+        receives.add(batch);
+        start(1, 10, event -> { });
+
+        // Deletes go out while the consumer runs, from the acknowledger's thread only
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (deleted.size() < 10) {
+            assertTrue(System.nanoTime() < deadline, "expected all 10 messages deleted");
+            Thread.sleep(5);
+        }
+        assertEquals(Set.of("sqs-acknowledger"), Set.copyOf(deletingThreads));
+    }
+
+    @Test
+    void onlyReceivesAsManyMessagesAsThereIsCapacityFor() throws Exception {
+        receives.add(List.of(message("m1", "order-1", 1), message("m2", "order-2", 1), message("m3", "order-3", 1)));
+        start(1, 3, event -> releaseHandlers.await(5, TimeUnit.SECONDS));
+
+        verify(sqsClient, timeout(2_000)).receiveMessage(any(ReceiveMessageRequest.class));
+        // All three slots are taken by blocked handlers, so the poller must not ask for more
+        Thread.sleep(200);
+        assertEquals(List.of(3), requestedMaxMessages);
+        assertEquals(3, service.getInFlightCount());
+
+        releaseHandlers.countDown();
+        awaitIdle();
+        assertTrue(requestedMaxMessages.size() > 1);
+    }
+
+    @Test
+    void heartbeatExtendsMessagesBeforeTheyBecomeVisibleAgain() throws Exception {
+        receives.add(List.of(message("m1", "order-1", 1)));
+        start(1, 10, event -> releaseHandlers.await(5, TimeUnit.SECONDS));
+        awaitInFlight(1);
+        long afterReceive = System.currentTimeMillis();
+
+        // Just received: a full window left, nothing to extend yet
+        service.extendVisibility(afterReceive);
+        assertEquals(List.of(), extended);
+
+        // One beat (a third of the window) later the message would expire before the beat after next
+        service.extendVisibility(afterReceive + TimeUnit.SECONDS.toMillis(VISIBILITY_TIMEOUT_SECONDS) / 3);
+        assertEquals(List.of("rh-m1"), extended);
+    }
+
+    @Test
+    void deadLettersUndecodableMessagesAtOnce() throws Exception {
+        receives.add(List.of(rawMessage("m1", "not an event", 1)));
+        start(1, 10, event -> { });
+
+        awaitIdle();
+        service.stop();
+
+        assertEquals(List.of("not an event"), deadLettered);
+        assertEquals(List.of("rh-m1"), deleted);
+        assertEquals(1.0, registry.get("sqs.consumer.dead-lettered").tag("reason", "undecodable").counter().count());
+    }
+
+    @Test
+    void retriesFailedMessagesUntilMaxReceives() throws Exception {
+        Message retried = message("m1", "order-1", MAX_RECEIVES - 1);
+        Message exhausted = message("m2", "order-2", MAX_RECEIVES);
+        receives.add(List.of(retried, exhausted));
+        start(1, 10, event -> {
+            throw new IllegalStateException("handler failed");
+        });
+
+        awaitIdle();
+        service.stop();
+
+        // The retried message is left alone so it becomes visible again; only the exhausted one moves
+        assertEquals(List.of(exhausted.body()), deadLettered);
+        assertEquals(List.of("rh-m2"), deleted);
+        assertEquals(1.0, registry.get("sqs.consumer.dead-lettered").tag("reason", "exhausted").counter().count());
+        verify(sqsClient, never()).changeMessageVisibilityBatch(
+                SqsPollerServiceTest.<ChangeMessageVisibilityBatchRequest.Builder>anyConsumer());
+    }
+
+    private interface Body {
+        void run(OrderEvent event) throws Exception;
+    }
+
+    private void start(int pollers, int maxInFlight, Body body) {
+        OrderEventHandler handler = new OrderEventHandler() {
+            @Override
+            public Set<String> eventTypes() {
+                return Set.of(OrderEvent.ORDER_CREATED);
+            }
+
+            @Override
+            public void handle(OrderEvent event) throws Exception {
+                body.run(event);
+            }
+        };
+        service = new SqsPollerService(sqsClient, new OrderEventCodec(objectMapper, "json"), List.of(handler),
+                QUEUE_URL, DLQ_URL, true, pollers, 4, MAX_RECEIVES, maxInFlight, 20, VISIBILITY_TIMEOUT_SECONDS,
+                Duration.ofMillis(20), registry);
+        service.start();
+    }
+
+    private void awaitInFlight(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getInFlightCount() != count) {
+            assertTrue(System.nanoTime() < deadline, "expected " + count + " messages in flight");
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        verify(sqsClient, timeout(2_000).atLeast(2)).receiveMessage(any(ReceiveMessageRequest.class));
+        awaitInFlight(0);
+    }
+
+    private Message message(String messageId, String orderId, int receiveCount) throws Exception {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        OrderEvent event = new OrderEvent(OrderEvent.SCHEMA_VERSION, "event-" + messageId, OrderEvent.ORDER_CREATED, 0, order);
+        return rawMessage(messageId, objectMapper.writeValueAsString(event), receiveCount);
+    }
+
+    private static Message rawMessage(String messageId, String body, int receiveCount) {
+        return Message.builder()
+                .messageId(messageId)
+                .receiptHandle("rh-" + messageId)
+                .body(body)
+                .attributesWithStrings(Map.of("ApproximateReceiveCount", Integer.toString(receiveCount)))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Consumer<T> anyConsumer() {
+        return any(Consumer.class);
+    }
+}
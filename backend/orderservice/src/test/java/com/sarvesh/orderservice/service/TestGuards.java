@@ -0,0 +1,22 @@
+package com.sarvesh.orderservice.service;
+
+import java.time.Duration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link DependencyGuards} with the defaults from application.properties, for services under test.
+ */
+final class TestGuards {
+
+    private TestGuards() {
+    }
+
+    static DependencyGuards create() {
+        return new DependencyGuards(new SimpleMeterRegistry(),
+                32, 32, Duration.ofSeconds(60),
+                64, 128, Duration.ofSeconds(3),
+                8, 16, Duration.ofSeconds(5),
+                50, 20, 0.5, Duration.ofSeconds(10), 5);
+    }
+}